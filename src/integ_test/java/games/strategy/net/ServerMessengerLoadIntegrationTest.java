@@ -0,0 +1,112 @@
+package games.strategy.net;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import games.strategy.debug.ClientLogger;
+import games.strategy.test.TestUtil;
+import games.strategy.util.ThreadUtil;
+
+/**
+ * Connects a few hundred loopback clients to a server and measures how long a broadcast takes to reach all of them.
+ */
+public class ServerMessengerLoadIntegrationTest {
+  private static final Logger logger = Logger.getLogger(ServerMessengerLoadIntegrationTest.class.getName());
+  private static final int CLIENT_COUNT = 200;
+  private static final int BROADCAST_COUNT = 50;
+  private static final long BROADCAST_TIMEOUT_SECONDS = 10;
+
+  private final AtomicLong expectedMessage = new AtomicLong(-1);
+  private volatile CountDownLatch received = new CountDownLatch(0);
+  private IServerMessenger serverMessenger;
+  private final List<IMessenger> clientMessengers = new ArrayList<>();
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    final int serverPort = TestUtil.getUniquePort();
+    serverMessenger = new ServerMessenger("Server", serverPort);
+    serverMessenger.setAcceptNewConnections(true);
+    serverMessenger.addMessageListener(this::messageReceived);
+    final String mac = MacFinder.getHashedMacAddress();
+    for (int i = 0; i < CLIENT_COUNT; i++) {
+      final IMessenger client = new ClientMessenger("localhost", serverPort, "client" + i, mac);
+      client.addMessageListener(this::messageReceived);
+      clientMessengers.add(client);
+    }
+    for (int i = 0; i < 100 && serverMessenger.getNodes().size() != CLIENT_COUNT + 1; i++) {
+      ThreadUtil.sleep(10);
+    }
+    assertEquals(CLIENT_COUNT + 1, serverMessenger.getNodes().size());
+  }
+
+  @AfterEach
+  public void tearDown() {
+    for (final IMessenger client : clientMessengers) {
+      try {
+        client.shutDown();
+      } catch (final Exception e) {
+        ClientLogger.logQuietly(e);
+      }
+    }
+    if (serverMessenger != null) {
+      serverMessenger.shutDown();
+    }
+  }
+
+  private void messageReceived(final Serializable msg, final INode from) {
+    if (msg instanceof Long && (Long) msg == expectedMessage.get()) {
+      received.countDown();
+    }
+  }
+
+  private long[] measureBroadcasts(final IMessenger sender) throws InterruptedException {
+    final long[] latencies = new long[BROADCAST_COUNT];
+    for (int i = 0; i < BROADCAST_COUNT; i++) {
+      // every node but the sender receives the broadcast
+      received = new CountDownLatch(CLIENT_COUNT);
+      final long message = expectedMessage.incrementAndGet();
+      final long start = System.nanoTime();
+      sender.broadcast(message);
+      assertTrue(received.await(BROADCAST_TIMEOUT_SECONDS, TimeUnit.SECONDS),
+          "broadcast " + message + " missing " + received.getCount() + " receivers");
+      latencies[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(latencies);
+    return latencies;
+  }
+
+  private static void report(final String name, final long[] sortedLatencies) {
+    logger.info(String.format("%s to %d clients: median %.2f ms, 99th percentile %.2f ms, max %.2f ms", name,
+        CLIENT_COUNT, toMillis(sortedLatencies[sortedLatencies.length / 2]),
+        toMillis(sortedLatencies[sortedLatencies.length * 99 / 100]),
+        toMillis(sortedLatencies[sortedLatencies.length - 1])));
+  }
+
+  private static double toMillis(final long nanos) {
+    return nanos / 1_000_000.0;
+  }
+
+  @Test
+  public void serverBroadcastShouldReachAllClients() throws Exception {
+    report("Server broadcast", measureBroadcasts(serverMessenger));
+  }
+
+  @Test
+  public void clientBroadcastShouldReachServerAndAllOtherClients() throws Exception {
+    report("Client broadcast", measureBroadcasts(clientMessengers.get(0)));
+  }
+}
@@ -2,16 +2,20 @@ package games.strategy.engine.chat;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.google.common.collect.ImmutableSet;
+
 import games.strategy.engine.lobby.server.IModeratorController;
 import games.strategy.engine.message.IChannelMessenger;
 import games.strategy.engine.message.IRemoteMessenger;
 import games.strategy.engine.message.MessageContext;
+import games.strategy.engine.message.RemoteMethodCall;
 import games.strategy.engine.message.RemoteName;
 import games.strategy.net.IConnectionChangeListener;
 import games.strategy.net.IMessenger;
@@ -24,6 +28,8 @@ public class ChatController implements IChatController {
   private static final Logger logger = Logger.getLogger(ChatController.class.getName());
   private static final String CHAT_REMOTE = "_ChatRmt";
   private static final String CHAT_CHANNEL = "_ChatCtrl";
+  private static final Set<String> CHAT_MESSAGE_METHODS =
+      ImmutableSet.of("chatOccured", "meMessageOccured", "slapOccured", "ping");
   private final IMessenger messenger;
   private final IRemoteMessenger remoteMessenger;
   private final IModeratorController moderatorController;
@@ -56,6 +62,19 @@ public class ChatController implements IChatController {
     return CHAT_CHANNEL + chatName;
   }
 
+  /**
+   * @return true if the specified call only carries a chat message or a ping, rather than a change to the chatters, so
+   *         a connection that is falling behind can skip it without getting out of sync.
+   */
+  public static boolean isChatMessageCall(final RemoteMethodCall call) {
+    if (!call.getRemoteName().startsWith(CHAT_CHANNEL)) {
+      return false;
+    }
+    // calls relayed by the server have not been resolved yet
+    final String methodName = call.getMethodName(IChatChannel.class);
+    return methodName != null && CHAT_MESSAGE_METHODS.contains(methodName);
+  }
+
   public ChatController(final String name, final IMessenger messenger, final IRemoteMessenger remoteMessenger,
       final IChannelMessenger channelMessenger, final IModeratorController moderatorController) {
     chatName = name;
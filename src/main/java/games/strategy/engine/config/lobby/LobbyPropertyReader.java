@@ -38,6 +38,14 @@ public final class LobbyPropertyReader {
     return propertyReader.readProperty(PropertyKeys.POSTGRES_PASSWORD);
   }
 
+  /**
+   * @return The number of threads reading from and decoding the client connections, 1 if not set.
+   */
+  public int getNioReactorCount() {
+    final String value = propertyReader.readProperty(PropertyKeys.NIO_REACTORS);
+    return value.isEmpty() ? 1 : Integer.parseInt(value);
+  }
+
   public boolean isMaintenanceMode() {
     return Boolean.parseBoolean(propertyReader.readProperty(PropertyKeys.MAINTENANCE_MODE));
   }
@@ -48,6 +56,7 @@ public final class LobbyPropertyReader {
   @VisibleForTesting
   public interface PropertyKeys {
     String MAINTENANCE_MODE = "maintenance_mode";
+    String NIO_REACTORS = "nio_reactors";
     String PORT = "port";
     String POSTGRES_USER = "postgres_user";
     String POSTGRES_PASSWORD = "postgres_password";
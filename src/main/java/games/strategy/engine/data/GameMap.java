@@ -1,5 +1,7 @@
 package games.strategy.engine.data;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -30,6 +32,8 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
   // otherwise, m_gridDimensions.length is the number of dimensions,
   // and each element is the size of a dimension
   private int[] m_gridDimensions = null;
+  // built on first use, and discarded whenever territories or connections change
+  private transient volatile TerritoryDistanceIndex m_distanceIndex = null;
 
   GameMap(final GameData data) {
     super(data);
@@ -75,6 +79,36 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
 
   protected void reorderTerritoryList() {
     Collections.sort(m_territories, TERRITORY_GRID_ORDERING);
+    assignTerritoryIndexes();
+    m_distanceIndex = null;
+  }
+
+  private void assignTerritoryIndexes() {
+    for (int i = 0; i < m_territories.size(); i++) {
+      m_territories.get(i).setIndex(i);
+    }
+  }
+
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    assignTerritoryIndexes();
+  }
+
+  /**
+   * Returns the dense index of the specified territory within this map. Indexes run from 0 to one less than the number
+   * of territories, in the order of {@link #getTerritories()}, and do not change unless territories are added or
+   * reordered while the map is being built. They may be used to key arrays and bit sets instead of hash-based
+   * collections of territories.
+   *
+   * @return The index of the territory, or -1 if the territory is not in this map.
+   */
+  public int getTerritoryIndex(final Territory territory) {
+    final int index = territory.getIndex();
+    if (index >= 0 && index < m_territories.size() && m_territories.get(index).equals(territory)) {
+      return index;
+    }
+    // the territory belongs to another copy of the game data whose map was built differently
+    return m_territories.indexOf(territory);
   }
 
   private static final Comparator<Territory> TERRITORY_GRID_ORDERING = (t1, t2) -> {
@@ -147,9 +181,11 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
     if (m_territories.contains(t1)) {
       throw new IllegalArgumentException("Map already contains " + t1.getName());
     }
+    t1.setIndex(m_territories.size());
     m_territories.add(t1);
     m_connections.put(t1, Collections.emptySet());
     m_territoryLookup.put(t1.getName(), t1);
+    m_distanceIndex = null;
   }
 
   /**
@@ -187,6 +223,16 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
     final Set<Territory> modified = new HashSet<>(current);
     modified.add(to);
     m_connections.put(from, Collections.unmodifiableSet(modified));
+    m_distanceIndex = null;
+  }
+
+  private TerritoryDistanceIndex getDistanceIndex() {
+    TerritoryDistanceIndex distanceIndex = m_distanceIndex;
+    if (distanceIndex == null) {
+      distanceIndex = new TerritoryDistanceIndex(this);
+      m_distanceIndex = distanceIndex;
+    }
+    return distanceIndex;
   }
 
   /**
@@ -258,9 +304,7 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
     if (distance == 1) {
       return start;
     }
-    final Set<Territory> neighbors = getNeighbors(start, new HashSet<>(start), --distance);
-    neighbors.remove(territory);
-    return neighbors;
+    return getDistanceIndex().getNeighbors(territory, distance);
   }
 
   /**
@@ -442,7 +486,14 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
    * @return the distance between two territories or -1 if they are not connected.
    */
   public int getDistance(final Territory t1, final Territory t2) {
-    return getDistance(t1, t2, Matches.territoryIsLandOrWater());
+    return getDistance(t1, t2, TerritoryDistanceIndex.Kind.ANY);
+  }
+
+  private int getDistance(final Territory t1, final Territory t2, final TerritoryDistanceIndex.Kind kind) {
+    if (t1.equals(t2)) {
+      return 0;
+    }
+    return getDistanceIndex().getDistance(t1, t2, kind);
   }
 
   /**
@@ -517,7 +568,7 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
    * @return the land distance between two territories or -1 if they are not connected.
    */
   public int getLandDistance(final Territory t1, final Territory t2) {
-    return getDistance(t1, t2, Matches.territoryIsLand());
+    return getDistance(t1, t2, TerritoryDistanceIndex.Kind.LAND);
   }
 
   /**
@@ -528,7 +579,7 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
    * @return the water distance between two territories or -1 if they are not connected.
    */
   public int getWaterDistance(final Territory t1, final Territory t2) {
-    return getDistance(t1, t2, Matches.territoryIsWater());
+    return getDistance(t1, t2, TerritoryDistanceIndex.Kind.WATER);
   }
 
   /**
@@ -590,6 +641,7 @@ public class GameMap extends GameDataComponent implements Iterable<Territory> {
    * If the actual territories in the map are deleted, or new ones added, call this.
    */
   public void notifyChanged() {
+    m_distanceIndex = null;
     getData().notifyMapDataChanged();
   }
 }
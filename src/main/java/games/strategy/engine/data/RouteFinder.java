@@ -2,10 +2,8 @@ package games.strategy.engine.data;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 
@@ -14,18 +12,19 @@ import java.util.function.Predicate;
 class RouteFinder {
   private final GameMap map;
   private final Predicate<Territory> condition;
-  private final Map<Territory, Territory> previous;
+  // the territory each territory was first reached from, keyed by map territory index
+  private final Territory[] previous;
 
   RouteFinder(final GameMap map, final Predicate<Territory> condition) {
     this.map = map;
     this.condition = condition;
-    previous = new HashMap<>();
+    previous = new Territory[map.getTerritories().size()];
   }
 
   Route findRoute(final Territory start, final Territory end) {
     final Set<Territory> startSet = map.getNeighbors(start, condition);
     for (final Territory t : startSet) {
-      previous.put(t, start);
+      setPrevious(t, start);
     }
     if (calculate(startSet, end)) {
       return getRoute(start, end);
@@ -38,8 +37,8 @@ class RouteFinder {
     for (final Territory t : startSet) {
       final Set<Territory> neighbors = map.getNeighbors(t, condition);
       for (final Territory neighbor : neighbors) {
-        if (!previous.containsKey(neighbor)) {
-          previous.put(neighbor, t);
+        if (getPrevious(neighbor) == null) {
+          setPrevious(neighbor, t);
           if (neighbor.equals(end)) {
             return true;
           }
@@ -53,6 +52,14 @@ class RouteFinder {
     return calculate(nextSet, end);
   }
 
+  private Territory getPrevious(final Territory territory) {
+    return previous[map.getTerritoryIndex(territory)];
+  }
+
+  private void setPrevious(final Territory territory, final Territory previousTerritory) {
+    previous[map.getTerritoryIndex(territory)] = previousTerritory;
+  }
+
   private Route getRoute(final Territory start, final Territory destination) {
     final List<Territory> route = new ArrayList<>();
     Territory current = destination;
@@ -61,7 +68,7 @@ class RouteFinder {
         return null;
       }
       route.add(current);
-      current = previous.get(current);
+      current = getPrevious(current);
     }
     route.add(start);
     Collections.reverse(route);
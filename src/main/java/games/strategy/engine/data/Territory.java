@@ -8,6 +8,8 @@ public class Territory extends NamedAttachable implements NamedUnitHolder, Compa
   // In a grid-based game, stores the coordinate of the Territory
   @SuppressWarnings("unused")
   private final int[] m_coordinate;
+  // position in the owning map's territory list; assigned by GameMap
+  private transient int m_index = -1;
 
   public Territory(final String name, final GameData data) {
     this(name, false, data);
@@ -76,6 +78,19 @@ public class Territory extends NamedAttachable implements NamedUnitHolder, Compa
     getData().notifyTerritoryAttachmentChanged(this);
   }
 
+  /**
+   * @return The dense index of this territory within its map, or -1 if it has not been added to a map.
+   *
+   * @see GameMap#getTerritoryIndex(Territory)
+   */
+  int getIndex() {
+    return m_index;
+  }
+
+  void setIndex(final int index) {
+    m_index = index;
+  }
+
   @Override
   public String toString() {
     return getName();
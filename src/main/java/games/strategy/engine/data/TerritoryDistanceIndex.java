@@ -0,0 +1,154 @@
+package games.strategy.engine.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * A read-only index over the territories and connections of a {@link GameMap}, used to answer distance queries without
+ * walking hash sets of territories.
+ *
+ * <p>
+ * Territories are identified by {@link GameMap#getTerritoryIndex(Territory)} and their connections are flattened into
+ * compressed sparse row arrays. The distances from a territory to every other territory are found with a single
+ * breadth-first search the first time they are needed, and are then kept for as long as the index lives, separately
+ * for each {@link Kind} of territory a route may pass through.
+ * </p>
+ *
+ * <p>
+ * An index must be discarded whenever the territories or connections of its map change. Instances are safe for use by
+ * multiple threads.
+ * </p>
+ */
+final class TerritoryDistanceIndex {
+  static final int NOT_CONNECTED = -1;
+
+  /**
+   * The kinds of territory a route may pass through.
+   */
+  enum Kind {
+    ANY(t -> true), LAND(t -> !t.isWater()), WATER(Territory::isWater);
+
+    private final Predicate<Territory> condition;
+
+    Kind(final Predicate<Territory> condition) {
+      this.condition = condition;
+    }
+  }
+
+  private final GameMap map;
+  private final Territory[] territories;
+  // the neighbors of territory i are neighbors[neighborOffsets[i]] until neighbors[neighborOffsets[i + 1]]
+  private final int[] neighborOffsets;
+  private final int[] neighbors;
+  private final boolean[][] allowedByKind;
+  private final List<AtomicReferenceArray<int[]>> distancesByKind;
+
+  TerritoryDistanceIndex(final GameMap map) {
+    this.map = map;
+    final List<Territory> territoryList = map.getTerritories();
+    territories = territoryList.toArray(new Territory[territoryList.size()]);
+    neighborOffsets = new int[territories.length + 1];
+    int neighborCount = 0;
+    for (int i = 0; i < territories.length; i++) {
+      neighborOffsets[i] = neighborCount;
+      neighborCount += map.getNeighbors(territories[i]).size();
+    }
+    neighborOffsets[territories.length] = neighborCount;
+    neighbors = new int[neighborCount];
+    for (int i = 0; i < territories.length; i++) {
+      int offset = neighborOffsets[i];
+      for (final Territory neighbor : map.getNeighbors(territories[i])) {
+        neighbors[offset++] = map.getTerritoryIndex(neighbor);
+      }
+    }
+    final Kind[] kinds = Kind.values();
+    allowedByKind = new boolean[kinds.length][territories.length];
+    distancesByKind = new ArrayList<>(kinds.length);
+    for (final Kind kind : kinds) {
+      for (int i = 0; i < territories.length; i++) {
+        allowedByKind[kind.ordinal()][i] = kind.condition.test(territories[i]);
+      }
+      distancesByKind.add(new AtomicReferenceArray<>(territories.length));
+    }
+  }
+
+  boolean contains(final Territory territory) {
+    return map.getTerritoryIndex(territory) >= 0;
+  }
+
+  /**
+   * Returns the number of steps from one territory to another, where every territory entered (including the end, but
+   * not the start) is of the specified kind, or {@link #NOT_CONNECTED} if there is no such route.
+   *
+   * @throws IllegalArgumentException If {@code from} is not in the index.
+   */
+  int getDistance(final Territory from, final Territory to, final Kind kind) {
+    final int toId = map.getTerritoryIndex(to);
+    if (toId < 0) {
+      return NOT_CONNECTED;
+    }
+    return getDistances(getId(from), kind)[toId];
+  }
+
+  /**
+   * Returns all territories within the specified number of steps of the specified territory, not including the
+   * territory itself.
+   *
+   * @throws IllegalArgumentException If {@code territory} is not in the index.
+   */
+  Set<Territory> getNeighbors(final Territory territory, final int distance) {
+    final int[] distances = getDistances(getId(territory), Kind.ANY);
+    final Set<Territory> result = new HashSet<>();
+    for (int i = 0; i < distances.length; i++) {
+      if (distances[i] > 0 && distances[i] <= distance) {
+        result.add(territories[i]);
+      }
+    }
+    return result;
+  }
+
+  private int getId(final Territory territory) {
+    final int id = map.getTerritoryIndex(territory);
+    if (id < 0) {
+      throw new IllegalArgumentException("Territory not in index: " + territory);
+    }
+    return id;
+  }
+
+  private int[] getDistances(final int from, final Kind kind) {
+    final AtomicReferenceArray<int[]> cache = distancesByKind.get(kind.ordinal());
+    int[] distances = cache.get(from);
+    if (distances == null) {
+      // two threads may compute the same row at once, which is harmless
+      distances = computeDistances(from, allowedByKind[kind.ordinal()]);
+      cache.set(from, distances);
+    }
+    return distances;
+  }
+
+  private int[] computeDistances(final int from, final boolean[] allowed) {
+    final int[] distances = new int[territories.length];
+    Arrays.fill(distances, NOT_CONNECTED);
+    distances[from] = 0;
+    final int[] queue = new int[territories.length];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = from;
+    while (head < tail) {
+      final int current = queue[head++];
+      for (int i = neighborOffsets[current]; i < neighborOffsets[current + 1]; i++) {
+        final int next = neighbors[i];
+        if (distances[next] == NOT_CONNECTED && allowed[next]) {
+          distances[next] = distances[current] + 1;
+          queue[tail++] = next;
+        }
+      }
+    }
+    return distances;
+  }
+}
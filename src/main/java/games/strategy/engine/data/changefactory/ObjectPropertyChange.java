@@ -41,6 +41,17 @@ public class ObjectPropertyChange extends Change {
     return new ObjectPropertyChange(m_object, m_property, m_oldValue, m_newValue);
   }
 
+  /**
+   * @return A change with the same effect as performing this change followed by the specified change, or null if the
+   *         two changes are not to the same property of the same object.
+   */
+  public ObjectPropertyChange merge(final ObjectPropertyChange next) {
+    if (m_object != next.m_object || !m_property.equals(next.m_property)) {
+      return null;
+    }
+    return new ObjectPropertyChange(m_object, m_property, next.m_newValue, m_oldValue);
+  }
+
   @Override
   protected void perform(final GameData data) {
     PropertyUtil.set(m_property, m_newValue, m_object);
@@ -39,6 +39,20 @@ public class DelegateExecutionManager {
   private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
   private final ThreadLocal<Boolean> currentThreadHasReadLock = new ThreadLocal<>();
   private volatile boolean isGameOver = false;
+  private final Runnable onLeaveDelegateExecution;
+
+  public DelegateExecutionManager() {
+    this(() -> {});
+  }
+
+  /**
+   * @param onLeaveDelegateExecution
+   *        Run by each thread as it leaves delegate execution, including when a delegate calls an outbound
+   *        implementation.
+   */
+  public DelegateExecutionManager(final Runnable onLeaveDelegateExecution) {
+    this.onLeaveDelegateExecution = onLeaveDelegateExecution;
+  }
 
   public void setGameOver() {
     isGameOver = true;
@@ -172,8 +186,12 @@ public class DelegateExecutionManager {
     if (logger.isLoggable(Level.FINE)) {
       logger.fine(Thread.currentThread().getName() + " leaves delegate execution.");
     }
-    readWriteLock.readLock().unlock();
-    currentThreadHasReadLock.set(null);
+    try {
+      onLeaveDelegateExecution.run();
+    } finally {
+      readWriteLock.readLock().unlock();
+      currentThreadHasReadLock.set(null);
+    }
   }
 
   public void enterDelegateExecution() {
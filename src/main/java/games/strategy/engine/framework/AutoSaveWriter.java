@@ -0,0 +1,149 @@
+package games.strategy.engine.framework;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import games.strategy.engine.data.GameData;
+
+/**
+ * Writes autosaves on a background thread.
+ *
+ * <p>
+ * The caller's thread only takes an in-memory snapshot of the game data (under the game data's read lock). Compressing
+ * the snapshot and writing it to disk happen on a single background thread. Each autosave is written to a temporary
+ * file that is then renamed over the target, so a crash mid-write never leaves a truncated autosave behind.
+ * </p>
+ *
+ * <p>
+ * Autosaves requested for a file whose previous autosave has not been written yet replace that pending autosave, so
+ * back-to-back autosaves cost a single write.
+ * </p>
+ */
+@ThreadSafe
+final class AutoSaveWriter {
+  private static final Logger logger = Logger.getLogger(AutoSaveWriter.class.getName());
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+    final Thread thread = new Thread(runnable, "AutoSave Writer");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final Map<File, byte[]> pendingSnapshotsByFile = new LinkedHashMap<>();
+  private volatile long lastSnapshotMillis = 0;
+  private volatile long lastWriteMillis = 0;
+  private volatile int coalescedCount = 0;
+
+  /**
+   * Takes a snapshot of the specified game data on the calling thread and schedules it to be written to the
+   * specified file.
+   *
+   * @throws IOException If an error occurs while taking the snapshot.
+   */
+  void autoSave(final GameData data, final File file) throws IOException {
+    checkNotNull(data);
+    checkNotNull(file);
+
+    final long start = System.nanoTime();
+    final byte[] snapshot = GameDataManager.writeToMemory(data, true);
+    lastSnapshotMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    synchronized (pendingSnapshotsByFile) {
+      if (pendingSnapshotsByFile.put(file, snapshot) != null) {
+        coalescedCount++;
+        return;
+      }
+    }
+    try {
+      executor.execute(() -> write(file));
+    } catch (final RejectedExecutionException e) {
+      // the game is being stopped
+      synchronized (pendingSnapshotsByFile) {
+        pendingSnapshotsByFile.remove(file);
+      }
+      logger.log(Level.WARNING, "Autosave requested after shutdown, not written: " + file, e);
+    }
+  }
+
+  private void write(final File file) {
+    final byte[] snapshot;
+    synchronized (pendingSnapshotsByFile) {
+      snapshot = pendingSnapshotsByFile.remove(file);
+    }
+    final long start = System.nanoTime();
+    final File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+    try {
+      try (OutputStream os = new FileOutputStream(tempFile)) {
+        GameDataManager.saveGame(os, snapshot);
+      }
+      replace(tempFile, file);
+    } catch (final IOException e) {
+      logger.log(Level.SEVERE, "Failed to write autosave: " + file, e);
+      tempFile.delete();
+      return;
+    }
+    lastWriteMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    logger.fine(() -> "Autosaved " + file.getName() + ": snapshot=" + lastSnapshotMillis + "ms, write="
+        + lastWriteMillis + "ms, size=" + snapshot.length + " bytes, coalesced=" + coalescedCount);
+  }
+
+  private static void replace(final File source, final File target) throws IOException {
+    try {
+      Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (final AtomicMoveNotSupportedException e) {
+      // some file systems cannot rename atomically, a plain rename is the best they can do
+      Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * @return How long, in milliseconds, the calling thread spent taking the most recent snapshot.
+   */
+  long getLastSnapshotMillis() {
+    return lastSnapshotMillis;
+  }
+
+  /**
+   * @return How long, in milliseconds, the background thread spent writing the most recent autosave.
+   */
+  long getLastWriteMillis() {
+    return lastWriteMillis;
+  }
+
+  /**
+   * @return The number of autosaves that were replaced by a later autosave to the same file before being written.
+   */
+  int getCoalescedCount() {
+    return coalescedCount;
+  }
+
+  /**
+   * Writes any pending autosaves and stops the background thread, waiting at most the specified time.
+   */
+  void shutdown(final long timeout, final TimeUnit unit) {
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(timeout, unit)) {
+        logger.warning("Timed out waiting for pending autosaves to be written");
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
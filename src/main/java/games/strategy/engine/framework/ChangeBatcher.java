@@ -0,0 +1,56 @@
+package games.strategy.engine.framework;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import games.strategy.engine.data.Change;
+import games.strategy.engine.data.CompositeChange;
+import games.strategy.engine.data.changefactory.ObjectPropertyChange;
+
+/**
+ * Collects the changes made to a game so that they can be broadcast together as a single change.
+ *
+ * <p>
+ * A property change is merged into an earlier change to the same property of the same object, as long as only other
+ * property changes were added in between, since nothing in between could have read the intermediate value.
+ * </p>
+ *
+ * <p>
+ * Instances are not thread safe.
+ * </p>
+ */
+final class ChangeBatcher {
+  private final List<Change> changes = new ArrayList<>();
+  // the index of the first of the property changes at the end of the batch, which may be merged with each other
+  private int propertyChangesStart = 0;
+
+  void add(final Change change) {
+    if (change instanceof ObjectPropertyChange) {
+      final ObjectPropertyChange propertyChange = (ObjectPropertyChange) change;
+      for (int i = changes.size() - 1; i >= propertyChangesStart; i--) {
+        final ObjectPropertyChange merged = ((ObjectPropertyChange) changes.get(i)).merge(propertyChange);
+        if (merged != null) {
+          changes.set(i, merged);
+          return;
+        }
+      }
+    } else {
+      propertyChangesStart = changes.size() + 1;
+    }
+    changes.add(change);
+  }
+
+  boolean isEmpty() {
+    return changes.isEmpty();
+  }
+
+  /**
+   * @return The changes added since the last call, as a single change.
+   */
+  Change takeChanges() {
+    final Change change = (changes.size() == 1) ? changes.get(0) : new CompositeChange(changes);
+    changes.clear();
+    propertyChangesStart = 0;
+    return change;
+  }
+}
@@ -3,6 +3,7 @@ package games.strategy.engine.framework;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -26,8 +27,21 @@ public class ClientGame extends AbstractGame {
         IGameStepAdvancer.class);
   }
 
+  // false while an observer that joined the running game is catching up with it
+  private volatile boolean followingGame = false;
+
   public ClientGame(final GameData data, final Set<IGamePlayer> gamePlayers,
       final Map<String, INode> remotePlayerMapping, final Messengers messengers) {
+    this(data, gamePlayers, remotePlayerMapping, messengers, false);
+  }
+
+  /**
+   * @param catchingUp
+   *        - true if the game data was saved while the game was running, in which case the game does not follow the
+   *        modifications made to the game until {@link #catchUp(List, boolean)} has replayed those made since.
+   */
+  public ClientGame(final GameData data, final Set<IGamePlayer> gamePlayers,
+      final Map<String, INode> remotePlayerMapping, final Messengers messengers, final boolean catchingUp) {
     super(data, gamePlayers, remotePlayerMapping, messengers);
     gameModifiedChannel = new IGameModifiedChannel() {
       @Override
@@ -109,7 +123,10 @@ public class ClientGame extends AbstractGame {
         ClientGame.this.shutDown();
       }
     };
-    channelMessenger.registerChannelSubscriber(gameModifiedChannel, IGame.GAME_MODIFICATION_CHANNEL);
+    if (!catchingUp) {
+      channelMessenger.registerChannelSubscriber(gameModifiedChannel, IGame.GAME_MODIFICATION_CHANNEL);
+      followingGame = true;
+    }
     final IGameStepAdvancer gameStepAdvancer = (stepName, player) -> {
       if (isGameOver) {
         return;
@@ -159,13 +176,37 @@ public class ClientGame extends AbstractGame {
     }
   }
 
-  public void shutDown() {
-    if (isGameOver) {
+  /**
+   * Replays the modifications made to the game since its data was saved, in order.
+   *
+   * @param caughtUp
+   *        - true if these are the last of those modifications, in which case the game follows the modifications made
+   *        to the game from now on.
+   */
+  public synchronized void catchUp(final List<GameModification> modifications, final boolean caughtUp) {
+    if (isGameOver || followingGame) {
       return;
     }
-    isGameOver = true;
+    for (final GameModification modification : modifications) {
+      modification.replay(gameModifiedChannel);
+    }
+    if (caughtUp) {
+      channelMessenger.registerChannelSubscriber(gameModifiedChannel, IGame.GAME_MODIFICATION_CHANNEL);
+      followingGame = true;
+    }
+  }
+
+  public void shutDown() {
+    synchronized (this) {
+      if (isGameOver) {
+        return;
+      }
+      isGameOver = true;
+    }
     try {
-      channelMessenger.unregisterChannelSubscriber(gameModifiedChannel, IGame.GAME_MODIFICATION_CHANNEL);
+      if (followingGame) {
+        channelMessenger.unregisterChannelSubscriber(gameModifiedChannel, IGame.GAME_MODIFICATION_CHANNEL);
+      }
       remoteMessenger.unregisterRemote(getRemoteStepAdvancerName(channelMessenger.getLocalNode()));
       vault.shutDown();
       for (final IGamePlayer gp : gamePlayers.values()) {
@@ -12,6 +12,7 @@ import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.util.Iterator;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -34,6 +35,7 @@ public final class GameDataManager {
   private static final String DELEGATE_START = "<DelegateStart>";
   private static final String DELEGATE_DATA_NEXT = "<DelegateData>";
   private static final String DELEGATE_LIST_END = "<EndDelegateList>";
+  private static final int BUFFER_SIZE = 64 * 1024;
 
   private GameDataManager() {}
 
@@ -68,7 +70,9 @@ public final class GameDataManager {
   public static GameData loadGame(final InputStream is) throws IOException {
     checkNotNull(is);
 
-    final ObjectInputStream input = new ObjectInputStream(new GZIPInputStream(is));
+    // object streams issue many tiny reads, so buffer the inflated stream as well as the compressed one
+    final ObjectInputStream input =
+        new ObjectInputStream(new BufferedInputStream(new GZIPInputStream(is, BUFFER_SIZE), BUFFER_SIZE));
     try {
       final Version readVersion = (Version) input.readObject();
       final boolean headless = HeadlessGameServer.headless();
@@ -107,15 +111,36 @@ public final class GameDataManager {
           return null;
         }
       }
-      final GameData data = (GameData) input.readObject();
-      loadDelegates(input, data);
-      data.postDeSerialize();
-      return data;
+      return readGameData(input);
     } catch (final ClassNotFoundException cnfe) {
       throw new IOException(cnfe.getMessage());
     }
   }
 
+  /**
+   * Loads game data from an uncompressed image previously produced by {@link #writeToMemory(GameData, boolean)}. No
+   * engine version checks are performed since the image never leaves the running engine.
+   */
+  static GameData readFromMemory(final byte[] bytes) throws IOException {
+    checkNotNull(bytes);
+
+    return IoUtils.readFromMemory(bytes, is -> {
+      try (ObjectInputStream input = new ObjectInputStream(is)) {
+        input.readObject();
+        return readGameData(input);
+      } catch (final ClassNotFoundException cnfe) {
+        throw new IOException(cnfe.getMessage());
+      }
+    });
+  }
+
+  private static GameData readGameData(final ObjectInputStream input) throws ClassNotFoundException, IOException {
+    final GameData data = (GameData) input.readObject();
+    loadDelegates(input, data);
+    data.postDeSerialize();
+    return data;
+  }
+
   private static void loadDelegates(final ObjectInputStream input, final GameData data)
       throws ClassNotFoundException, IOException {
     for (Object endMarker = input.readObject(); !endMarker.equals(DELEGATE_LIST_END); endMarker = input.readObject()) {
@@ -160,7 +185,28 @@ public final class GameDataManager {
       final boolean saveDelegateInfo)
       throws IOException {
     // write internally first in case of error
-    final byte[] bytes = IoUtils.writeToMemory(os -> {
+    final byte[] bytes = writeToMemory(data, saveDelegateInfo);
+
+    // now write to file
+    saveGame(sink, bytes);
+  }
+
+  /**
+   * Saves an uncompressed image previously produced by {@link #writeToMemory(GameData, boolean)} to the specified
+   * stream in the save game format.
+   */
+  static void saveGame(final OutputStream sink, final byte[] bytes) throws IOException {
+    try (OutputStream zippedOut = new FastGzipOutputStream(sink)) {
+      zippedOut.write(bytes);
+    }
+  }
+
+  /**
+   * Writes an uncompressed image of the specified game data, taking the game data's read lock for the duration of the
+   * write.
+   */
+  static byte[] writeToMemory(final GameData data, final boolean saveDelegateInfo) throws IOException {
+    return IoUtils.writeToMemory(os -> {
       try (ObjectOutputStream outStream = new ObjectOutputStream(os)) {
         outStream.writeObject(ClientContext.engineVersion());
         data.acquireReadLock();
@@ -176,11 +222,6 @@ public final class GameDataManager {
         }
       }
     });
-
-    // now write to file
-    try (OutputStream zippedOut = new GZIPOutputStream(sink)) {
-      zippedOut.write(bytes);
-    }
   }
 
   private static void writeDelegates(final GameData data, final ObjectOutputStream out) throws IOException {
@@ -198,4 +239,15 @@ public final class GameDataManager {
     // mark end of delegate section
     out.writeObject(DELEGATE_LIST_END);
   }
+
+  /**
+   * Save games are written at every autosave, so favor compression speed over size. Any GZIP reader, including older
+   * engines, can read the result.
+   */
+  private static final class FastGzipOutputStream extends GZIPOutputStream {
+    FastGzipOutputStream(final OutputStream out) throws IOException {
+      super(out, BUFFER_SIZE);
+      def.setLevel(Deflater.BEST_SPEED);
+    }
+  }
 }
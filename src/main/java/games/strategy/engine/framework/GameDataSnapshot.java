@@ -0,0 +1,63 @@
+package games.strategy.engine.framework;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+
+import javax.annotation.concurrent.Immutable;
+
+import games.strategy.engine.data.GameData;
+
+/**
+ * An immutable, point-in-time image of a {@link GameData} from which any number of independent copies may be forked.
+ *
+ * <p>
+ * The source game data is only read (under its read lock) while the snapshot is being taken. Forking a copy does not
+ * touch the source game data at all, so callers needing several copies (e.g. one per odds calculator worker) should
+ * take a single snapshot and fork it once per copy, possibly from several threads at once, rather than cloning the
+ * source repeatedly.
+ * </p>
+ */
+@Immutable
+public final class GameDataSnapshot {
+  private final byte[] bytes;
+
+  private GameDataSnapshot(final byte[] bytes) {
+    this.bytes = bytes;
+  }
+
+  /**
+   * Takes a snapshot of the specified game data.
+   *
+   * @param data The game data to snapshot.
+   * @param copyDelegates {@code true} if delegate state should be included in the snapshot.
+   *
+   * @return The snapshot.
+   *
+   * @throws IOException If an error occurs while taking the snapshot.
+   */
+  public static GameDataSnapshot of(final GameData data, final boolean copyDelegates) throws IOException {
+    checkNotNull(data);
+
+    return new GameDataSnapshot(GameDataManager.writeToMemory(data, copyDelegates));
+  }
+
+  /**
+   * Creates a new game data from this snapshot. Each call returns a copy that shares no mutable state with any other
+   * copy or with the original game data. This method is safe to call concurrently.
+   *
+   * @return A new game data.
+   *
+   * @throws IOException If an error occurs while creating the game data.
+   */
+  public GameData newGameData() throws IOException {
+    return GameDataManager.readFromMemory(bytes);
+  }
+
+  /**
+   * @return The size of this snapshot in bytes.
+   */
+  public int size() {
+    return bytes.length;
+  }
+}
@@ -20,13 +20,13 @@ public final class GameDataUtils {
   }
 
   /**
-   * Create a deep copy of GameData.
+   * Create a deep copy of GameData. Callers needing more than one copy of the same game data should take a single
+   * {@link GameDataSnapshot} and fork it instead.
    * <strong>You should have the game data's read or write lock before calling this method</strong>
    */
   public static GameData cloneGameData(final GameData data, final boolean copyDelegates) {
     try {
-      final byte[] bytes = IoUtils.writeToMemory(os -> GameDataManager.saveGame(os, data, copyDelegates));
-      return IoUtils.readFromMemory(bytes, GameDataManager::loadGame);
+      return GameDataSnapshot.of(data, copyDelegates).newGameData();
     } catch (final IOException e) {
       ClientLogger.logQuietly(e);
       return null;
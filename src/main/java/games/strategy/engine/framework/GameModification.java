@@ -0,0 +1,106 @@
+package games.strategy.engine.framework;
+
+import java.io.Serializable;
+
+import games.strategy.engine.data.Change;
+import games.strategy.engine.data.PlayerID;
+
+/**
+ * A call made on {@link IGameModifiedChannel}, recorded so that it can be replayed on a node that was not yet
+ * listening on the channel when the call was made, such as an observer joining a running game.
+ */
+public abstract class GameModification implements Serializable {
+  private static final long serialVersionUID = -6328155316253474539L;
+
+  private GameModification() {}
+
+  abstract void replay(IGameModifiedChannel channel);
+
+  static GameModification gameDataChanged(final Change change) {
+    return new GameDataChanged(change);
+  }
+
+  static GameModification startHistoryEvent(final String event, final Object renderingData) {
+    return new HistoryEventStarted(event, renderingData);
+  }
+
+  static GameModification addChildToEvent(final String text, final Object renderingData) {
+    return new ChildAddedToEvent(text, renderingData);
+  }
+
+  static GameModification stepChanged(final String stepName, final String delegateName, final PlayerID player,
+      final int round, final String displayName, final boolean loadedFromSavedGame) {
+    return new StepChanged(stepName, delegateName, player, round, displayName, loadedFromSavedGame);
+  }
+
+  private static final class GameDataChanged extends GameModification {
+    private static final long serialVersionUID = 2931578396376154271L;
+    private final Change change;
+
+    GameDataChanged(final Change change) {
+      this.change = change;
+    }
+
+    @Override
+    void replay(final IGameModifiedChannel channel) {
+      channel.gameDataChanged(change);
+    }
+  }
+
+  private static final class HistoryEventStarted extends GameModification {
+    private static final long serialVersionUID = -2117213752040718457L;
+    private final String event;
+    private final Object renderingData;
+
+    HistoryEventStarted(final String event, final Object renderingData) {
+      this.event = event;
+      this.renderingData = renderingData;
+    }
+
+    @Override
+    void replay(final IGameModifiedChannel channel) {
+      channel.startHistoryEvent(event, renderingData);
+    }
+  }
+
+  private static final class ChildAddedToEvent extends GameModification {
+    private static final long serialVersionUID = 5640416405917423813L;
+    private final String text;
+    private final Object renderingData;
+
+    ChildAddedToEvent(final String text, final Object renderingData) {
+      this.text = text;
+      this.renderingData = renderingData;
+    }
+
+    @Override
+    void replay(final IGameModifiedChannel channel) {
+      channel.addChildToEvent(text, renderingData);
+    }
+  }
+
+  private static final class StepChanged extends GameModification {
+    private static final long serialVersionUID = 7460139286497624950L;
+    private final String stepName;
+    private final String delegateName;
+    private final PlayerID player;
+    private final int round;
+    private final String displayName;
+    private final boolean loadedFromSavedGame;
+
+    StepChanged(final String stepName, final String delegateName, final PlayerID player, final int round,
+        final String displayName, final boolean loadedFromSavedGame) {
+      this.stepName = stepName;
+      this.delegateName = delegateName;
+      this.player = player;
+      this.round = round;
+      this.displayName = displayName;
+      this.loadedFromSavedGame = loadedFromSavedGame;
+    }
+
+    @Override
+    void replay(final IGameModifiedChannel channel) {
+      channel.stepChanged(stepName, delegateName, player, round, displayName, loadedFromSavedGame);
+    }
+  }
+}
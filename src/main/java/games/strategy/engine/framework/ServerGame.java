@@ -4,8 +4,12 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
@@ -28,6 +32,7 @@ import games.strategy.engine.delegate.IDelegate;
 import games.strategy.engine.delegate.IDelegateBridge;
 import games.strategy.engine.delegate.IPersistentDelegate;
 import games.strategy.engine.framework.headlessGameServer.HeadlessGameServer;
+import games.strategy.engine.framework.startup.mc.IObserverCatchingUp;
 import games.strategy.engine.framework.startup.mc.IObserverWaitingToJoin;
 import games.strategy.engine.framework.startup.ui.InGameLobbyWatcherWrapper;
 import games.strategy.engine.framework.ui.SaveGameFileChooser;
@@ -41,6 +46,7 @@ import games.strategy.engine.message.ConnectionLostException;
 import games.strategy.engine.message.IRemote;
 import games.strategy.engine.message.MessageContext;
 import games.strategy.engine.message.RemoteName;
+import games.strategy.engine.message.RemoteNotFoundException;
 import games.strategy.engine.random.IRandomSource;
 import games.strategy.engine.random.IRemoteRandom;
 import games.strategy.engine.random.PlainRandomSource;
@@ -61,11 +67,17 @@ public class ServerGame extends AbstractGame {
 
   public static final String GAME_HAS_BEEN_SAVED_PROPERTY =
       "games.strategy.engine.framework.ServerGame.GameHasBeenSaved";
+  private static final int OBSERVER_GAME_DATA_CHUNK_SIZE = 256 * 1024;
+  private static final int MAX_OBSERVER_CATCH_UP_ROUNDS = 8;
+  // the game is paused for this long at most while an observer finishes joining
+  private static final int OBSERVER_FINISH_JOIN_WAIT_TIME_SECONDS = 10;
 
   private final RandomStats randomStats;
   private IRandomSource randomSource = new PlainRandomSource();
   private IRandomSource delegateRandomSource;
-  private final DelegateExecutionManager delegateExecutionManager = new DelegateExecutionManager();
+  // changes are broadcast whenever a thread leaves a delegate, so clients have them before any result or callback
+  private final DelegateExecutionManager delegateExecutionManager = new DelegateExecutionManager(this::flushChanges);
+  private final AutoSaveWriter autoSaveWriter = new AutoSaveWriter();
   private InGameLobbyWatcherWrapper inGameLobbyWatcher;
   private boolean needToInitialize = true;
   /**
@@ -77,6 +89,22 @@ public class ServerGame extends AbstractGame {
    * Has the delegate signaled that delegate execution should stop.
    */
   private volatile boolean delegateExecutionStopped = false;
+  /**
+   * The modifications made to the game since the game data was saved for each observer that is joining the game.
+   * Modifications are applied and recorded while holding the lock on this map, so that none are missed or recorded
+   * twice.
+   */
+  private final Map<INode, List<GameModification>> joiningObservers = new HashMap<>();
+  /**
+   * Game modifications are broadcast while holding this lock, so that clients receive them in the order they were
+   * applied here.
+   */
+  private final Object broadcastMutex = new Object();
+  // the changes applied since they were last broadcast, guarded by broadcastMutex
+  private final ChangeBatcher changeBatcher = new ChangeBatcher();
+  // the batch of changes being broadcast, which has already been applied here
+  private Change broadcastingChanges;
+  private final IGameModifiedChannel gameModifiedBroadcaster = new BatchingGameModifiedBroadcaster();
 
   /**
    * @param data
@@ -95,8 +123,11 @@ public class ServerGame extends AbstractGame {
       @Override
       public void gameDataChanged(final Change change) {
         assertCorrectCaller();
-        gameData.performChange(change);
-        gameData.getHistory().getHistoryWriter().addChange(change);
+        // we broadcast changes on this thread after applying them
+        if (change == broadcastingChanges) {
+          return;
+        }
+        applyChange(change);
       }
 
       private void assertCorrectCaller() {
@@ -107,37 +138,43 @@ public class ServerGame extends AbstractGame {
 
       @Override
       public void startHistoryEvent(final String event, final Object renderingData) {
-        startHistoryEvent(event);
-        if (renderingData != null) {
-          setRenderingData(renderingData);
+        assertCorrectCaller();
+        synchronized (joiningObservers) {
+          gameData.getHistory().getHistoryWriter().startEvent(event);
+          if (renderingData != null) {
+            gameData.getHistory().getHistoryWriter().setRenderingData(renderingData);
+          }
+          recordForJoiningObservers(GameModification.startHistoryEvent(event, renderingData));
         }
       }
 
       @Override
       public void startHistoryEvent(final String event) {
-        assertCorrectCaller();
-        gameData.getHistory().getHistoryWriter().startEvent(event);
+        startHistoryEvent(event, null);
       }
 
       @Override
       public void addChildToEvent(final String text, final Object renderingData) {
         assertCorrectCaller();
-        gameData.getHistory().getHistoryWriter().addChildToEvent(new EventChild(text, renderingData));
-      }
-
-      void setRenderingData(final Object renderingData) {
-        assertCorrectCaller();
-        gameData.getHistory().getHistoryWriter().setRenderingData(renderingData);
+        synchronized (joiningObservers) {
+          gameData.getHistory().getHistoryWriter().addChildToEvent(new EventChild(text, renderingData));
+          recordForJoiningObservers(GameModification.addChildToEvent(text, renderingData));
+        }
       }
 
       @Override
       public void stepChanged(final String stepName, final String delegateName, final PlayerID player, final int round,
           final String displayName, final boolean loadedFromSavedGame) {
         assertCorrectCaller();
-        if (loadedFromSavedGame) {
-          return;
+        synchronized (joiningObservers) {
+          // clients act on steps loaded from a saved game even though we do not
+          recordForJoiningObservers(
+              GameModification.stepChanged(stepName, delegateName, player, round, displayName, loadedFromSavedGame));
+          if (loadedFromSavedGame) {
+            return;
+          }
+          gameData.getHistory().getHistoryWriter().startNextStep(stepName, delegateName, player, displayName);
         }
-        gameData.getHistory().getHistoryWriter().startNextStep(stepName, delegateName, player, displayName);
       }
 
       // nothing to do, we call this
@@ -158,18 +195,139 @@ public class ServerGame extends AbstractGame {
     remoteMessenger.registerRemote(serverRemote, SERVER_REMOTE);
   }
 
+  /**
+   * Sends the game to an observer joining it while it is running. The game data is saved at once and sent to the
+   * observer in the background, along with the modifications made to the game in the meantime, so that the game
+   * keeps running while the observer joins. The game only pauses while the last few modifications are sent.
+   * Observers that do not implement {@link IObserverCatchingUp} are sent the whole game while it is paused, as
+   * before.
+   */
   public void addObserver(final IObserverWaitingToJoin blockingObserver,
-      final IObserverWaitingToJoin nonBlockingObserver, final INode newNode) {
+      final IObserverWaitingToJoin nonBlockingObserver, final IObserverCatchingUp catchingUpObserver,
+      final INode newNode) {
+    new Thread(() -> {
+      try {
+        final byte[] bytes = saveGameForObserver(newNode);
+        if (!sendGameToObserver(catchingUpObserver, nonBlockingObserver, newNode, bytes)) {
+          synchronized (joiningObservers) {
+            joiningObservers.remove(newNode);
+          }
+          sendWholeGameToObserver(blockingObserver, nonBlockingObserver, newNode);
+        }
+      } catch (final ConnectionLostException cle) {
+        System.out.println("Connection lost to observer while joining: " + newNode.getName());
+      } catch (final Exception e) {
+        ClientLogger.logQuietly(e);
+        nonBlockingObserver.cannotJoinGame(e.getMessage());
+      } finally {
+        synchronized (joiningObservers) {
+          joiningObservers.remove(newNode);
+        }
+      }
+    }, "Sending game to observer: " + newNode.getName()).start();
+  }
+
+  /**
+   * Saves the game data, and starts recording the modifications made to the game for the specified observer.
+   */
+  private byte[] saveGameForObserver(final INode newNode) throws IOException {
+    final byte[] image;
+    blockDelegateExecutionForSave();
     try {
-      if (!delegateExecutionManager.blockDelegateExecution(2000)) {
-        nonBlockingObserver.cannotJoinGame("Could not block delegate execution");
-        return;
+      synchronized (joiningObservers) {
+        image = GameDataManager.writeToMemory(gameData, true);
+        joiningObservers.put(newNode, new ArrayList<>());
       }
-    } catch (final InterruptedException e) {
-      nonBlockingObserver.cannotJoinGame(e.getMessage());
+    } finally {
+      delegateExecutionManager.resumeDelegateExecution();
+    }
+    // compressing the image does not need the game to be paused
+    return IoUtils.writeToMemory(os -> GameDataManager.saveGame(os, image));
+  }
+
+  /**
+   * @return False if the observer does not implement {@link IObserverCatchingUp}, in which case nothing was sent.
+   */
+  private boolean sendGameToObserver(final IObserverCatchingUp blockingObserver,
+      final IObserverWaitingToJoin nonBlockingObserver, final INode newNode, final byte[] bytes)
+      throws InterruptedException {
+    final long deadline =
+        System.nanoTime() + TimeUnit.SECONDS.toNanos(ClientSetting.SERVER_OBSERVER_JOIN_WAIT_TIME.intValue());
+    for (int offset = 0; offset < bytes.length; offset += OBSERVER_GAME_DATA_CHUNK_SIZE) {
+      if (System.nanoTime() > deadline) {
+        nonBlockingObserver.cannotJoinGame("Taking too long to join.");
+        return true;
+      }
+      final int end = Math.min(offset + OBSERVER_GAME_DATA_CHUNK_SIZE, bytes.length);
+      final byte[] chunk = Arrays.copyOfRange(bytes, offset, end);
+      if (offset == 0) {
+        try {
+          blockingObserver.addGameDataChunk(chunk);
+        } catch (final RemoteNotFoundException e) {
+          // the observer runs an older engine
+          return false;
+        }
+      } else {
+        blockingObserver.addGameDataChunk(chunk);
+      }
+    }
+    blockingObserver.joinGame(playerManager.getPlayerMapping());
+    // let the observer catch up while the game keeps running, so there are only a few modifications left to send
+    // while the game is paused
+    for (int i = 0; i < MAX_OBSERVER_CATCH_UP_ROUNDS; i++) {
+      if (System.nanoTime() > deadline) {
+        nonBlockingObserver.cannotJoinGame("Taking too long to join.");
+        return true;
+      }
+      final List<GameModification> modifications = takeRecordedModifications(newNode);
+      if (modifications.isEmpty()) {
+        break;
+      }
+      blockingObserver.catchUp(modifications, false);
+    }
+    if (!delegateExecutionManager.blockDelegateExecution(2000)) {
+      nonBlockingObserver.cannotJoinGame("Could not block delegate execution");
+      return true;
+    }
+    try {
+      // changes waiting to be broadcast have been recorded for the observer, so it must not receive them again
+      flushChanges();
+      final List<GameModification> modifications;
+      synchronized (joiningObservers) {
+        modifications = joiningObservers.remove(newNode);
+      }
+      final CountDownLatch waitOnObserver = new CountDownLatch(1);
+      new Thread(() -> {
+        try {
+          blockingObserver.catchUp(modifications, true);
+          waitOnObserver.countDown();
+        } catch (final ConnectionLostException cle) {
+          System.out.println("Connection lost to observer while joining: " + newNode.getName());
+        } catch (final Exception e) {
+          ClientLogger.logQuietly(e);
+        }
+      }, "Waiting on observer to finish joining: " + newNode.getName()).start();
+      if (!waitOnObserver.await(OBSERVER_FINISH_JOIN_WAIT_TIME_SECONDS, TimeUnit.SECONDS)) {
+        nonBlockingObserver.cannotJoinGame("Taking too long to join.");
+      }
+    } finally {
+      delegateExecutionManager.resumeDelegateExecution();
+    }
+    return true;
+  }
+
+  /**
+   * Sends the whole game to an observer that does not implement {@link IObserverCatchingUp}, with the game paused
+   * until the observer has loaded it.
+   */
+  private void sendWholeGameToObserver(final IObserverWaitingToJoin blockingObserver,
+      final IObserverWaitingToJoin nonBlockingObserver, final INode newNode) throws IOException, InterruptedException {
+    if (!delegateExecutionManager.blockDelegateExecution(2000)) {
+      nonBlockingObserver.cannotJoinGame("Could not block delegate execution");
       return;
     }
     try {
+      flushChanges();
       final CountDownLatch waitOnObserver = new CountDownLatch(1);
       final byte[] bytes = IoUtils.writeToMemory(this::saveGame);
       new Thread(() -> {
@@ -182,22 +340,30 @@ public class ServerGame extends AbstractGame {
           ClientLogger.logQuietly(e);
         }
       }, "Waiting on observer to finish joining: " + newNode.getName()).start();
-      try {
-        if (!waitOnObserver.await(ClientSetting.SERVER_OBSERVER_JOIN_WAIT_TIME.intValue(), TimeUnit.SECONDS)) {
-          nonBlockingObserver.cannotJoinGame("Taking too long to join.");
-        }
-      } catch (final InterruptedException e) {
-        ClientLogger.logQuietly(e);
-        nonBlockingObserver.cannotJoinGame(e.getMessage());
+      if (!waitOnObserver.await(ClientSetting.SERVER_OBSERVER_JOIN_WAIT_TIME.intValue(), TimeUnit.SECONDS)) {
+        nonBlockingObserver.cannotJoinGame("Taking too long to join.");
       }
-    } catch (final Exception e) {
-      ClientLogger.logQuietly(e);
-      nonBlockingObserver.cannotJoinGame(e.getMessage());
     } finally {
       delegateExecutionManager.resumeDelegateExecution();
     }
   }
 
+  private List<GameModification> takeRecordedModifications(final INode newNode) {
+    synchronized (joiningObservers) {
+      final List<GameModification> modifications = joiningObservers.put(newNode, new ArrayList<>());
+      return (modifications != null) ? modifications : new ArrayList<>();
+    }
+  }
+
+  /**
+   * Must be called while holding the lock on {@code joiningObservers}.
+   */
+  private void recordForJoiningObservers(final GameModification modification) {
+    for (final List<GameModification> modifications : joiningObservers.values()) {
+      modifications.add(modification);
+    }
+  }
+
   private void setupDelegateMessaging(final GameData data) {
     for (final IDelegate delegate : data.getDelegateList()) {
       addDelegateMessenger(delegate);
@@ -336,6 +502,7 @@ public class ServerGame extends AbstractGame {
       delegateExecutionManager.resumeDelegateExecution();
     }
     gameData.getGameLoader().shutDown();
+    autoSaveWriter.shutdown(30, TimeUnit.SECONDS);
     if (HeadlessGameServer.headless()) {
       System.out.println("StopGame successful.");
     }
@@ -347,7 +514,17 @@ public class ServerGame extends AbstractGame {
     if (!autoSaveDir.exists()) {
       autoSaveDir.mkdirs();
     }
-    saveGame(new File(autoSaveDir, fileName));
+    try {
+      blockDelegateExecutionForSave();
+      try {
+        // only the snapshot is taken on this thread, it is written to disk in the background
+        autoSaveWriter.autoSave(gameData, new File(autoSaveDir, fileName));
+      } finally {
+        delegateExecutionManager.resumeDelegateExecution();
+      }
+    } catch (final IOException e) {
+      ClientLogger.logQuietly(e);
+    }
   }
 
   private void autoSaveBefore(final IDelegate currentDelegate) {
@@ -369,6 +546,15 @@ public class ServerGame extends AbstractGame {
   }
 
   private void saveGame(final OutputStream out) throws IOException {
+    blockDelegateExecutionForSave();
+    try {
+      GameDataManager.saveGame(out, gameData);
+    } finally {
+      delegateExecutionManager.resumeDelegateExecution();
+    }
+  }
+
+  private void blockDelegateExecutionForSave() throws IOException {
     try {
       if (!delegateExecutionManager.blockDelegateExecution(6000)) {
         throw new IOException("Could not lock delegate execution");
@@ -376,11 +562,6 @@ public class ServerGame extends AbstractGame {
     } catch (final InterruptedException ie) {
       throw new IOException(ie.getMessage());
     }
-    try {
-      GameDataManager.saveGame(out, gameData);
-    } finally {
-      delegateExecutionManager.resumeDelegateExecution();
-    }
   }
 
   private void runStep(final boolean stepIsRestoredFromSavedGame) {
@@ -467,7 +648,7 @@ public class ServerGame extends AbstractGame {
         continue;
       }
       final DefaultDelegateBridge bridge = new DefaultDelegateBridge(gameData, this,
-          new DelegateHistoryWriter(channelMessenger), randomStats, delegateExecutionManager);
+          new DelegateHistoryWriter(gameModifiedBroadcaster), randomStats, delegateExecutionManager);
       if (delegateRandomSource == null) {
         delegateRandomSource = (IRandomSource) delegateExecutionManager.createOutboundImplementation(randomSource,
             new Class<?>[] {IRandomSource.class});
@@ -486,7 +667,7 @@ public class ServerGame extends AbstractGame {
   private void startStep(final boolean stepIsRestoredFromSavedGame) {
     // dont save if we just loaded
     final DefaultDelegateBridge bridge = new DefaultDelegateBridge(gameData, this,
-        new DelegateHistoryWriter(channelMessenger), randomStats, delegateExecutionManager);
+        new DelegateHistoryWriter(gameModifiedBroadcaster), randomStats, delegateExecutionManager);
     if (delegateRandomSource == null) {
       delegateRandomSource = (IRandomSource) delegateExecutionManager.createOutboundImplementation(randomSource,
           new Class<?>[] {IRandomSource.class});
@@ -598,14 +779,99 @@ public class ServerGame extends AbstractGame {
   }
 
   private IGameModifiedChannel getGameModifiedBroadcaster() {
+    return gameModifiedBroadcaster;
+  }
+
+  private IGameModifiedChannel getChannelBroadcaster() {
     return (IGameModifiedChannel) channelMessenger.getChannelBroadcastor(IGame.GAME_MODIFICATION_CHANNEL);
   }
 
+  /**
+   * Applies the change at once, so the delegate sees it, but only broadcasts it along with the other changes made
+   * before the next history event or the next time a thread leaves a delegate.
+   */
   @Override
   public void addChange(final Change change) {
-    // let our channel subscribor do the change,
-    // that way all changes will happen in the same thread
-    getGameModifiedBroadcaster().gameDataChanged(change);
+    synchronized (broadcastMutex) {
+      applyChange(change);
+      changeBatcher.add(change);
+    }
+  }
+
+  private void applyChange(final Change change) {
+    synchronized (joiningObservers) {
+      gameData.performChange(change);
+      gameData.getHistory().getHistoryWriter().addChange(change);
+      recordForJoiningObservers(GameModification.gameDataChanged(change));
+    }
+  }
+
+  /**
+   * Broadcasts the changes applied since they were last broadcast as a single change.
+   */
+  private void flushChanges() {
+    synchronized (broadcastMutex) {
+      if (changeBatcher.isEmpty()) {
+        return;
+      }
+      broadcastingChanges = changeBatcher.takeChanges();
+      try {
+        getChannelBroadcaster().gameDataChanged(broadcastingChanges);
+      } finally {
+        broadcastingChanges = null;
+      }
+    }
+  }
+
+  /**
+   * Broadcasts history events and step changes after the changes made before them.
+   */
+  private final class BatchingGameModifiedBroadcaster implements IGameModifiedChannel {
+    @Override
+    public void gameDataChanged(final Change change) {
+      addChange(change);
+    }
+
+    @Override
+    public void startHistoryEvent(final String event, final Object renderingData) {
+      synchronized (broadcastMutex) {
+        flushChanges();
+        getChannelBroadcaster().startHistoryEvent(event, renderingData);
+      }
+    }
+
+    @Override
+    public void startHistoryEvent(final String event) {
+      synchronized (broadcastMutex) {
+        flushChanges();
+        getChannelBroadcaster().startHistoryEvent(event);
+      }
+    }
+
+    @Override
+    public void addChildToEvent(final String text, final Object renderingData) {
+      synchronized (broadcastMutex) {
+        flushChanges();
+        getChannelBroadcaster().addChildToEvent(text, renderingData);
+      }
+    }
+
+    @Override
+    public void stepChanged(final String stepName, final String delegateName, final PlayerID player, final int round,
+        final String displayName, final boolean loadedFromSavedGame) {
+      synchronized (broadcastMutex) {
+        flushChanges();
+        getChannelBroadcaster().stepChanged(stepName, delegateName, player, round, displayName, loadedFromSavedGame);
+      }
+    }
+
+    @Override
+    public void shutDown() {
+      synchronized (broadcastMutex) {
+        flushChanges();
+        getChannelBroadcaster().shutDown();
+      }
+    }
   }
 
   @Override
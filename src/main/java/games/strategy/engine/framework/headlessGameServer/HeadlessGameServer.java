@@ -491,6 +491,16 @@ public class HeadlessGameServer {
     } else {
       message += "\nCurrently Waiting To Start A Game";
     }
+    final ServerModel model = getServerModel();
+    final IServerMessenger messenger = (model == null) ? null : model.getMessenger();
+    if (messenger != null) {
+      message += "\nConnections:";
+      for (final INode node : messenger.getNodes()) {
+        if (!node.equals(messenger.getLocalNode())) {
+          message += "\n  " + node.getName() + " queued bytes: " + messenger.getBytesQueued(node);
+        }
+      }
+    }
     return message;
   }
 
@@ -26,6 +26,7 @@ import games.strategy.engine.framework.message.PlayerListing;
 import games.strategy.engine.framework.startup.mc.ClientModel;
 import games.strategy.engine.framework.startup.mc.GameSelectorModel;
 import games.strategy.engine.framework.startup.mc.IClientChannel;
+import games.strategy.engine.framework.startup.mc.IObserverCatchingUp;
 import games.strategy.engine.framework.startup.mc.IObserverWaitingToJoin;
 import games.strategy.engine.framework.startup.mc.ServerModel;
 import games.strategy.engine.framework.startup.ui.InGameLobbyWatcherWrapper;
@@ -291,13 +292,14 @@ public class ServerLauncher extends AbstractLauncher {
   }
 
   public void addObserver(final IObserverWaitingToJoin blockingObserver,
-      final IObserverWaitingToJoin nonBlockingObserver, final INode newNode) {
+      final IObserverWaitingToJoin nonBlockingObserver, final IObserverCatchingUp catchingUpObserver,
+      final INode newNode) {
     if (isLaunching) {
       observersThatTriedToJoinDuringStartup.add(newNode);
       nonBlockingObserver.cannotJoinGame("Game is launching, try again soon");
       return;
     }
-    serverGame.addObserver(blockingObserver, nonBlockingObserver, newNode);
+    serverGame.addObserver(blockingObserver, nonBlockingObserver, catchingUpObserver, newNode);
   }
 
   public void connectionLost(final INode node) {
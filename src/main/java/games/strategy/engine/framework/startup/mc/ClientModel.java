@@ -1,6 +1,7 @@
 package games.strategy.engine.framework.startup.mc;
 
 import java.awt.Component;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -26,6 +27,7 @@ import games.strategy.engine.chat.IChatPanel;
 import games.strategy.engine.data.GameData;
 import games.strategy.engine.framework.ClientGame;
 import games.strategy.engine.framework.GameDataManager;
+import games.strategy.engine.framework.GameModification;
 import games.strategy.engine.framework.GameObjectStreamFactory;
 import games.strategy.engine.framework.GameRunner;
 import games.strategy.engine.framework.IGameLoader;
@@ -172,15 +174,14 @@ public class ClientModel implements IMessengerErrorListener {
               + "\nIf anyone disconnects, the autosave will be reloaded (a save might be loaded right now). "
               + "\nYou can get the current save, or you can load a save (only saves that it has the map for).");
     }
-    remoteMessenger.registerRemote(observerWaitingToJoin,
-        ServerModel.getObserverWaitingToStartName(messenger.getLocalNode()));
+    registerObserverRemotes();
     // save this, it will be cleared later
     gameDataOnStartup = gameSelectorModel.getGameData();
     final IServerStartupRemote serverStartup = getServerStartup();
     final PlayerListing players = serverStartup.getPlayerListing();
     internalPlayerListingChanged(players);
     if (!serverStartup.isGameStarted(messenger.getLocalNode())) {
-      remoteMessenger.unregisterRemote(ServerModel.getObserverWaitingToStartName(messenger.getLocalNode()));
+      unregisterObserverRemotes();
     }
     gameSelectorModel.setIsHostHeadlessBot(hostIsHeadlessBot);
     return true;
@@ -243,7 +244,7 @@ public class ClientModel implements IMessengerErrorListener {
     @Override
     public void doneSelectingPlayers(final byte[] gameData, final Map<String, INode> players) {
       final CountDownLatch latch = new CountDownLatch(1);
-      startGame(gameData, players, latch, false);
+      startGame(gameData, players, latch, false, false);
       try {
         latch.await(GameRunner.MINIMUM_CLIENT_GAMEDATA_LOAD_GRACE_TIME, TimeUnit.SECONDS);
       } catch (final InterruptedException e) {
@@ -255,9 +256,9 @@ public class ClientModel implements IMessengerErrorListener {
   private final IObserverWaitingToJoin observerWaitingToJoin = new IObserverWaitingToJoin() {
     @Override
     public void joinGame(final byte[] gameData, final Map<String, INode> players) {
-      remoteMessenger.unregisterRemote(ServerModel.getObserverWaitingToStartName(messenger.getLocalNode()));
+      unregisterObserverRemotes();
       final CountDownLatch latch = new CountDownLatch(1);
-      startGame(gameData, players, latch, true);
+      startGame(gameData, players, latch, true, false);
       try {
         latch.await(GameRunner.MINIMUM_CLIENT_GAMEDATA_LOAD_GRACE_TIME, TimeUnit.SECONDS);
       } catch (final InterruptedException e) {
@@ -267,6 +268,7 @@ public class ClientModel implements IMessengerErrorListener {
 
     @Override
     public void cannotJoinGame(final String reason) {
+      observerCatchingUp.reset();
       SwingUtilities.invokeLater(() -> {
         typePanelModel.showSelectType();
         EventThreadJOptionPane.showMessageDialog(ui, "Could not join game: " + reason);
@@ -274,15 +276,81 @@ public class ClientModel implements IMessengerErrorListener {
     }
   };
 
+  private final ObserverCatchingUp observerCatchingUp = new ObserverCatchingUp();
+
+  private final class ObserverCatchingUp implements IObserverCatchingUp {
+    // the chunks of game data received so far
+    private final ByteArrayOutputStream gameData = new ByteArrayOutputStream();
+
+    @Override
+    public void addGameDataChunk(final byte[] chunk) {
+      synchronized (gameData) {
+        gameData.write(chunk, 0, chunk.length);
+      }
+    }
+
+    @Override
+    public void joinGame(final Map<String, INode> players) {
+      final byte[] bytes;
+      synchronized (gameData) {
+        bytes = gameData.toByteArray();
+        gameData.reset();
+      }
+      final CountDownLatch latch = new CountDownLatch(1);
+      startGame(bytes, players, latch, true, true);
+      try {
+        latch.await(GameRunner.MINIMUM_CLIENT_GAMEDATA_LOAD_GRACE_TIME, TimeUnit.SECONDS);
+      } catch (final InterruptedException e) {
+        ClientLogger.logQuietly(e);
+      }
+    }
+
+    @Override
+    public void catchUp(final List<GameModification> modifications, final boolean caughtUp) {
+      final ClientGame clientGame = game;
+      if (clientGame == null) {
+        throw new IllegalStateException("Game has not been loaded");
+      }
+      if (caughtUp) {
+        unregisterObserverRemotes();
+      }
+      clientGame.catchUp(modifications, caughtUp);
+    }
+
+    void reset() {
+      synchronized (gameData) {
+        gameData.reset();
+      }
+    }
+  }
+
+  private void registerObserverRemotes() {
+    remoteMessenger.registerRemote(observerWaitingToJoin,
+        ServerModel.getObserverWaitingToStartName(messenger.getLocalNode()));
+    remoteMessenger.registerRemote(observerCatchingUp,
+        ServerModel.getObserverCatchingUpName(messenger.getLocalNode()));
+  }
+
+  private void unregisterObserverRemotes() {
+    remoteMessenger.unregisterRemote(ServerModel.getObserverWaitingToStartName(messenger.getLocalNode()));
+    remoteMessenger.unregisterRemote(ServerModel.getObserverCatchingUpName(messenger.getLocalNode()));
+  }
+
+  /**
+   * @param gameRunning
+   *        - true if an observer is joining a game that is in progress.
+   * @param catchingUp
+   *        - true if the observer catches up with the game through {@link IObserverCatchingUp}.
+   */
   private void startGame(final byte[] gameData, final Map<String, INode> players, final CountDownLatch onDone,
-      final boolean gameRunning) {
+      final boolean gameRunning, final boolean catchingUp) {
     SwingUtilities.invokeLater(() -> {
       gameLoadingWindow.setVisible(true);
       gameLoadingWindow.setLocationRelativeTo(JOptionPane.getFrameForComponent(ui));
       gameLoadingWindow.showWait();
     });
     try {
-      startGameInNewThread(gameData, players, gameRunning);
+      startGameInNewThread(gameData, players, gameRunning, catchingUp);
     } catch (final RuntimeException e) {
       gameLoadingWindow.doneWait();
       throw e;
@@ -294,7 +362,7 @@ public class ClientModel implements IMessengerErrorListener {
   }
 
   private void startGameInNewThread(final byte[] gameData, final Map<String, INode> players,
-      final boolean gameRunning) {
+      final boolean gameRunning, final boolean catchingUp) {
     final GameData data;
     try {
       // this normally takes a couple seconds, but can take
@@ -314,7 +382,7 @@ public class ClientModel implements IMessengerErrorListener {
     }
     final Set<IGamePlayer> playerSet = data.getGameLoader().createPlayers(playerMapping);
     final Messengers messengers = new Messengers(messenger, remoteMessenger, channelMessenger);
-    game = new ClientGame(data, playerSet, players, messengers);
+    game = new ClientGame(data, playerSet, players, messengers, catchingUp);
     new Thread(() -> {
       SwingUtilities.invokeLater(() -> JOptionPane.getFrameForComponent(ui).setVisible(false));
       try {
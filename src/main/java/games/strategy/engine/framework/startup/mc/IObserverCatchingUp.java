@@ -0,0 +1,42 @@
+package games.strategy.engine.framework.startup.mc;
+
+import java.util.List;
+import java.util.Map;
+
+import games.strategy.engine.framework.GameModification;
+import games.strategy.engine.message.IRemote;
+import games.strategy.net.INode;
+
+/**
+ * A callback remote.
+ * Allows the server to add the player as an observer when the game is in progress, without pausing the game.
+ *
+ * <p>
+ * The server sends the saved game data in chunks, then calls {@link #joinGame(Map)}, then sends the modifications made
+ * to the game since it was saved through {@link #catchUp(List, boolean)} until the observer has caught up with the
+ * game. Clients register it next to {@link IObserverWaitingToJoin}, which the server falls back to for clients that do
+ * not implement it; errors are reported through {@link IObserverWaitingToJoin#cannotJoinGame(String)}.
+ * </p>
+ */
+public interface IObserverCatchingUp extends IRemote {
+  /**
+   * Adds the next chunk of the saved game data.
+   */
+  void addGameDataChunk(byte[] chunk);
+
+  /**
+   * Loads the game from the chunks of game data added so far.
+   * This method should not return until the client is ready to start the game.
+   * This includes the display running, with all remote listeners set up.
+   */
+  void joinGame(Map<String, INode> players);
+
+  /**
+   * Replays the modifications made to the game since its data was saved, in order.
+   *
+   * @param caughtUp
+   *        - true if these are the last of those modifications, in which case the client follows the game on its
+   *        own from now on.
+   */
+  void catchUp(List<GameModification> modifications, boolean caughtUp);
+}
@@ -74,6 +74,12 @@ public class ServerModel extends Observable implements IMessengerErrorListener,
         IObserverWaitingToJoin.class);
   }
 
+  static RemoteName getObserverCatchingUpName(final INode node) {
+    return new RemoteName(
+        "games.strategy.engine.framework.startup.mc.ServerModel.OBSERVER_CATCHING_UP" + node.getName(),
+        IObserverCatchingUp.class);
+  }
+
   private static final Logger logger = Logger.getLogger(ServerModel.class.getName());
   private final GameObjectStreamFactory objectStreamFactory = new GameObjectStreamFactory(null);
   private final SetupPanelModel typePanelModel;
@@ -312,7 +318,10 @@ public class ServerModel extends Observable implements IMessengerErrorListener,
             (IObserverWaitingToJoin) remoteMessenger.getRemote(remoteName);
         final IObserverWaitingToJoin observerWaitingToJoinNonBlocking =
             (IObserverWaitingToJoin) remoteMessenger.getRemote(remoteName, true);
-        serverLauncher.addObserver(observerWaitingToJoinBlocking, observerWaitingToJoinNonBlocking, newNode);
+        final IObserverCatchingUp observerCatchingUp =
+            (IObserverCatchingUp) remoteMessenger.getRemote(getObserverCatchingUpName(newNode));
+        serverLauncher.addObserver(observerWaitingToJoinBlocking, observerWaitingToJoinNonBlocking,
+            observerCatchingUp, newNode);
         return true;
       } else {
         return false;
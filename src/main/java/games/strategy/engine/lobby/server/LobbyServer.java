@@ -7,6 +7,7 @@ import java.util.logging.Logger;
 import games.strategy.engine.chat.ChatController;
 import games.strategy.engine.chat.StatusManager;
 import games.strategy.engine.lobby.server.login.LobbyLoginValidator;
+import games.strategy.net.DefaultObjectStreamFactory;
 import games.strategy.net.IServerMessenger;
 import games.strategy.net.Messengers;
 import games.strategy.net.ServerMessenger;
@@ -20,10 +21,10 @@ public class LobbyServer {
   private static final Logger logger = Logger.getLogger(LobbyServer.class.getName());
   private final Messengers messengers;
 
-  private LobbyServer(final int port) {
+  private LobbyServer(final int port, final int reactorCount) {
     final IServerMessenger server;
     try {
-      server = new ServerMessenger(ADMIN_USERNAME, port);
+      server = new ServerMessenger(ADMIN_USERNAME, port, new DefaultObjectStreamFactory(), reactorCount);
     } catch (final IOException ex) {
       logger.log(Level.SEVERE, ex.toString());
       throw new IllegalStateException(ex.getMessage());
@@ -56,7 +57,7 @@ public class LobbyServer {
       ClipPlayer.setBeSilentInPreferencesWithoutAffectingCurrent(true);
       final int port = LobbyContext.lobbyPropertyReader().getPort();
       logger.info("Trying to listen on port:" + port);
-      new LobbyServer(port);
+      new LobbyServer(port, LobbyContext.lobbyPropertyReader().getNioReactorCount());
       logger.info("Lobby started");
     } catch (final Exception ex) {
       logger.log(Level.SEVERE, ex.toString(), ex);
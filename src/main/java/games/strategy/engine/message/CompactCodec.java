@@ -0,0 +1,114 @@
+package games.strategy.engine.message;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Writes the values carried by remote method calls in a compact binary form.
+ *
+ * <p>
+ * Java serialization writes a full class descriptor the first time a class appears in a stream, and network messages
+ * are each written to a fresh stream, so even an {@code Integer} argument costs dozens of bytes. This codec writes
+ * values of the common types as a one byte type id followed by the value itself, with ints and longs written as
+ * variable length quantities. Values of any other type fall back to Java serialization.
+ * </p>
+ *
+ * <p>
+ * Both ends of a connection must agree to use this codec, see {@link CompactExternalizable}.
+ * </p>
+ */
+public final class CompactCodec {
+  private static final byte NULL = 0;
+  private static final byte TRUE = 1;
+  private static final byte FALSE = 2;
+  private static final byte INTEGER = 3;
+  private static final byte LONG = 4;
+  private static final byte STRING = 5;
+  private static final byte OBJECT = Byte.MAX_VALUE;
+  // writeUTF() is limited to 65535 bytes, and each char may take up to 3 bytes
+  private static final int MAX_UTF_STRING_LENGTH = 65535 / 3;
+
+  private CompactCodec() {}
+
+  /**
+   * Writes an int using one byte for every 7 bits, small negative numbers included.
+   */
+  public static void writeVarInt(final ObjectOutput out, final int value) throws IOException {
+    writeVarLong(out, value);
+  }
+
+  public static int readVarInt(final ObjectInput in) throws IOException {
+    return (int) readVarLong(in);
+  }
+
+  private static void writeVarLong(final ObjectOutput out, final long value) throws IOException {
+    // zig zag encoding, so small negative numbers are small too
+    long remaining = (value << 1) ^ (value >> 63);
+    while ((remaining & ~0x7FL) != 0) {
+      out.writeByte((int) ((remaining & 0x7F) | 0x80));
+      remaining >>>= 7;
+    }
+    out.writeByte((int) remaining);
+  }
+
+  private static long readVarLong(final ObjectInput in) throws IOException {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final byte b = in.readByte();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return (result >>> 1) ^ -(result & 1);
+      }
+    }
+    throw new IOException("Malformed variable length number");
+  }
+
+  /**
+   * Writes a value of any serializable type.
+   */
+  public static void writeValue(final ObjectOutput out, final Object value) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL);
+    } else if (value instanceof Boolean) {
+      out.writeByte((Boolean) value ? TRUE : FALSE);
+    } else if (value instanceof Integer) {
+      out.writeByte(INTEGER);
+      writeVarInt(out, (Integer) value);
+    } else if (value instanceof Long) {
+      out.writeByte(LONG);
+      writeVarLong(out, (Long) value);
+    } else if (value instanceof String && ((String) value).length() <= MAX_UTF_STRING_LENGTH) {
+      out.writeByte(STRING);
+      out.writeUTF((String) value);
+    } else {
+      out.writeByte(OBJECT);
+      out.writeObject(value);
+    }
+  }
+
+  /**
+   * Reads a value written by {@link #writeValue(ObjectOutput, Object)}.
+   */
+  public static Object readValue(final ObjectInput in) throws IOException, ClassNotFoundException {
+    final byte type = in.readByte();
+    switch (type) {
+      case NULL:
+        return null;
+      case TRUE:
+        return Boolean.TRUE;
+      case FALSE:
+        return Boolean.FALSE;
+      case INTEGER:
+        return readVarInt(in);
+      case LONG:
+        return readVarLong(in);
+      case STRING:
+        return in.readUTF();
+      case OBJECT:
+        return in.readObject();
+      default:
+        throw new IOException("Unknown value type: " + type);
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package games.strategy.engine.message;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * A message that, in addition to its externalized form, can be written in the more compact form of
+ * {@link CompactCodec}.
+ *
+ * <p>
+ * The compact form is only used on connections where both ends said they understand it while logging in; the
+ * externalized form is used everywhere else.
+ * </p>
+ */
+public interface CompactExternalizable extends Externalizable {
+  void writeCompact(ObjectOutput out) throws IOException;
+
+  void readCompact(ObjectInput in) throws IOException, ClassNotFoundException;
+}
@@ -1,6 +1,5 @@
 package games.strategy.engine.message;
 
-import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
@@ -18,7 +17,7 @@ import games.strategy.util.Tuple;
  * All the info neccassary to describe a method call in one handy
  * serializable package.
  */
-public class RemoteMethodCall implements Externalizable {
+public class RemoteMethodCall implements CompactExternalizable {
   private static final long serialVersionUID = 4630825927685836207L;
   private static final Logger logger = Logger.getLogger(RemoteMethodCall.class.getName());
   private String m_remoteName;
@@ -76,6 +75,18 @@ public class RemoteMethodCall implements Externalizable {
     return m_methodName;
   }
 
+  /**
+   * @return The name of the method called on the specified remote interface, or null if the interface has no such
+   *         method. Unlike {@link #resolve(Class)}, this does not modify the call, so it may be used while other threads
+   *         use the call.
+   */
+  public String getMethodName(final Class<?> remoteType) {
+    if (m_methodNumber < 0 || m_methodNumber >= remoteType.getMethods().length) {
+      return null;
+    }
+    return RemoteInterfaceHelper.getMethodInfo(m_methodNumber, remoteType).getFirst();
+  }
+
   /**
    * @return Returns the args.
    */
@@ -177,6 +188,37 @@ public class RemoteMethodCall implements Externalizable {
     }
   }
 
+  @Override
+  public void writeCompact(final ObjectOutput out) throws IOException {
+    out.writeUTF(m_remoteName);
+    CompactCodec.writeVarInt(out, m_methodNumber);
+    if (m_args == null) {
+      CompactCodec.writeVarInt(out, -1);
+    } else {
+      CompactCodec.writeVarInt(out, m_args.length);
+      for (final Object arg : m_args) {
+        CompactCodec.writeValue(out, arg);
+      }
+    }
+  }
+
+  @Override
+  public void readCompact(final ObjectInput in) throws IOException, ClassNotFoundException {
+    m_remoteName = in.readUTF();
+    m_methodNumber = CompactCodec.readVarInt(in);
+    final int count = CompactCodec.readVarInt(in);
+    // the count comes from the remote end, so keep it within what the externalized form allows
+    if (count < -1 || count >= Byte.MAX_VALUE) {
+      throw new IOException("Invalid argument count: " + count);
+    }
+    if (count >= 0) {
+      m_args = new Object[count];
+      for (int i = 0; i < count; i++) {
+        m_args[i] = CompactCodec.readValue(in);
+      }
+    }
+  }
+
   /**
    * After we have been de-serialized, we do not transmit enough
    * information to determine the method without being told
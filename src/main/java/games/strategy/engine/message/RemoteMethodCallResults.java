@@ -1,6 +1,5 @@
 package games.strategy.engine.message;
 
-import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
@@ -10,7 +9,7 @@ import java.io.ObjectOutput;
  * Note that either one of m_rVal or m_exception will be null,
  * since the method can either throw or return
  */
-public class RemoteMethodCallResults implements Externalizable {
+public class RemoteMethodCallResults implements CompactExternalizable {
   private static final long serialVersionUID = 4562274411264858613L;
   private Object m_rVal;
   // throwable implements Serializable
@@ -57,6 +56,27 @@ public class RemoteMethodCallResults implements Externalizable {
     }
   }
 
+  @Override
+  public void writeCompact(final ObjectOutput out) throws IOException {
+    if (m_rVal != null) {
+      out.write(1);
+      CompactCodec.writeValue(out, m_rVal);
+    } else {
+      out.write(0);
+      out.writeObject(m_exception);
+    }
+  }
+
+  @Override
+  public void readCompact(final ObjectInput in) throws IOException, ClassNotFoundException {
+    final boolean hasReturnValue = in.read() == 1;
+    if (hasReturnValue) {
+      m_rVal = CompactCodec.readValue(in);
+    } else {
+      m_exception = (Throwable) in.readObject();
+    }
+  }
+
   @Override
   public String toString() {
     final String exceptionMsg = (m_exception == null) ? "none" : m_exception.toString();
@@ -39,4 +39,17 @@ public class SpokeInvoke extends Invoke {
     super.writeExternal(out);
     ((Node) m_invoker).writeExternal(out);
   }
+
+  @Override
+  public void readCompact(final ObjectInput in) throws IOException, ClassNotFoundException {
+    super.readCompact(in);
+    m_invoker = new Node();
+    ((Node) m_invoker).readExternal(in);
+  }
+
+  @Override
+  public void writeCompact(final ObjectOutput out) throws IOException {
+    super.writeCompact(out);
+    ((Node) m_invoker).writeExternal(out);
+  }
 }
@@ -4,7 +4,14 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import games.strategy.debug.ClientLogger;
 import games.strategy.engine.message.MessageContext;
@@ -19,6 +26,10 @@ import games.strategy.net.INode;
  * You can invoke the method and get the results for all the implementors.
  */
 class EndPoint {
+  private static final Logger logger = Logger.getLogger(EndPoint.class.getName());
+  // the most tasks run from the mailbox before giving other tasks a turn on the thread
+  private static final int MAX_TASKS_PER_DRAIN = 64;
+
   // the next number we are going to give
   private final AtomicLong nextGivenNumber = new AtomicLong();
   // the next number we can run
@@ -29,6 +40,10 @@ class EndPoint {
   private final Class<?> remoteClass;
   private final List<Object> implementors = new ArrayList<>();
   private final boolean singleThreaded;
+  // tasks of a single threaded end point waiting to run, in the order of their numbers
+  private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+  private final Object mailboxMutex = new Object();
+  private final AtomicBoolean draining = new AtomicBoolean(false);
 
   public EndPoint(final String name, final Class<?> remoteClass, final boolean singleThreaded) {
     this.name = name;
@@ -68,6 +83,54 @@ class EndPoint {
     }
   }
 
+  /**
+   * Takes a number and runs a task that invokes this end point with it on the executor. The tasks of a single threaded
+   * end point are run one at a time in the order they are executed, so tasks waiting their turn do not each hold a
+   * thread of the executor.
+   */
+  void execute(final Executor executor, final LongConsumer task) {
+    if (!singleThreaded) {
+      final long number = takeANumber();
+      executor.execute(() -> task.accept(number));
+      return;
+    }
+    // the number is taken and the task queued together, so that the tasks are queued in the order of their numbers
+    // and a task never waits for the number of a task queued after it
+    synchronized (mailboxMutex) {
+      final long number = takeANumber();
+      mailbox.add(() -> task.accept(number));
+    }
+    scheduleDrain(executor);
+  }
+
+  private void scheduleDrain(final Executor executor) {
+    if (draining.compareAndSet(false, true)) {
+      executor.execute(() -> drain(executor));
+    }
+  }
+
+  private void drain(final Executor executor) {
+    try {
+      for (int i = 0; i < MAX_TASKS_PER_DRAIN; i++) {
+        final Runnable task = mailbox.poll();
+        if (task == null) {
+          break;
+        }
+        try {
+          task.run();
+        } catch (final RuntimeException e) {
+          logger.log(Level.SEVERE, "Error invoking end point: " + name, e);
+        }
+      }
+    } finally {
+      draining.set(false);
+    }
+    // tasks may have been added after the mailbox was found empty, or there may be too many to run at once
+    if (!mailbox.isEmpty()) {
+      scheduleDrain(executor);
+    }
+  }
+
   /**
    * @return is this the first implementor.
    */
@@ -1,15 +1,15 @@
 package games.strategy.engine.message.unifiedmessenger;
 
-import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 
+import games.strategy.engine.message.CompactExternalizable;
 import games.strategy.engine.message.RemoteMethodCallResults;
 import games.strategy.net.GUID;
 
 // the results of a remote invocation
-public abstract class InvocationResults implements Externalizable {
+public abstract class InvocationResults implements CompactExternalizable {
   private static final long serialVersionUID = -382704036681832123L;
   public RemoteMethodCallResults results;
   public GUID methodCallID;
@@ -45,4 +45,18 @@ public abstract class InvocationResults implements Externalizable {
     methodCallID = new GUID();
     methodCallID.readExternal(in);
   }
+
+  @Override
+  public void writeCompact(final ObjectOutput out) throws IOException {
+    results.writeCompact(out);
+    methodCallID.writeExternal(out);
+  }
+
+  @Override
+  public void readCompact(final ObjectInput in) throws IOException, ClassNotFoundException {
+    results = new RemoteMethodCallResults();
+    results.readCompact(in);
+    methodCallID = new GUID();
+    methodCallID.readExternal(in);
+  }
 }
@@ -1,15 +1,15 @@
 package games.strategy.engine.message.unifiedmessenger;
 
-import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 
+import games.strategy.engine.message.CompactExternalizable;
 import games.strategy.engine.message.RemoteMethodCall;
 import games.strategy.net.GUID;
 
 // someone wants us to invoke something locally
-public abstract class Invoke implements Externalizable {
+public abstract class Invoke implements CompactExternalizable {
   private static final long serialVersionUID = -5453883962199970896L;
   public GUID methodCallID;
   public boolean needReturnValues;
@@ -53,4 +53,24 @@ public abstract class Invoke implements Externalizable {
     }
     call.writeExternal(out);
   }
+
+  @Override
+  public void readCompact(final ObjectInput in) throws IOException, ClassNotFoundException {
+    needReturnValues = in.read() == 1;
+    if (needReturnValues) {
+      methodCallID = new GUID();
+      methodCallID.readExternal(in);
+    }
+    call = new RemoteMethodCall();
+    call.readCompact(in);
+  }
+
+  @Override
+  public void writeCompact(final ObjectOutput out) throws IOException {
+    out.write(needReturnValues ? 1 : 0);
+    if (needReturnValues) {
+      methodCallID.writeExternal(out);
+    }
+    call.writeCompact(out);
+  }
 }
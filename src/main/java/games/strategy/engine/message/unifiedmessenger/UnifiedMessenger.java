@@ -4,7 +4,9 @@ import java.io.Serializable;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.logging.Level;
@@ -36,7 +38,12 @@ import games.strategy.net.INode;
 public class UnifiedMessenger {
   private static final Logger logger = Logger.getLogger(UnifiedMessenger.class.getName());
 
-  private static final ExecutorService threadPool = Executors.newFixedThreadPool(15);
+  /**
+   * Set this system property to true to run invocations on virtual threads, if the JVM supports them, instead of on a
+   * fixed size thread pool.
+   */
+  public static final String VIRTUAL_THREADS_PROPERTY = "triplea.messenger.virtualThreads";
+  private static final ExecutorService threadPool = newInvocationExecutor();
   // the messenger we are based on
   private final IMessenger messenger;
   // lock on this for modifications to create or remove local end points
@@ -45,15 +52,9 @@ public class UnifiedMessenger {
   // these are the end points that
   // have local implementors
   private final Map<String, EndPoint> localEndPoints = new HashMap<>();
-  private final Object pendingLock = new Object();
-  // threads wait on these latches for the hub to return invocations
-  // the latch should be removed from the map when you countdown the last result
-  // access should be synchronized on pendingLock
-  // TODO: how do these get shutdown when we exit a game or close triplea?
-  private final Map<GUID, CountDownLatch> pendingInvocations = new HashMap<>();
-  // after the remote has invoked, the results are placed here
-  // access should be synchronized on pendingLock
-  private final Map<GUID, RemoteMethodCallResults> results = new HashMap<>();
+  // these futures are completed when the hub returns the results of invocations
+  // the future should be removed from the map when it is completed
+  private final Map<GUID, CompletableFuture<RemoteMethodCallResults>> pendingInvocations = new ConcurrentHashMap<>();
   // only non null for the server
   private UnifiedMessengerHub hub;
 
@@ -72,17 +73,27 @@ public class UnifiedMessenger {
     }
   }
 
+  private static ExecutorService newInvocationExecutor() {
+    if (Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY)) {
+      try {
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      } catch (final ReflectiveOperationException e) {
+        logger.log(Level.WARNING, "Virtual threads are not supported by this JVM, using a thread pool instead", e);
+      }
+    }
+    return Executors.newFixedThreadPool(15);
+  }
+
   @VisibleForTesting
   UnifiedMessengerHub getHub() {
     return hub;
   }
 
   private void messengerInvalid() {
-    synchronized (pendingLock) {
-      for (final GUID id : pendingInvocations.keySet()) {
-        final CountDownLatch latch = pendingInvocations.remove(id);
-        latch.countDown();
-        results.put(id, new RemoteMethodCallResults(new ConnectionLostException("Connection Lost")));
+    for (final GUID id : pendingInvocations.keySet()) {
+      final CompletableFuture<RemoteMethodCallResults> pendingInvocation = pendingInvocations.remove(id);
+      if (pendingInvocation != null) {
+        pendingInvocation.complete(new RemoteMethodCallResults(new ConnectionLostException("Connection Lost")));
       }
     }
   }
@@ -91,12 +102,31 @@ public class UnifiedMessenger {
    * Invoke and wait for all implementors on all vms to finish executing.
    */
   public RemoteMethodCallResults invokeAndWait(final String endPointName, final RemoteMethodCall remoteCall) {
+    final CompletableFuture<RemoteMethodCallResults> results = invokeAsync(endPointName, remoteCall);
+    try {
+      return results.get();
+    } catch (final InterruptedException e) {
+      logger.log(Level.WARNING, e.getMessage());
+    } catch (final ExecutionException e) {
+      logger.log(Level.WARNING, e.getMessage(), e);
+    }
+    throw new IllegalStateException("No results from remote call. Method returned:" + remoteCall.getMethodName()
+        + " for remote name:" + remoteCall.getRemoteName());
+  }
+
+  /**
+   * Invoke without blocking while remote nodes execute. The returned future is completed with the results once the
+   * implementor has finished executing, or with a {@link ConnectionLostException} if the connection is lost first.
+   * If the implementor is local, it is invoked before this method returns.
+   */
+  public CompletableFuture<RemoteMethodCallResults> invokeAsync(final String endPointName,
+      final RemoteMethodCall remoteCall) {
     final EndPoint local;
     synchronized (endPointMutex) {
       local = localEndPoints.get(endPointName);
     }
     if (local == null) {
-      return invokeAndWaitRemote(remoteCall);
+      return invokeRemote(remoteCall);
       // we have the implementor here, just invoke it
     } else {
       final long number = local.takeANumber();
@@ -107,35 +137,18 @@ public class UnifiedMessenger {
       if (results.size() > 1) {
         throw new IllegalStateException("Too many implementors, got back:" + results);
       }
-      return results.get(0);
+      return CompletableFuture.completedFuture(results.get(0));
     }
   }
 
-  private RemoteMethodCallResults invokeAndWaitRemote(final RemoteMethodCall remoteCall) {
+  private CompletableFuture<RemoteMethodCallResults> invokeRemote(final RemoteMethodCall remoteCall) {
     final GUID methodCallId = new GUID();
-    final CountDownLatch latch = new CountDownLatch(1);
-    synchronized (pendingLock) {
-      pendingInvocations.put(methodCallId, latch);
-    }
+    final CompletableFuture<RemoteMethodCallResults> results = new CompletableFuture<>();
+    pendingInvocations.put(methodCallId, results);
     // invoke remotely
     final Invoke invoke = new HubInvoke(methodCallId, true, remoteCall);
     send(invoke, messenger.getServerNode());
-
-    try {
-      latch.await();
-    } catch (final InterruptedException e) {
-      logger.log(Level.WARNING, e.getMessage());
-    }
-
-    synchronized (pendingLock) {
-      final RemoteMethodCallResults methodCallResults = results.remove(methodCallId);
-      if (methodCallResults == null) {
-        throw new IllegalStateException(
-            "No results from remote call. Method returned:" + remoteCall.getMethodName() + " for remote name:"
-                + remoteCall.getRemoteName() + " with id:" + methodCallId);
-      }
-      return methodCallResults;
-    }
+    return results;
   }
 
   /**
@@ -269,12 +282,12 @@ public class UnifiedMessenger {
       // however, once we delegate to the thread pool, there is no
       // guarantee that the thread pool task will run before
       // we get the next message notification
-      // get the number for the invocation here
-      final long methodRunNumber = local.takeANumber();
+      // the end point gives the invocation its number as it is queued
       // we don't want to block the message thread, only one thread is
       // reading messages per connection, so run with out thread pool
+      // invocations of a single threaded end point wait their turn in its mailbox rather than on a thread
       final EndPoint localFinal = local;
-      threadPool.execute(() -> {
+      local.execute(threadPool, methodRunNumber -> {
         final List<RemoteMethodCallResults> results =
             localFinal.invokeLocal(invoke.call, methodRunNumber, invoke.getInvoker());
         if (invoke.needReturnValues) {
@@ -294,17 +307,11 @@ public class UnifiedMessenger {
       assertIsServer(from);
       final SpokeInvocationResults spokeInvocationResults = (SpokeInvocationResults) msg;
       final GUID methodId = spokeInvocationResults.methodCallID;
-      // both of these should already be populated
-      // this list should be a synchronized list so we can do the add
-      // all
-      synchronized (pendingLock) {
-        results.put(methodId, spokeInvocationResults.results);
-        final CountDownLatch latch = pendingInvocations.remove(methodId);
-        Preconditions.checkNotNull(latch, String.format(
-            "method id: %s, was not present in pending invocations: %s, unified messenger addr: %s",
-            methodId, pendingInvocations, super.toString()));
-        latch.countDown();
-      }
+      final CompletableFuture<RemoteMethodCallResults> pendingInvocation = pendingInvocations.remove(methodId);
+      Preconditions.checkNotNull(pendingInvocation, String.format(
+          "method id: %s, was not present in pending invocations: %s, unified messenger addr: %s",
+          methodId, pendingInvocations, super.toString()));
+      pendingInvocation.complete(spokeInvocationResults.results);
     }
   }
 
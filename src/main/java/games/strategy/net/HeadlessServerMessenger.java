@@ -8,6 +8,7 @@ import java.time.Instant;
 import java.util.Set;
 
 import games.strategy.debug.ClientLogger;
+import games.strategy.net.nio.WriteQueuePolicy;
 
 public class HeadlessServerMessenger implements IServerMessenger {
 
@@ -135,4 +136,12 @@ public class HeadlessServerMessenger implements IServerMessenger {
   public boolean isMacMiniBanned(final String mac) {
     return false;
   }
+
+  @Override
+  public long getBytesQueued(final INode node) {
+    return 0;
+  }
+
+  @Override
+  public void setWriteQueuePolicy(final INode node, final WriteQueuePolicy policy, final long limit) {}
 }
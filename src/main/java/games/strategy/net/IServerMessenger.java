@@ -3,6 +3,8 @@ package games.strategy.net;
 import java.time.Instant;
 import java.util.Set;
 
+import games.strategy.net.nio.WriteQueuePolicy;
+
 /**
  * A server messenger. Additional methods for accepting new connections.
  */
@@ -54,4 +56,16 @@ public interface IServerMessenger extends IMessenger {
   boolean isIpMiniBanned(String ip);
 
   boolean isMacMiniBanned(String mac);
+
+  /**
+   * @return The number of bytes queued to be written to the specified node that have not been written yet, or 0 if
+   *         the node is not connected.
+   */
+  long getBytesQueued(INode node);
+
+  /**
+   * Sets what happens to messages written to the specified node while more than the specified number of bytes are
+   * queued to be written to it, instead of the default policy.
+   */
+  void setWriteQueuePolicy(INode node, WriteQueuePolicy policy, long limit);
 }
@@ -0,0 +1,131 @@
+package games.strategy.net;
+
+import java.nio.channels.SocketChannel;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The nodes connected to a {@link ServerMessenger}, and the channels they are connected through.
+ *
+ * <p>
+ * Lookups go through concurrent maps and never block. The channels are also kept as an immutable snapshot that is
+ * replaced whenever a node is added or removed, so a broadcast can iterate over them without locking or copying
+ * anything, however many messages are sent between two connection changes.
+ * </p>
+ */
+final class NodeRegistry {
+  private static final SocketChannel[] NO_CHANNELS = new SocketChannel[0];
+
+  private final Map<INode, SocketChannel> nodeToChannel = new ConcurrentHashMap<>();
+  private final Map<SocketChannel, INode> channelToNode = new ConcurrentHashMap<>();
+  // serializes changes, so that the snapshot is always rebuilt from the latest state
+  private final Object changeLock = new Object();
+  private volatile SocketChannel[] channels = NO_CHANNELS;
+
+  void add(final INode node, final SocketChannel channel) {
+    synchronized (changeLock) {
+      final SocketChannel previous = nodeToChannel.put(node, channel);
+      if (previous != null) {
+        channelToNode.remove(previous);
+      }
+      channelToNode.put(channel, node);
+      channels = nodeToChannel.values().toArray(NO_CHANNELS);
+    }
+  }
+
+  /**
+   * @return The channel the node was connected through, or null if the node was not connected.
+   */
+  SocketChannel remove(final INode node) {
+    synchronized (changeLock) {
+      final SocketChannel channel = nodeToChannel.remove(node);
+      if (channel != null) {
+        channelToNode.remove(channel);
+        channels = nodeToChannel.values().toArray(NO_CHANNELS);
+      }
+      return channel;
+    }
+  }
+
+  SocketChannel getChannel(final INode node) {
+    return nodeToChannel.get(node);
+  }
+
+  INode getNode(final SocketChannel channel) {
+    return channelToNode.get(channel);
+  }
+
+  /**
+   * @return A live, unmodifiable view of the connected nodes.
+   */
+  Set<INode> getNodes() {
+    return Collections.unmodifiableSet(nodeToChannel.keySet());
+  }
+
+  /**
+   * @return The channels of all the nodes connected when this method was called, except the specified channel, which
+   *         may be null. The returned collection is not affected by later changes.
+   */
+  Collection<SocketChannel> getChannelsExcept(final SocketChannel excluded) {
+    return new ChannelSnapshot(channels, excluded);
+  }
+
+  private static final class ChannelSnapshot extends AbstractCollection<SocketChannel> {
+    private final SocketChannel[] channels;
+    private final SocketChannel excluded;
+
+    ChannelSnapshot(final SocketChannel[] channels, final SocketChannel excluded) {
+      this.channels = channels;
+      this.excluded = excluded;
+    }
+
+    @Override
+    public int size() {
+      int size = channels.length;
+      if (excluded != null) {
+        for (final SocketChannel channel : channels) {
+          if (channel == excluded) {
+            size--;
+          }
+        }
+      }
+      return size;
+    }
+
+    @Override
+    public Iterator<SocketChannel> iterator() {
+      return new Iterator<SocketChannel>() {
+        private int index = skipExcluded(0);
+
+        private int skipExcluded(final int from) {
+          int i = from;
+          while (i < channels.length && channels[i] == excluded) {
+            i++;
+          }
+          return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+          return index < channels.length;
+        }
+
+        @Override
+        public SocketChannel next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          final SocketChannel channel = channels[index];
+          index = skipExcluded(index + 1);
+          return channel;
+        }
+      };
+    }
+  }
+}
@@ -11,9 +11,11 @@ import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -34,10 +36,12 @@ import games.strategy.engine.message.HubInvoke;
 import games.strategy.engine.message.RemoteMethodCall;
 import games.strategy.engine.message.RemoteName;
 import games.strategy.engine.message.SpokeInvoke;
+import games.strategy.engine.message.unifiedmessenger.Invoke;
 import games.strategy.net.nio.NioSocket;
 import games.strategy.net.nio.NioSocketListener;
 import games.strategy.net.nio.QuarantineConversation;
 import games.strategy.net.nio.ServerQuarantineConversation;
+import games.strategy.net.nio.WriteQueuePolicy;
 
 /**
  * A Messenger that can have many clients connected to it.
@@ -55,17 +59,25 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
   private boolean acceptNewConnection = false;
   private ILoginValidator loginValidator;
   // all our nodes
-  private final Map<INode, SocketChannel> nodeToChannel = new ConcurrentHashMap<>();
-  private final Map<SocketChannel, INode> channelToNode = new ConcurrentHashMap<>();
+  private final NodeRegistry nodes = new NodeRegistry();
 
   // A hack, till I think of something better
   public ServerMessenger(final String name, final int portNumber, final IObjectStreamFactory streamFactory)
       throws IOException {
+    this(name, portNumber, streamFactory, 1);
+  }
+
+  /**
+   * Creates a server whose connections are read by the specified number of reactor threads, see {@link NioSocket}.
+   * New connections are still accepted by a thread of their own.
+   */
+  public ServerMessenger(final String name, final int portNumber, final IObjectStreamFactory streamFactory,
+      final int reactorCount) throws IOException {
     socketChannel = ServerSocketChannel.open();
     socketChannel.configureBlocking(false);
     socketChannel.socket().setReuseAddress(true);
     socketChannel.socket().bind(new InetSocketAddress(portNumber), 10);
-    nioSocket = new NioSocket(streamFactory, this, "Server");
+    nioSocket = new NioSocket(streamFactory, this, "Server", reactorCount);
     acceptorSelector = Selector.open();
     if (IPFinder.findInetAddress() != null) {
       node = new Node(name, IPFinder.findInetAddress(), portNumber);
@@ -103,9 +115,9 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
 
   @Override
   public Set<INode> getNodes() {
-    final Set<INode> nodes = new HashSet<>(nodeToChannel.keySet());
-    nodes.add(node);
-    return nodes;
+    final Set<INode> allNodes = new HashSet<>(nodes.getNodes());
+    allNodes.add(node);
+    return allNodes;
   }
 
   @Override
@@ -142,7 +154,7 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
       logger.log(Level.FINEST, "Sending" + msg + " to:" + to);
     }
     final MessageHeader header = new MessageHeader(to, node, msg);
-    final SocketChannel socketChannel = nodeToChannel.get(to);
+    final SocketChannel socketChannel = nodes.getChannel(to);
     // the socket was removed
     if (socketChannel == null) {
       if (logger.isLoggable(Level.FINER)) {
@@ -151,7 +163,14 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
       // the socket has not been added yet
       return;
     }
-    nioSocket.send(socketChannel, header);
+    nioSocket.send(socketChannel, header, isDroppable(msg));
+  }
+
+  /**
+   * @return true if the message only carries chat text or a ping, so it may be dropped for a node that falls behind.
+   */
+  private static boolean isDroppable(final Serializable msg) {
+    return msg instanceof Invoke && ChatController.isChatMessageCall(((Invoke) msg).call);
   }
 
   @Override
@@ -168,40 +187,38 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
     return !isLobby();
   }
 
-  private final Object cachedListLock = new Object();
-  private final HashMap<String, String> cachedMacAddresses = new HashMap<>();
+  // the cached lists below are checked for every chat message, so they are concurrent sets rather than lists guarded
+  // by a shared lock
+  private final Map<String, String> cachedMacAddresses = new ConcurrentHashMap<>();
 
   @Override
   public String getPlayerMac(final String name) {
-    synchronized (cachedListLock) {
-      String mac = cachedMacAddresses.get(name);
-      if (mac == null) {
-        mac = playersThatLeftMacsLast10.get(name);
-      }
+    final String mac = cachedMacAddresses.get(name);
+    if (mac != null) {
       return mac;
     }
+    synchronized (playersThatLeftMacsLast10) {
+      return playersThatLeftMacsLast10.get(name);
+    }
   }
 
   // We need to cache whether players are muted, because otherwise the database would have to be accessed each time a
   // message was sent,
   // which can be very slow
-  private final List<String> liveMutedUsernames = new ArrayList<>();
+  private final Set<String> liveMutedUsernames = ConcurrentHashMap.newKeySet();
 
   private boolean isUsernameMuted(final String username) {
-    synchronized (cachedListLock) {
-      return liveMutedUsernames.contains(username);
-    }
+    return username != null && liveMutedUsernames.contains(username);
   }
 
   @Override
   public void notifyUsernameMutingOfPlayer(final String username, final Instant muteExpires) {
-    synchronized (cachedListLock) {
-      if (!liveMutedUsernames.contains(username)) {
-        liveMutedUsernames.add(username);
-      }
-      if (muteExpires != null) {
-        scheduleUsernameUnmuteAt(username, muteExpires);
-      }
+    if (username == null) {
+      return;
+    }
+    liveMutedUsernames.add(username);
+    if (muteExpires != null) {
+      scheduleUsernameUnmuteAt(username, muteExpires);
     }
   }
 
@@ -210,23 +227,20 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
     // TODO: remove if no backwards compat issues
   }
 
-  private final List<String> liveMutedMacAddresses = new ArrayList<>();
+  private final Set<String> liveMutedMacAddresses = ConcurrentHashMap.newKeySet();
 
   private boolean isMacMuted(final String mac) {
-    synchronized (cachedListLock) {
-      return liveMutedMacAddresses.contains(mac);
-    }
+    return mac != null && liveMutedMacAddresses.contains(mac);
   }
 
   @Override
   public void notifyMacMutingOfPlayer(final String mac, final Instant muteExpires) {
-    synchronized (cachedListLock) {
-      if (!liveMutedMacAddresses.contains(mac)) {
-        liveMutedMacAddresses.add(mac);
-      }
-      if (muteExpires != null) {
-        scheduleMacUnmuteAt(mac, muteExpires);
-      }
+    if (mac == null) {
+      return;
+    }
+    liveMutedMacAddresses.add(mac);
+    if (muteExpires != null) {
+      scheduleMacUnmuteAt(mac, muteExpires);
     }
   }
 
@@ -243,43 +257,49 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
 
   // TODO: remove 'ip' parameter if can confirm no backwards compat issues
   public void notifyPlayerLogin(final String uniquePlayerName, final String ip, final String mac) {
-    synchronized (cachedListLock) {
+    if (mac != null) {
       cachedMacAddresses.put(uniquePlayerName, mac);
-      if (isLobby()) {
-        final String realName = uniquePlayerName.split(" ")[0];
-        if (!liveMutedUsernames.contains(realName)) {
-          final long muteTill = new MutedUsernameController().getUsernameUnmuteTime(realName);
-          if (muteTill != -1 && muteTill <= System.currentTimeMillis()) {
-            // Signal the player as muted
-            liveMutedUsernames.add(realName);
-            scheduleUsernameUnmuteAt(realName, Instant.ofEpochMilli(muteTill));
-          }
+    }
+    if (isLobby()) {
+      // the database is checked without holding any lock, at worst a player logging in twice at once is looked up twice
+      final String realName = uniquePlayerName.split(" ")[0];
+      if (!liveMutedUsernames.contains(realName)) {
+        final long muteTill = new MutedUsernameController().getUsernameUnmuteTime(realName);
+        if (muteTill != -1 && muteTill <= System.currentTimeMillis() && liveMutedUsernames.add(realName)) {
+          // Signal the player as muted
+          scheduleUsernameUnmuteAt(realName, Instant.ofEpochMilli(muteTill));
         }
-        if (!liveMutedMacAddresses.contains(mac)) {
-          final long muteTill = new MutedMacController().getMacUnmuteTime(mac);
-          if (muteTill != -1 && muteTill <= System.currentTimeMillis()) {
-            // Signal the player as muted
-            liveMutedMacAddresses.add(mac);
-            scheduleMacUnmuteAt(mac, Instant.ofEpochMilli(muteTill));
-          }
+      }
+      if (mac != null && !liveMutedMacAddresses.contains(mac)) {
+        final long muteTill = new MutedMacController().getMacUnmuteTime(mac);
+        if (muteTill != -1 && muteTill <= System.currentTimeMillis() && liveMutedMacAddresses.add(mac)) {
+          // Signal the player as muted
+          scheduleMacUnmuteAt(mac, Instant.ofEpochMilli(muteTill));
         }
       }
     }
   }
 
-  private final HashMap<String, String> playersThatLeftMacsLast10 = new HashMap<>();
+  // guarded by itself; only the ten most recent players are kept
+  private final LinkedHashMap<String, String> playersThatLeftMacsLast10 = new LinkedHashMap<String, String>() {
+    private static final long serialVersionUID = 3357418405427370575L;
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+      return size() > 10;
+    }
+  };
 
   public HashMap<String, String> getPlayersThatLeftMacs_Last10() {
-    return playersThatLeftMacsLast10;
+    synchronized (playersThatLeftMacsLast10) {
+      return new HashMap<>(playersThatLeftMacsLast10);
+    }
   }
 
   private void notifyPlayerRemoval(final INode node) {
-    synchronized (cachedListLock) {
-      playersThatLeftMacsLast10.put(node.getName(), cachedMacAddresses.get(node.getName()));
-      if (playersThatLeftMacsLast10.size() > 10) {
-        playersThatLeftMacsLast10.remove(playersThatLeftMacsLast10.entrySet().iterator().next().toString());
-      }
-      cachedMacAddresses.remove(node.getName());
+    final String mac = cachedMacAddresses.remove(node.getName());
+    synchronized (playersThatLeftMacsLast10) {
+      playersThatLeftMacsLast10.put(node.getName(), mac);
     }
   }
 
@@ -292,7 +312,7 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
 
   @Override
   public void messageReceived(final MessageHeader msg, final SocketChannel channel) {
-    final INode expectedReceive = channelToNode.get(channel);
+    final INode expectedReceive = nodes.getNode(channel);
     if (!expectedReceive.equals(msg.getFrom())) {
       throw new IllegalStateException("Expected: " + expectedReceive + " not: " + msg.getFrom());
     }
@@ -349,90 +369,75 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
   }
 
   // The following code is used in hosted lobby games by the host for player mini-banning and mini-muting
-  private final List<String> miniBannedUsernames = new ArrayList<>();
+  private final Set<String> miniBannedUsernames = ConcurrentHashMap.newKeySet();
 
   @Override
   public boolean isUsernameMiniBanned(final String username) {
-    synchronized (cachedListLock) {
-      return miniBannedUsernames.contains(username);
-    }
+    return username != null && miniBannedUsernames.contains(username);
   }
 
   @Override
   public void notifyUsernameMiniBanningOfPlayer(final String username, final Instant expires) {
-    synchronized (cachedListLock) {
-      if (!miniBannedUsernames.contains(username)) {
-        miniBannedUsernames.add(username);
-      }
-      if (expires != null) {
-        final Timer unbanUsernameTimer = new Timer("Username unban timer");
-        unbanUsernameTimer.schedule(new TimerTask() {
-          @Override
-          public void run() {
-            synchronized (cachedListLock) {
-              miniBannedUsernames.remove(username);
-            }
-          }
-        }, expires.toEpochMilli() - System.currentTimeMillis());
-      }
+    if (username == null) {
+      return;
+    }
+    miniBannedUsernames.add(username);
+    if (expires != null) {
+      final Timer unbanUsernameTimer = new Timer("Username unban timer");
+      unbanUsernameTimer.schedule(new TimerTask() {
+        @Override
+        public void run() {
+          miniBannedUsernames.remove(username);
+        }
+      }, expires.toEpochMilli() - System.currentTimeMillis());
     }
   }
 
-  private final List<String> miniBannedIpAddresses = new ArrayList<>();
+  private final Set<String> miniBannedIpAddresses = ConcurrentHashMap.newKeySet();
 
   @Override
   public boolean isIpMiniBanned(final String ip) {
-    synchronized (cachedListLock) {
-      return miniBannedIpAddresses.contains(ip);
-    }
+    return ip != null && miniBannedIpAddresses.contains(ip);
   }
 
   @Override
   public void notifyIpMiniBanningOfPlayer(final String ip, final Instant expires) {
-    synchronized (cachedListLock) {
-      if (!miniBannedIpAddresses.contains(ip)) {
-        miniBannedIpAddresses.add(ip);
-      }
-      if (expires != null) {
-        final Timer unbanIpTimer = new Timer("IP unban timer");
-        unbanIpTimer.schedule(new TimerTask() {
-          @Override
-          public void run() {
-            synchronized (cachedListLock) {
-              miniBannedIpAddresses.remove(ip);
-            }
-          }
-        }, expires.toEpochMilli() - System.currentTimeMillis());
-      }
+    if (ip == null) {
+      return;
+    }
+    miniBannedIpAddresses.add(ip);
+    if (expires != null) {
+      final Timer unbanIpTimer = new Timer("IP unban timer");
+      unbanIpTimer.schedule(new TimerTask() {
+        @Override
+        public void run() {
+          miniBannedIpAddresses.remove(ip);
+        }
+      }, expires.toEpochMilli() - System.currentTimeMillis());
     }
   }
 
-  private final List<String> miniBannedMacAddresses = new ArrayList<>();
+  private final Set<String> miniBannedMacAddresses = ConcurrentHashMap.newKeySet();
 
   @Override
   public boolean isMacMiniBanned(final String mac) {
-    synchronized (cachedListLock) {
-      return miniBannedMacAddresses.contains(mac);
-    }
+    return mac != null && miniBannedMacAddresses.contains(mac);
   }
 
   @Override
   public void notifyMacMiniBanningOfPlayer(final String mac, final Instant expires) {
-    synchronized (cachedListLock) {
-      if (!miniBannedMacAddresses.contains(mac)) {
-        miniBannedMacAddresses.add(mac);
-      }
-      if (expires != null) {
-        final Timer unbanMacTimer = new Timer("Mac unban timer");
-        unbanMacTimer.schedule(new TimerTask() {
-          @Override
-          public void run() {
-            synchronized (cachedListLock) {
-              miniBannedMacAddresses.remove(mac);
-            }
-          }
-        }, expires.toEpochMilli() - System.currentTimeMillis());
-      }
+    if (mac == null) {
+      return;
+    }
+    miniBannedMacAddresses.add(mac);
+    if (expires != null) {
+      final Timer unbanMacTimer = new Timer("Mac unban timer");
+      unbanMacTimer.schedule(new TimerTask() {
+        @Override
+        public void run() {
+          miniBannedMacAddresses.remove(mac);
+        }
+      }, expires.toEpochMilli() - System.currentTimeMillis());
     }
   }
 
@@ -440,27 +445,22 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
     if (shutdown) {
       return;
     }
-    final SocketChannel socketChannel = nodeToChannel.get(msg.getFor());
+    final SocketChannel socketChannel = nodes.getChannel(msg.getFor());
     if (socketChannel == null) {
       throw new IllegalStateException("No channel for:" + msg.getFor() + " all channels:" + socketChannel);
     }
-    nioSocket.send(socketChannel, msg);
+    nioSocket.send(socketChannel, msg, isDroppable(msg.getMessage()));
   }
 
   private void forwardBroadcast(final MessageHeader msg) {
     if (shutdown) {
       return;
     }
-    final SocketChannel fromChannel = nodeToChannel.get(msg.getFrom());
-    final List<SocketChannel> nodes = new ArrayList<>(nodeToChannel.values());
+    final Collection<SocketChannel> channels = nodes.getChannelsExcept(nodes.getChannel(msg.getFrom()));
     if (logger.isLoggable(Level.FINEST)) {
-      logger.log(Level.FINEST, "broadcasting to" + nodes);
-    }
-    for (final SocketChannel channel : nodes) {
-      if (channel != fromChannel) {
-        nioSocket.send(channel, msg);
-      }
+      logger.log(Level.FINEST, "broadcasting to" + channels);
     }
+    nioSocket.broadcast(channels, msg, isDroppable(msg.getMessage()));
   }
 
   private boolean isNameTaken(final String nodeName) {
@@ -626,9 +626,7 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
       @Override
       public void run() {
         if (runCondition.get()) {
-          synchronized (cachedListLock) {
-            action.run();
-          }
+          action.run();
         }
       }
     };
@@ -651,12 +649,11 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
       throw new IllegalArgumentException("Cant remove ourself!");
     }
     notifyPlayerRemoval(nodeToRemove);
-    final SocketChannel channel = nodeToChannel.remove(nodeToRemove);
+    final SocketChannel channel = nodes.remove(nodeToRemove);
     if (channel == null) {
       logger.warning("Could not remove connection to node:" + nodeToRemove);
       return;
     }
-    channelToNode.remove(channel);
     nioSocket.close(channel);
     notifyConnectionsChanged(false, nodeToRemove);
     logger.info("Connection removed:" + nodeToRemove);
@@ -667,13 +664,27 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
     return node;
   }
 
+  @Override
+  public long getBytesQueued(final INode node) {
+    final SocketChannel channel = nodes.getChannel(node);
+    return (channel == null) ? 0 : nioSocket.getBytesInFlight(channel);
+  }
+
+  @Override
+  public void setWriteQueuePolicy(final INode node, final WriteQueuePolicy policy, final long limit) {
+    final SocketChannel channel = nodes.getChannel(node);
+    if (channel != null) {
+      nioSocket.setWriteQueuePolicy(channel, policy, limit);
+    }
+  }
+
   @Override
   public void socketError(final SocketChannel channel, final Exception error) {
     if (channel == null) {
       throw new IllegalArgumentException("Null channel");
     }
     // already closed, dont report it again
-    final INode node = channelToNode.get(channel);
+    final INode node = nodes.getNode(channel);
     if (node != null) {
       removeConnection(node);
     }
@@ -686,15 +697,14 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
     if (logger.isLoggable(Level.FINER)) {
       logger.log(Level.FINER, "Unquarntined node:" + remote);
     }
-    nodeToChannel.put(remote, channel);
-    channelToNode.put(channel, remote);
+    nodes.add(remote, channel);
     notifyConnectionsChanged(true, remote);
     logger.info("Connection added to:" + remote);
   }
 
   @Override
   public INode getRemoteNode(final SocketChannel channel) {
-    return channelToNode.get(channel);
+    return nodes.getNode(channel);
   }
 
   @Override
@@ -704,6 +714,6 @@ public class ServerMessenger implements IServerMessenger, NioSocketListener {
 
   @Override
   public String toString() {
-    return "ServerMessenger LocalNode:" + node + " ClientNodes:" + nodeToChannel.keySet();
+    return "ServerMessenger LocalNode:" + node + " ClientNodes:" + nodes.getNodes();
   }
 }
@@ -3,6 +3,8 @@ package games.strategy.net.nio;
 import java.io.Serializable;
 import java.net.InetSocketAddress;
 import java.nio.channels.SocketChannel;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.logging.Level;
@@ -120,13 +122,14 @@ public class ClientQuarantineConversation extends QuarantineConversation {
             if (logger.isLoggable(Level.FINER)) {
               logger.log(Level.FINER, "writing response" + challengeResponse);
             }
-            send((Serializable) challengeResponse);
+            send((Serializable) withFeatureProperties(challengeResponse));
           } else {
             showLatch.countDown();
             if (logger.isLoggable(Level.FINER)) {
-              logger.log(Level.FINER, "sending null response");
+              logger.log(Level.FINER, "sending empty response");
             }
-            send(null);
+            // servers without a login validator ignore the response
+            send((Serializable) withFeatureProperties(Collections.emptyMap()));
           }
           step = Step.READ_ERROR;
           return Action.NONE;
@@ -149,6 +152,15 @@ public class ClientQuarantineConversation extends QuarantineConversation {
           }
           localName = strings[0];
           serverName = strings[1];
+          // any features the server accepted follow the names
+          for (int i = 2; i < strings.length; i++) {
+            if (COMPACT_CODEC_ACCEPTED.equals(strings[i])) {
+              socket.enableCompactCodec(channel);
+            } else if (strings[i].startsWith(COMPRESSION_ACCEPTED)) {
+              socket.enableCompression(channel,
+                  Integer.parseInt(strings[i].substring(COMPRESSION_ACCEPTED.length())));
+            }
+          }
           step = Step.READ_ADDRESS;
           return Action.NONE;
         case READ_ADDRESS:
@@ -176,6 +188,16 @@ public class ClientQuarantineConversation extends QuarantineConversation {
     }
   }
 
+  private static Map<String, String> withFeatureProperties(final Map<String, String> response) {
+    if (response == null) {
+      return null;
+    }
+    final Map<String, String> responseWithProperties = new HashMap<>(response);
+    responseWithProperties.put(COMPACT_CODEC_PROPERTY, Boolean.TRUE.toString());
+    responseWithProperties.put(COMPRESSION_THRESHOLD_PROPERTY, String.valueOf(FrameCompression.DEFAULT_THRESHOLD));
+    return responseWithProperties;
+  }
+
   private void send(final Serializable object) {
     // this messenger is quarantined, so to and from dont matter
     final MessageHeader header = new MessageHeader(Node.NULL_NODE, Node.NULL_NODE, object);
@@ -6,10 +6,20 @@ import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.net.Socket;
 import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import games.strategy.engine.message.CompactExternalizable;
 import games.strategy.engine.message.HubInvocationResults;
 import games.strategy.engine.message.HubInvoke;
 import games.strategy.engine.message.SpokeInvocationResults;
@@ -23,11 +33,20 @@ import games.strategy.net.Node;
 import games.strategy.net.nio.QuarantineConversation.Action;
 
 /**
- * A thread to Decode messages from a reader.
+ * Decodes the packets read by a reader.
+ *
+ * <p>
+ * With a single thread, packets are decoded in the order they were read, whatever socket they were read from. With
+ * several threads, packets are decoded on a pool of worker threads, and only the packets of each socket keep their
+ * order: each socket has a queue of packets, drained by at most one worker at a time.
+ * </p>
  */
 class Decoder {
   private static final Logger logger = Logger.getLogger(Decoder.class.getName());
-  private final NioReader reader;
+  // compact types are numbered after the externalizable types
+  private static final byte COMPACT_TYPE_OFFSET = 4;
+  // the most packets of one socket decoded before giving other sockets a turn on the worker
+  private static final int MAX_PACKETS_PER_DRAIN = 64;
   private volatile boolean running = true;
   private final ErrorReporter errorReporter;
   private final IObjectStreamFactory objectStreamFactory;
@@ -38,21 +57,53 @@ class Decoder {
    */
   private final ConcurrentHashMap<SocketChannel, QuarantineConversation> quarantine =
       new ConcurrentHashMap<>();
+  // only used with a single thread
+  private final LinkedBlockingQueue<SocketReadData> packets = new LinkedBlockingQueue<>();
   private final Thread thread;
+  // only used with several threads
+  private final ExecutorService workers;
+  private final Map<SocketChannel, ChannelPackets> channelPackets = new ConcurrentHashMap<>();
 
-  Decoder(final NioSocket nioSocket, final NioReader reader, final ErrorReporter reporter,
-      final IObjectStreamFactory objectStreamFactory, final String threadSuffix) {
-    this.reader = reader;
+  Decoder(final NioSocket nioSocket, final ErrorReporter reporter, final IObjectStreamFactory objectStreamFactory,
+      final String threadSuffix, final int threadCount) {
+    if (threadCount < 1) {
+      throw new IllegalArgumentException("Invalid thread count:" + threadCount);
+    }
     errorReporter = reporter;
     this.objectStreamFactory = objectStreamFactory;
     this.nioSocket = nioSocket;
-    thread = new Thread(this::loop, "Decoder -" + threadSuffix);
-    thread.start();
+    if (threadCount == 1) {
+      thread = new Thread(this::loop, "Decoder -" + threadSuffix);
+      thread.start();
+      workers = null;
+    } else {
+      thread = null;
+      final AtomicInteger threadNumber = new AtomicInteger();
+      workers = Executors.newFixedThreadPool(threadCount,
+          r -> new Thread(r, "Decoder -" + threadSuffix + " - " + threadNumber.getAndIncrement()));
+    }
   }
 
   void shutDown() {
     running = false;
-    thread.interrupt();
+    if (thread != null) {
+      thread.interrupt();
+    } else {
+      workers.shutdownNow();
+    }
+  }
+
+  /**
+   * Queues a packet read from a socket to be decoded.
+   */
+  void packetRead(final SocketReadData data) {
+    if (workers == null) {
+      packets.offer(data);
+      return;
+    }
+    final ChannelPackets queue = channelPackets.computeIfAbsent(data.getChannel(), ChannelPackets::new);
+    queue.packets.add(data);
+    queue.scheduleDrain();
   }
 
   private void loop() {
@@ -60,54 +111,14 @@ class Decoder {
       try {
         final SocketReadData data;
         try {
-          data = reader.take();
+          data = packets.take();
         } catch (final InterruptedException e) {
           continue;
         }
         if (data == null || !running) {
           continue;
         }
-        if (logger.isLoggable(Level.FINEST)) {
-          logger.finest("Decoding packet:" + data);
-        }
-        try {
-          final MessageHeader header = IoUtils.readFromMemory(data.getData(), is -> {
-            try {
-              return readMessageHeader(data.getChannel(), objectStreamFactory.create(is));
-            } catch (final ClassNotFoundException e) {
-              throw new IOException(e);
-            }
-          });
-          if (logger.isLoggable(Level.FINEST)) {
-            logger.log(Level.FINEST, "header decoded:" + header);
-          }
-          // make sure we are still open
-          final Socket s = data.getChannel().socket();
-          if (!running || s == null || s.isInputShutdown()) {
-            continue;
-          }
-          final QuarantineConversation converstation = quarantine.get(data.getChannel());
-          if (converstation != null) {
-            sendQuarantine(data.getChannel(), converstation, header);
-          } else {
-            if (nioSocket.getLocalNode() == null) {
-              throw new IllegalStateException("we are writing messages, but no local node");
-            }
-            if (header.getFrom() == null) {
-              throw new IllegalArgumentException("Null from:" + header);
-            }
-            if (logger.isLoggable(Level.FINER)) {
-              logger.log(Level.FINER, "decoded  msg:" + header.getMessage() + " size:" + data.size());
-            }
-            nioSocket.messageReceived(header, data.getChannel());
-          }
-        } catch (final Exception ioe) {
-          // we are reading from memory here
-          // there should be no network errors, something
-          // is odd
-          logger.log(Level.SEVERE, "error reading object", ioe);
-          errorReporter.error(data.getChannel(), ioe);
-        }
+        decode(data);
       } catch (final Exception e) {
         // catch unhandles exceptions to that the decoder
         // thread doesnt die
@@ -116,6 +127,96 @@ class Decoder {
     }
   }
 
+  /**
+   * The packets read from a socket, waiting to be decoded.
+   */
+  private final class ChannelPackets {
+    private final SocketChannel channel;
+    private final Queue<SocketReadData> packets = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    ChannelPackets(final SocketChannel channel) {
+      this.channel = channel;
+    }
+
+    void scheduleDrain() {
+      if (draining.compareAndSet(false, true)) {
+        try {
+          workers.execute(this::drain);
+        } catch (final RejectedExecutionException e) {
+          // we are shutting down
+          draining.set(false);
+        }
+      }
+    }
+
+    private void drain() {
+      try {
+        for (int i = 0; i < MAX_PACKETS_PER_DRAIN && running; i++) {
+          final SocketReadData data = packets.poll();
+          if (data == null) {
+            break;
+          }
+          decode(data);
+        }
+      } finally {
+        draining.set(false);
+      }
+      // packets may have been added after the queue was found empty, or there may be too many to decode at once
+      if (!packets.isEmpty() && running) {
+        scheduleDrain();
+      } else if (!channel.isOpen()) {
+        // a packet read while the channel was being closed may have added us back after closed() removed us
+        channelPackets.remove(channel, this);
+      }
+    }
+  }
+
+  private void decode(final SocketReadData data) {
+    if (logger.isLoggable(Level.FINEST)) {
+      logger.finest("Decoding packet:" + data);
+    }
+    try {
+      final byte[] bytes = data.isCompressed() ? FrameCompression.decompress(data.getData()) : data.getData();
+      final MessageHeader header = IoUtils.readFromMemory(bytes, is -> {
+        try {
+          return readMessageHeader(data.getChannel(), objectStreamFactory.create(is));
+        } catch (final ClassNotFoundException e) {
+          throw new IOException(e);
+        }
+      });
+      if (logger.isLoggable(Level.FINEST)) {
+        logger.log(Level.FINEST, "header decoded:" + header);
+      }
+      // make sure we are still open
+      final Socket s = data.getChannel().socket();
+      if (!running || s == null || s.isInputShutdown()) {
+        return;
+      }
+      final QuarantineConversation converstation = quarantine.get(data.getChannel());
+      if (converstation != null) {
+        sendQuarantine(data.getChannel(), converstation, header);
+      } else {
+        if (nioSocket.getLocalNode() == null) {
+          throw new IllegalStateException("we are writing messages, but no local node");
+        }
+        if (header.getFrom() == null) {
+          throw new IllegalArgumentException("Null from:" + header);
+        }
+        if (logger.isLoggable(Level.FINER)) {
+          logger.log(Level.FINER, "decoded  msg:" + header.getMessage() + " size:" + data.size());
+        }
+        nioSocket.messageReceived(header, data.getChannel());
+      }
+    } catch (final Exception ioe) {
+      // we are reading from memory here
+      // there should be no network errors, something
+      // is odd
+      logger.log(Level.SEVERE, "error reading object", ioe);
+      errorReporter.error(data.getChannel(), ioe);
+    }
+  }
+
   private void sendQuarantine(final SocketChannel channel, final QuarantineConversation conversation,
       final MessageHeader header) {
     final Action a = conversation.message(header.getMessage());
@@ -162,7 +263,15 @@ class Decoder {
     }
     final Serializable message;
     final byte type = (byte) objectInput.read();
-    if (type != Byte.MAX_VALUE) {
+    if (isCompactType(type)) {
+      // quarantined channels, and channels whose remote end did not ask for it, never use the compact codec
+      if (!nioSocket.isCompactCodecEnabled(channel)) {
+        throw new IOException("Compact message type " + type + " on a channel without the compact codec");
+      }
+      final CompactExternalizable template = getTemplate((byte) (type - COMPACT_TYPE_OFFSET));
+      template.readCompact(objectInput);
+      message = template;
+    } else if (type != Byte.MAX_VALUE) {
       final Externalizable template = getTemplate(type);
       template.readExternal(objectInput);
       message = template;
@@ -172,7 +281,7 @@ class Decoder {
     return new MessageHeader(to, from, message);
   }
 
-  private static Externalizable getTemplate(final byte type) {
+  private static CompactExternalizable getTemplate(final byte type) {
     switch (type) {
       case 1:
         return new HubInvoke();
@@ -207,11 +316,25 @@ class Decoder {
     return Byte.MAX_VALUE;
   }
 
+  /**
+   * Like {@link #getType(Object)}, but for messages written with {@link CompactExternalizable#writeCompact}. Only
+   * used for channels whose remote end understands the compact codec.
+   */
+  static byte getCompactType(final Object msg) {
+    final byte type = getType(msg);
+    return (type == Byte.MAX_VALUE) ? type : (byte) (type + COMPACT_TYPE_OFFSET);
+  }
+
+  static boolean isCompactType(final byte type) {
+    return type > COMPACT_TYPE_OFFSET && type != Byte.MAX_VALUE;
+  }
+
   void add(final SocketChannel channel, final QuarantineConversation conversation) {
     quarantine.put(channel, conversation);
   }
 
   void closed(final SocketChannel channel) {
+    channelPackets.remove(channel);
     // remove if it exists
     final QuarantineConversation conversation = quarantine.remove(channel);
     if (conversation != null) {
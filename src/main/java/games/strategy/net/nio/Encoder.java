@@ -3,10 +3,14 @@ package games.strategy.net.nio;
 import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import games.strategy.engine.message.CompactExternalizable;
 import games.strategy.io.IoUtils;
 import games.strategy.net.IObjectStreamFactory;
 import games.strategy.net.MessageHeader;
@@ -20,6 +24,8 @@ class Encoder {
   private final NioWriter writer;
   private final IObjectStreamFactory objectStreamFactory;
   private final NioSocket nioSocket;
+  private final AtomicLong uncompressedBytes = new AtomicLong();
+  private final AtomicLong compressedBytes = new AtomicLong();
 
   Encoder(final NioSocket nioSocket, final NioWriter writer, final IObjectStreamFactory objectStreamFactory) {
     this.nioSocket = nioSocket;
@@ -27,7 +33,7 @@ class Encoder {
     this.objectStreamFactory = objectStreamFactory;
   }
 
-  void write(final SocketChannel to, final MessageHeader header) {
+  void write(final SocketChannel to, final MessageHeader header, final boolean droppable) {
     if (logger.isLoggable(Level.FINEST)) {
       logger.log(Level.FINEST, "Encoding msg:" + header + " to:" + to);
     }
@@ -37,23 +43,117 @@ class Encoder {
     if (to == null) {
       throw new IllegalArgumentException("No to channel!");
     }
+    final EncodedMessage encoded = encode(header, to, nioSocket.isCompactCodecEnabled(to), droppable);
+    if (encoded != null) {
+      writer.enque(encoded.newWriteData(to), to);
+    }
+  }
+
+  /**
+   * Writes a broadcast to each of the specified channels. The broadcast is encoded (and compressed, if needed) only
+   * once per codec, since its encoding does not otherwise depend on the channel it is written to, and the encoded
+   * bytes are shared by the data written to every channel using that codec.
+   */
+  void writeBroadcast(final Collection<SocketChannel> to, final MessageHeader header, final boolean droppable) {
+    if (logger.isLoggable(Level.FINEST)) {
+      logger.log(Level.FINEST, "Encoding broadcast:" + header + " to:" + to);
+    }
+    if (header.getFrom() == null) {
+      throw new IllegalArgumentException("No from node");
+    }
+    if (header.getFor() != null) {
+      throw new IllegalArgumentException("Not a broadcast: " + header);
+    }
+    EncodedMessage compactEncoded = null;
+    EncodedMessage encoded = null;
+    for (final SocketChannel channel : to) {
+      if (nioSocket.isCompactCodecEnabled(channel)) {
+        if (compactEncoded == null) {
+          compactEncoded = encode(header, null, true, droppable);
+        }
+        if (compactEncoded != null) {
+          writer.enque(compactEncoded.newWriteData(channel), channel);
+        }
+      } else {
+        if (encoded == null) {
+          encoded = encode(header, null, false, droppable);
+        }
+        if (encoded != null) {
+          writer.enque(encoded.newWriteData(channel), channel);
+        }
+      }
+    }
+  }
+
+  private EncodedMessage encode(final MessageHeader header, final SocketChannel remote, final boolean compact,
+      final boolean droppable) {
     try {
-      final byte[] bytes = IoUtils.writeToMemory(os -> write(header, objectStreamFactory.create(os), to));
-      final SocketWriteData data = new SocketWriteData(bytes, bytes.length);
+      final byte[] bytes =
+          IoUtils.writeToMemory(os -> write(header, objectStreamFactory.create(os), remote, compact));
       if (logger.isLoggable(Level.FINER)) {
-        logger.log(Level.FINER, "encoded  msg:" + header.getMessage() + " size:" + data.size());
+        logger.log(Level.FINER, "encoded  msg:" + header.getMessage() + " size:" + bytes.length);
       }
-      writer.enque(data, to);
+      return new EncodedMessage(ByteBuffer.wrap(bytes).asReadOnlyBuffer(), droppable);
     } catch (final IOException e) {
       // we arent doing any io, just writing in memory
       // so something is very wrong
       logger.log(Level.SEVERE, "Error writing object:" + header, e);
-      return;
+      return null;
+    }
+  }
+
+  /**
+   * @return The total size of the messages that were compressed, divided by their total size after compression.
+   */
+  double getCompressionRatio() {
+    final long compressed = compressedBytes.get();
+    return (compressed == 0) ? 1 : (double) uncompressedBytes.get() / compressed;
+  }
+
+  /**
+   * An encoded message, which is compressed the first time it is written to a channel that wants it compressed.
+   */
+  private final class EncodedMessage {
+    private final ByteBuffer content;
+    private final boolean droppable;
+    private ByteBuffer compressedContent;
+    private boolean compressionAttempted;
+
+    EncodedMessage(final ByteBuffer content, final boolean droppable) {
+      this.content = content;
+      this.droppable = droppable;
+    }
+
+    SocketWriteData newWriteData(final SocketChannel channel) {
+      final int threshold = nioSocket.getCompressionThreshold(channel);
+      if (threshold > 0 && content.remaining() >= threshold) {
+        final ByteBuffer compressed = getCompressedContent();
+        if (compressed != null) {
+          return new SocketWriteData(compressed, true, droppable);
+        }
+      }
+      return new SocketWriteData(content, false, droppable);
+    }
+
+    private ByteBuffer getCompressedContent() {
+      if (!compressionAttempted) {
+        compressionAttempted = true;
+        compressedContent = FrameCompression.compress(content);
+        final int size = content.remaining();
+        final int compressedSize = (compressedContent == null) ? size : compressedContent.remaining();
+        uncompressedBytes.addAndGet(size);
+        compressedBytes.addAndGet(compressedSize);
+        if (logger.isLoggable(Level.FINE)) {
+          logger.log(Level.FINE, "compressed msg size:" + size + " to:" + compressedSize + " overall ratio:"
+              + getCompressionRatio());
+        }
+      }
+      return compressedContent;
     }
   }
 
-  private void write(final MessageHeader header, final ObjectOutputStream out, final SocketChannel remote)
-      throws IOException {
+  private void write(final MessageHeader header, final ObjectOutputStream out, final SocketChannel remote,
+      final boolean compact) throws IOException {
     if (header.getFrom() == null) {
       throw new IllegalArgumentException("null from");
     }
@@ -80,9 +180,11 @@ class Encoder {
       out.write(0);
       ((Node) header.getFrom()).writeExternal(out);
     }
-    final byte type = Decoder.getType(header.getMessage());
+    final byte type = compact ? Decoder.getCompactType(header.getMessage()) : Decoder.getType(header.getMessage());
     out.write(type);
-    if (type != Byte.MAX_VALUE) {
+    if (Decoder.isCompactType(type)) {
+      ((CompactExternalizable) header.getMessage()).writeCompact(out);
+    } else if (type != Byte.MAX_VALUE) {
       ((Externalizable) header.getMessage()).writeExternal(out);
     } else {
       out.writeObject(header.getMessage());
@@ -0,0 +1,85 @@
+package games.strategy.net.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses the content of packets written to channels that agreed to accept compressed packets while logging in.
+ *
+ * <p>
+ * Only packets at least as large as the threshold negotiated for the channel are compressed, and only if compressing
+ * them makes them smaller. A compressed packet is marked by {@link SocketReadData#COMPRESSED_MAGIC} in its size, and
+ * its content is the size of the uncompressed content as 4 bytes followed by the deflated content.
+ * </p>
+ */
+final class FrameCompression {
+  /**
+   * Packets smaller than this are not worth compressing; most messages are a few hundred bytes.
+   */
+  static final int DEFAULT_THRESHOLD = 16 * 1024;
+
+  private FrameCompression() {}
+
+  /**
+   * @return The compressed content, or null if compressing does not make the content smaller.
+   */
+  static ByteBuffer compress(final ByteBuffer content) {
+    final int size = content.remaining();
+    final byte[] input = new byte[size];
+    content.duplicate().get(input);
+    final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(input);
+      deflater.finish();
+      final byte[] output = new byte[size];
+      ByteBuffer.wrap(output).putInt(size);
+      int length = 4;
+      while (!deflater.finished() && length < output.length) {
+        length += deflater.deflate(output, length, output.length - length);
+      }
+      if (!deflater.finished()) {
+        return null;
+      }
+      return ByteBuffer.wrap(output, 0, length).asReadOnlyBuffer();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * @return The uncompressed content of a compressed packet.
+   */
+  static byte[] decompress(final byte[] content) throws IOException {
+    if (content.length < 4) {
+      throw new IOException("Invalid compressed packet size:" + content.length);
+    }
+    final int size = ByteBuffer.wrap(content).getInt();
+    if (size <= 0 || size > SocketReadData.MAX_MESSAGE_SIZE) {
+      throw new IOException("Invalid uncompressed packet size:" + size);
+    }
+    final Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(content, 4, content.length - 4);
+      final byte[] output = new byte[size];
+      int length = 0;
+      while (length < size && !inflater.finished()) {
+        final int count = inflater.inflate(output, length, size - length);
+        if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        length += count;
+      }
+      if (length != size) {
+        throw new IOException("Compressed packet did not match its size:" + size);
+      }
+      return output;
+    } catch (final DataFormatException e) {
+      throw new IOException(e);
+    } finally {
+      inflater.end();
+    }
+  }
+}
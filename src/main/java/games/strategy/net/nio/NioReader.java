@@ -4,155 +4,217 @@ import java.io.IOException;
 import java.net.Socket;
 import java.net.SocketAddress;
 import java.net.SocketException;
+import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * A thread that reads socket data using NIO from a collection of sockets.
- * Data is read in packets, and placed in the output queue.
- * Packets are placed in the output queue in order they are read from the socket.
+ * Reads socket data using NIO from a collection of sockets.
+ * Data is read in packets, and passed to the decoder.
+ * Packets of a socket are passed to the decoder in the order they are read from the socket.
+ *
+ * <p>
+ * Sockets are spread over one or more reactors, each a thread selecting on its own {@link Selector}. A socket is
+ * always read by the same reactor, the one with the fewest sockets when it was added.
+ * </p>
  */
 class NioReader {
   private static final Logger logger = Logger.getLogger(NioReader.class.getName());
-  private final LinkedBlockingQueue<SocketReadData> outputQueue = new LinkedBlockingQueue<>();
+  private static final int READ_BUFFER_SIZE = 64 * 1024;
   private volatile boolean running = true;
   private final Map<SocketChannel, SocketReadData> reading = new ConcurrentHashMap<>();
   private final ErrorReporter errorReporter;
-  private final Selector selector;
-  private final Object socketsToAddMutex = new Object();
-  private final List<SocketChannel> socketsToAdd = new ArrayList<>();
-  private long totalBytes;
+  private final Decoder decoder;
+  private final List<Reactor> reactors = new ArrayList<>();
+  private final Map<SocketChannel, Reactor> channelReactors = new ConcurrentHashMap<>();
+  private final AtomicLong totalBytes = new AtomicLong();
 
-  NioReader(final ErrorReporter reporter, final String threadSuffix) {
+  NioReader(final ErrorReporter reporter, final Decoder decoder, final String threadSuffix, final int reactorCount) {
+    if (reactorCount < 1) {
+      throw new IllegalArgumentException("Invalid reactor count:" + reactorCount);
+    }
     errorReporter = reporter;
-    try {
-      selector = Selector.open();
-    } catch (final IOException e) {
-      logger.log(Level.SEVERE, "Could not create Selector", e);
-      throw new IllegalStateException(e);
+    this.decoder = decoder;
+    for (int i = 0; i < reactorCount; i++) {
+      final String threadName = "NIO Reader - " + threadSuffix + (reactorCount == 1 ? "" : " - " + i);
+      reactors.add(new Reactor(threadName));
     }
-    new Thread(this::loop, "NIO Reader - " + threadSuffix).start();
   }
 
   void shutDown() {
     running = false;
-    try {
-      selector.close();
-    } catch (final Exception e) {
-      logger.log(Level.WARNING, "error closing selector", e);
+    for (final Reactor reactor : reactors) {
+      reactor.shutDown();
     }
   }
 
   void add(final SocketChannel channel) {
-    synchronized (socketsToAddMutex) {
-      socketsToAdd.add(channel);
-      selector.wakeup();
-    }
+    final Reactor reactor = reactors.stream().min(Comparator.comparingInt(r -> r.channelCount.get())).get();
+    reactor.channelCount.incrementAndGet();
+    channelReactors.put(channel, reactor);
+    reactor.add(channel);
   }
 
-  private void selectNewChannels() {
-    List<SocketChannel> toAdd = null;
-    synchronized (socketsToAddMutex) {
-      if (socketsToAdd.isEmpty()) {
-        return;
+  /**
+   * A thread selecting on the sockets assigned to it.
+   */
+  private final class Reactor {
+    private final Selector selector;
+    private final Object socketsToAddMutex = new Object();
+    private final List<SocketChannel> socketsToAdd = new ArrayList<>();
+    private final AtomicInteger channelCount = new AtomicInteger();
+    // only used by the reactor thread, and reused for every read
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+
+    Reactor(final String threadName) {
+      try {
+        selector = Selector.open();
+      } catch (final IOException e) {
+        logger.log(Level.SEVERE, "Could not create Selector", e);
+        throw new IllegalStateException(e);
       }
-      toAdd = new ArrayList<>(socketsToAdd);
-      socketsToAdd.clear();
+      new Thread(this::loop, threadName).start();
     }
-    for (final SocketChannel channel : toAdd) {
+
+    void shutDown() {
       try {
-        channel.register(selector, SelectionKey.OP_READ);
-      } catch (final ClosedChannelException e) {
-        // this is ok, the channel is closed, so dont bother reading it
-        return;
+        selector.close();
+      } catch (final Exception e) {
+        logger.log(Level.WARNING, "error closing selector", e);
       }
     }
-  }
 
-  private void loop() {
-    while (running) {
-      try {
-        if (logger.isLoggable(Level.FINEST)) {
-          logger.finest("selecting...");
+    void add(final SocketChannel channel) {
+      synchronized (socketsToAddMutex) {
+        socketsToAdd.add(channel);
+        selector.wakeup();
+      }
+    }
+
+    private void selectNewChannels() {
+      List<SocketChannel> toAdd = null;
+      synchronized (socketsToAddMutex) {
+        if (socketsToAdd.isEmpty()) {
+          return;
         }
+        toAdd = new ArrayList<>(socketsToAdd);
+        socketsToAdd.clear();
+      }
+      for (final SocketChannel channel : toAdd) {
         try {
-          // exceptions can be thrown here, nothing we can do
-          // http://bugs.sun.com/bugdatabase/view_bug.do?bug_id=4729342
-          selector.select();
-        } catch (final Exception e) {
-          logger.log(Level.SEVERE, "error reading selection", e);
-        }
-        if (!running) {
-          continue;
-        }
-        selectNewChannels();
-        final Set<SelectionKey> selected = selector.selectedKeys();
-        if (logger.isLoggable(Level.FINEST)) {
-          logger.finest("selected:" + selected.size());
+          channel.register(selector, SelectionKey.OP_READ);
+        } catch (final ClosedChannelException e) {
+          // this is ok, the channel is closed, so dont bother reading it
+          return;
         }
-        final Iterator<SelectionKey> iter = selected.iterator();
-        while (iter.hasNext()) {
-          final SelectionKey key = iter.next();
-          iter.remove();
-          if (key.isValid() && key.isReadable()) {
-            final SocketChannel channel = (SocketChannel) key.channel();
-            final SocketReadData packet = getReadData(channel);
-            if (logger.isLoggable(Level.FINEST)) {
-              logger.finest("reading packet:" + packet + " from:" + channel.socket().getRemoteSocketAddress());
-            }
-            try {
-              final boolean done = packet.read(channel);
-              if (done) {
-                totalBytes += packet.size();
-                if (logger.isLoggable(Level.FINE)) {
-                  String remote = "null";
-                  final Socket s = channel.socket();
-                  SocketAddress sa = null;
-                  if (s != null) {
-                    sa = s.getRemoteSocketAddress();
-                  }
-                  if (sa != null) {
-                    remote = sa.toString();
-                  }
-                  logger.log(Level.FINE, " done reading from:" + remote + " size:" + packet.size() + " readCalls;"
-                      + packet.getReadCalls() + " total:" + totalBytes);
-                }
-                enque(packet);
+      }
+    }
+
+    private void loop() {
+      while (running) {
+        try {
+          if (logger.isLoggable(Level.FINEST)) {
+            logger.finest("selecting...");
+          }
+          try {
+            // exceptions can be thrown here, nothing we can do
+            // http://bugs.sun.com/bugdatabase/view_bug.do?bug_id=4729342
+            selector.select();
+          } catch (final Exception e) {
+            logger.log(Level.SEVERE, "error reading selection", e);
+          }
+          if (!running) {
+            continue;
+          }
+          selectNewChannels();
+          final Set<SelectionKey> selected = selector.selectedKeys();
+          if (logger.isLoggable(Level.FINEST)) {
+            logger.finest("selected:" + selected.size());
+          }
+          final Iterator<SelectionKey> iter = selected.iterator();
+          while (iter.hasNext()) {
+            final SelectionKey key = iter.next();
+            iter.remove();
+            if (key.isValid() && key.isReadable()) {
+              final SocketChannel channel = (SocketChannel) key.channel();
+              try {
+                read(channel, readBuffer);
+              } catch (final Exception e) {
+                logger.log(Level.FINER, "exception reading", e);
+                key.cancel();
+                errorReporter.error(channel, e);
               }
-            } catch (final Exception e) {
-              logger.log(Level.FINER, "exception reading", e);
+            } else if (!key.isValid()) {
+              logger.fine("Remotely closed");
+              final SocketChannel channel = (SocketChannel) key.channel();
               key.cancel();
-              errorReporter.error(channel, e);
+              errorReporter.error(channel, new SocketException("triplea:key cancelled"));
             }
-          } else if (!key.isValid()) {
-            logger.fine("Remotely closed");
-            final SocketChannel channel = (SocketChannel) key.channel();
-            key.cancel();
-            errorReporter.error(channel, new SocketException("triplea:key cancelled"));
           }
+        } catch (final Exception e) {
+          // catch unhandles exceptions to that the reader
+          // thread doesnt die
+          logger.log(Level.SEVERE, "error in reader", e);
         }
-      } catch (final Exception e) {
-        // catch unhandles exceptions to that the reader
-        // thread doesnt die
-        logger.log(Level.SEVERE, "error in reader", e);
+      }
+    }
+  }
+
+  /**
+   * Reads whatever is available from the channel into the read buffer of its reactor with a single call, and splits it
+   * into as many packets as it holds.
+   */
+  private void read(final SocketChannel channel, final ByteBuffer readBuffer) throws IOException {
+    readBuffer.clear();
+    final int count = channel.read(readBuffer);
+    if (logger.isLoggable(Level.FINEST)) {
+      logger.finest("read bytes:" + count + " from:" + channel.socket().getRemoteSocketAddress());
+    }
+    if (count == -1) {
+      throw new IOException("Socket closed");
+    }
+    readBuffer.flip();
+    while (readBuffer.hasRemaining()) {
+      final SocketReadData packet = getReadData(channel);
+      if (logger.isLoggable(Level.FINEST)) {
+        logger.finest("reading packet:" + packet);
+      }
+      if (packet.read(readBuffer)) {
+        final long total = totalBytes.addAndGet(packet.size());
+        if (logger.isLoggable(Level.FINE)) {
+          String remote = "null";
+          final Socket s = channel.socket();
+          SocketAddress sa = null;
+          if (s != null) {
+            sa = s.getRemoteSocketAddress();
+          }
+          if (sa != null) {
+            remote = sa.toString();
+          }
+          logger.log(Level.FINE, " done reading from:" + remote + " size:" + packet.size() + " readCalls;"
+              + packet.getReadCalls() + " total:" + total);
+        }
+        enque(packet);
       }
     }
   }
 
   private void enque(final SocketReadData packet) {
     reading.remove(packet.getChannel());
-    outputQueue.offer(packet);
+    decoder.packetRead(packet);
   }
 
   private SocketReadData getReadData(final SocketChannel channel) {
@@ -164,11 +226,11 @@ class NioReader {
     return packet;
   }
 
-  SocketReadData take() throws InterruptedException {
-    return outputQueue.take();
-  }
-
   void closed(final SocketChannel channel) {
     reading.remove(channel);
+    final Reactor reactor = channelReactors.remove(channel);
+    if (reactor != null) {
+      reactor.channelCount.decrementAndGet();
+    }
   }
 }
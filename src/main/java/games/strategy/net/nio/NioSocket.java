@@ -3,6 +3,10 @@ package games.strategy.net.nio;
 import java.io.IOException;
 import java.net.Socket;
 import java.nio.channels.SocketChannel;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -17,23 +21,63 @@ import games.strategy.net.MessageHeader;
  * thread.
  * serializing (encoding) objects to be written across the network is done
  * by threads calling this object.
+ *
+ * <p>
+ * A server with many sockets may use several reactors instead: the sockets are then spread over that many read
+ * threads, and packets are decoded by that many threads, keeping the order of the packets of each socket.
+ * </p>
  */
 public class NioSocket implements ErrorReporter {
+  /**
+   * The name of the system property holding the {@link WriteQueuePolicy} used by default.
+   */
+  public static final String WRITE_QUEUE_POLICY_PROPERTY = "triplea.nio.writeQueuePolicy";
+  /**
+   * The name of the system property holding the number of bytes that may be queued for a socket by default.
+   */
+  public static final String WRITE_QUEUE_LIMIT_PROPERTY = "triplea.nio.writeQueueLimit";
+  private static final long DEFAULT_WRITE_QUEUE_LIMIT = 16 * 1024 * 1024;
   private static final Logger logger = Logger.getLogger(NioSocket.class.getName());
   private final Encoder encoder;
   private final Decoder decoder;
   private final NioWriter writer;
   private final NioReader reader;
   private final NioSocketListener listener;
+  // channels whose remote end said it understands the compact codec while logging in
+  private final Set<SocketChannel> compactCodecChannels = ConcurrentHashMap.newKeySet();
+  // the size above which packets written to a channel are compressed, for channels that accept compressed packets
+  private final Map<SocketChannel, Integer> compressionThresholds = new ConcurrentHashMap<>();
 
   public NioSocket(final IObjectStreamFactory factory, final NioSocketListener listener, final String name) {
+    this(factory, listener, name, 1);
+  }
+
+  /**
+   * @param reactorCount The number of threads reading from the sockets, which is also the number of threads decoding
+   *        the packets read.
+   */
+  public NioSocket(final IObjectStreamFactory factory, final NioSocketListener listener, final String name,
+      final int reactorCount) {
     this.listener = listener;
-    writer = new NioWriter(this, name);
-    reader = new NioReader(this, name);
-    decoder = new Decoder(this, reader, this, factory, name);
+    writer = new NioWriter(this, name, getDefaultWriteQueuePolicy(),
+        Long.getLong(WRITE_QUEUE_LIMIT_PROPERTY, DEFAULT_WRITE_QUEUE_LIMIT));
+    decoder = new Decoder(this, this, factory, name, reactorCount);
+    reader = new NioReader(this, decoder, name, reactorCount);
     encoder = new Encoder(this, writer, factory);
   }
 
+  private static WriteQueuePolicy getDefaultWriteQueuePolicy() {
+    final String policy = System.getProperty(WRITE_QUEUE_POLICY_PROPERTY);
+    if (policy != null) {
+      try {
+        return WriteQueuePolicy.valueOf(policy);
+      } catch (final IllegalArgumentException e) {
+        logger.warning("Unknown write queue policy:" + policy);
+      }
+    }
+    return WriteQueuePolicy.DROP_CHAT;
+  }
+
   INode getLocalNode() {
     return listener.getLocalNode();
   }
@@ -59,13 +103,88 @@ public class NioSocket implements ErrorReporter {
    * @param header The message header to send.
    */
   public void send(final SocketChannel to, final MessageHeader header) {
+    send(to, header, false);
+  }
+
+  /**
+   * Sends the specified message header through the specified channel.
+   *
+   * @param to The destination channel.
+   * @param header The message header to send.
+   * @param droppable true if the message may be dropped rather than sent when the channel falls behind, see
+   *        {@link WriteQueuePolicy#DROP_CHAT}.
+   */
+  public void send(final SocketChannel to, final MessageHeader header, final boolean droppable) {
+    if (to == null) {
+      throw new IllegalArgumentException("to cant be null!");
+    }
+    if (header == null) {
+      throw new IllegalArgumentException("header cant be null");
+    }
+    encoder.write(to, header, droppable);
+  }
+
+  /**
+   * Sends the specified broadcast message header through each of the specified channels. The message is serialized
+   * only once, regardless of the number of channels.
+   *
+   * @param to The destination channels.
+   * @param header The broadcast message header to send.
+   * @param droppable true if the message may be dropped rather than sent to channels that fall behind, see
+   *        {@link WriteQueuePolicy#DROP_CHAT}.
+   */
+  public void broadcast(final Collection<SocketChannel> to, final MessageHeader header, final boolean droppable) {
     if (to == null) {
       throw new IllegalArgumentException("to cant be null!");
     }
     if (header == null) {
       throw new IllegalArgumentException("header cant be null");
     }
-    encoder.write(to, header);
+    encoder.writeBroadcast(to, header, droppable);
+  }
+
+  /**
+   * @return The number of bytes queued to be written to the specified channel that have not been written yet.
+   */
+  public long getBytesInFlight(final SocketChannel channel) {
+    return writer.getBytesInFlight(channel);
+  }
+
+  /**
+   * Sets what happens to messages written to the specified channel while more than the specified number of bytes are
+   * queued to be written to it, until the channel is closed.
+   */
+  public void setWriteQueuePolicy(final SocketChannel channel, final WriteQueuePolicy policy, final long limit) {
+    writer.setWriteQueueLimit(channel, policy, limit);
+  }
+
+  /**
+   * Uses the compact codec for messages written to the specified channel from now on.
+   */
+  void enableCompactCodec(final SocketChannel channel) {
+    compactCodecChannels.add(channel);
+  }
+
+  boolean isCompactCodecEnabled(final SocketChannel channel) {
+    return compactCodecChannels.contains(channel);
+  }
+
+  /**
+   * Compresses packets written to the specified channel from now on, if they are at least the specified size.
+   */
+  void enableCompression(final SocketChannel channel, final int threshold) {
+    if (threshold <= 0) {
+      throw new IllegalArgumentException("Invalid compression threshold:" + threshold);
+    }
+    compressionThresholds.put(channel, threshold);
+  }
+
+  /**
+   * @return The size above which packets written to the specified channel are compressed, or 0 if they are never
+   *         compressed.
+   */
+  int getCompressionThreshold(final SocketChannel channel) {
+    return compressionThresholds.getOrDefault(channel, 0);
   }
 
   /**
@@ -111,6 +230,8 @@ public class NioSocket implements ErrorReporter {
       logger.log(Level.FINE, "error closing channel", e1);
     }
     decoder.closed(channel);
+    compactCodecChannels.remove(channel);
+    compressionThresholds.remove(channel);
     writer.closed(channel);
     reader.closed(channel);
   }
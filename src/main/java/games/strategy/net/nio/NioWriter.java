@@ -1,5 +1,7 @@
 package games.strategy.net.nio;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.io.IOException;
 import java.net.Socket;
 import java.net.SocketAddress;
@@ -7,26 +9,40 @@ import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.google.common.annotations.VisibleForTesting;
+
 /**
  * A thread that writes socket data using NIO .
  * Data is written in packets that are enqueued on our buffer.
  * Packets are sent to the sockets in the order that they are received.
+ *
+ * <p>
+ * The bytes queued for each socket are counted, and a socket whose queue is over its limit is handled according to
+ * its {@link WriteQueuePolicy}, so a remote end that stops reading cannot make the queue grow without bound.
+ * </p>
  */
 class NioWriter {
   private static final Logger logger = Logger.getLogger(NioWriter.class.getName());
+  private static final long MAX_BACKPRESSURE_WAIT_MILLIS = 10 * 1000;
+  private final long maxBackpressureWaitMillis;
   private final Selector selector;
   private final ErrorReporter errorReporter;
   // this is the data we are writing
-  private final Map<SocketChannel, List<SocketWriteData>> writing = new HashMap<>();
+  private final Map<SocketChannel, WriteQueue> writing = new HashMap<>();
+  // the limits of sockets not using the default
+  private final Map<SocketChannel, WriteQueueLimit> limits = new HashMap<>();
+  private final WriteQueueLimit defaultLimit;
   // these are the sockets we arent selecting on, but should now
   private List<SocketChannel> socketsToWake = new ArrayList<>();
   // the writing thread and threads adding data to write synchronize on this lock
@@ -34,8 +50,17 @@ class NioWriter {
   private long totalBytes = 0;
   private volatile boolean running = true;
 
-  NioWriter(final ErrorReporter reporter, final String threadSuffix) {
+  NioWriter(final ErrorReporter reporter, final String threadSuffix, final WriteQueuePolicy defaultPolicy,
+      final long defaultLimit) {
+    this(reporter, threadSuffix, defaultPolicy, defaultLimit, MAX_BACKPRESSURE_WAIT_MILLIS);
+  }
+
+  @VisibleForTesting
+  NioWriter(final ErrorReporter reporter, final String threadSuffix, final WriteQueuePolicy defaultPolicy,
+      final long defaultLimit, final long maxBackpressureWaitMillis) {
     errorReporter = reporter;
+    this.maxBackpressureWaitMillis = maxBackpressureWaitMillis;
+    this.defaultLimit = new WriteQueueLimit(defaultPolicy, defaultLimit);
     try {
       selector = Selector.open();
     } catch (final IOException e) {
@@ -47,6 +72,10 @@ class NioWriter {
 
   void shutDown() {
     running = false;
+    synchronized (mutex) {
+      // release the threads waiting for a queue to drain
+      mutex.notifyAll();
+    }
     try {
       selector.close();
     } catch (final IOException e) {
@@ -120,7 +149,7 @@ class NioWriter {
                       remote = sa.toString();
                     }
                     logger.log(Level.FINE, " done writing to:" + remote + " size:" + packet.size() + " writeCalls;"
-                        + packet.getWriteCalls() + " total:" + totalBytes);
+                        + packet.getWriteCalls() + " total:" + totalBytes + " inFlight:" + getBytesInFlight(channel));
                   }
                   removeLast(channel);
                 }
@@ -155,51 +184,146 @@ class NioWriter {
   private void removeAll(final SocketChannel to) {
     synchronized (mutex) {
       writing.remove(to);
+      limits.remove(to);
+      mutex.notifyAll();
     }
   }
 
   private void removeLast(final SocketChannel to) {
     synchronized (mutex) {
-      final List<SocketWriteData> values = writing.get(to);
-      if (values == null) {
-        logger.log(Level.SEVERE, "NO socket data to:" + to + " all:" + values);
+      final WriteQueue queue = writing.get(to);
+      if (queue == null) {
+        logger.log(Level.SEVERE, "NO socket data to:" + to);
         return;
       }
-      values.remove(0);
-      // remove empty lists, so we can detect that we need to wake up the socket
-      if (values.isEmpty()) {
+      queue.bytes -= queue.packets.remove().size();
+      // remove empty queues, so we can detect that we need to wake up the socket
+      if (queue.packets.isEmpty()) {
         writing.remove(to);
       }
+      mutex.notifyAll();
+    }
+  }
+
+  /**
+   * @return The number of bytes queued for the specified channel that have not been written yet. The count includes
+   *         all of the packet being written.
+   */
+  long getBytesInFlight(final SocketChannel to) {
+    synchronized (mutex) {
+      final WriteQueue queue = writing.get(to);
+      return (queue == null) ? 0 : queue.bytes;
+    }
+  }
+
+  void setWriteQueueLimit(final SocketChannel channel, final WriteQueuePolicy policy, final long limit) {
+    synchronized (mutex) {
+      limits.put(channel, new WriteQueueLimit(policy, limit));
     }
   }
 
   private SocketWriteData getData(final SocketChannel to) {
     synchronized (mutex) {
-      if (!writing.containsKey(to)) {
-        return null;
-      }
-      final List<SocketWriteData> values = writing.get(to);
-      if (values.isEmpty()) {
-        return null;
-      }
-      return values.get(0);
+      final WriteQueue queue = writing.get(to);
+      return (queue == null) ? null : queue.packets.peek();
     }
   }
 
   void enque(final SocketWriteData data, final SocketChannel channel) {
+    final String overLimit;
     synchronized (mutex) {
-      if (!running) {
+      // a channel closed for going over its limit may still be written to by threads that have not noticed
+      if (!running || !channel.isOpen()) {
+        return;
+      }
+      overLimit = checkLimit(data, channel);
+      if (overLimit == null) {
+        WriteQueue queue = writing.get(channel);
+        if (queue == null) {
+          queue = new WriteQueue();
+          writing.put(channel, queue);
+          socketsToWake.add(channel);
+          selector.wakeup();
+        }
+        queue.packets.add(data);
+        queue.bytes += data.size();
         return;
       }
-      if (writing.containsKey(channel)) {
-        writing.get(channel).add(data);
-      } else {
-        final List<SocketWriteData> values = new ArrayList<>();
-        values.add(data);
-        writing.put(channel, values);
-        socketsToWake.add(channel);
-        selector.wakeup();
+    }
+    if (!overLimit.isEmpty()) {
+      // report outside of our lock, since closing the channel notifies listeners
+      logger.warning("Closing channel:" + channel.socket().getRemoteSocketAddress() + ", " + overLimit);
+      errorReporter.error(channel, new IOException(overLimit));
+    }
+  }
+
+  /**
+   * Waits for the queue of the channel to drain below its limit, if its policy applies backpressure.
+   *
+   * @return null if the data should be queued, an empty string if it should be dropped, or the reason the channel
+   *         should be closed.
+   */
+  private String checkLimit(final SocketWriteData data, final SocketChannel channel) {
+    assert Thread.holdsLock(mutex);
+    final WriteQueueLimit limit = limits.getOrDefault(channel, defaultLimit);
+    final long queued = getBytesInFlight(channel);
+    if (queued == 0 || queued + data.size() <= limit.bytes) {
+      return null;
+    }
+    switch (limit.policy) {
+      case DROP_CHAT:
+        if (queued + data.size() > limit.bytes * WriteQueuePolicy.DROP_CHAT_DISCONNECT_FACTOR) {
+          return "write queue over " + WriteQueuePolicy.DROP_CHAT_DISCONNECT_FACTOR + " times its limit:" + queued;
+        }
+        if (data.isDroppable()) {
+          if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Dropping packet:" + data + " to:" + channel.socket().getRemoteSocketAddress() + " queued:"
+                + queued);
+          }
+          return "";
+        }
+        return null;
+      case BACKPRESSURE:
+        final long deadline = System.currentTimeMillis() + maxBackpressureWaitMillis;
+        long remaining = maxBackpressureWaitMillis;
+        while (running && remaining > 0 && channel.isOpen()) {
+          final long current = getBytesInFlight(channel);
+          if (current == 0 || current + data.size() <= limit.bytes) {
+            return null;
+          }
+          try {
+            mutex.wait(remaining);
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "";
+          }
+          remaining = deadline - System.currentTimeMillis();
+        }
+        return (running && channel.isOpen()) ? "write queue did not drain below its limit:" + limit.bytes : "";
+      case DISCONNECT:
+      default:
+        return "write queue over its limit:" + queued;
+    }
+  }
+
+  /**
+   * The packets queued for a channel.
+   */
+  private static final class WriteQueue {
+    private final Queue<SocketWriteData> packets = new ArrayDeque<>();
+    private long bytes;
+  }
+
+  private static final class WriteQueueLimit {
+    private final WriteQueuePolicy policy;
+    private final long bytes;
+
+    WriteQueueLimit(final WriteQueuePolicy policy, final long bytes) {
+      if (bytes <= 0) {
+        throw new IllegalArgumentException("Invalid write queue limit:" + bytes);
       }
+      this.policy = checkNotNull(policy);
+      this.bytes = bytes;
     }
   }
 }
@@ -16,6 +16,17 @@ package games.strategy.net.nio;
  * </p>
  */
 public abstract class QuarantineConversation {
+  /*
+   * Support for the compact codec and for compressed packets is negotiated while logging in, in a way older versions
+   * ignore: the client adds these properties to its challenge response, and the server adds the features both sides
+   * will use after the names it sends back.
+   */
+  static final String COMPACT_CODEC_PROPERTY = "Net.CompactCodec";
+  static final String COMPACT_CODEC_ACCEPTED = "CompactCodec";
+  static final String COMPRESSION_THRESHOLD_PROPERTY = "Net.CompressionThreshold";
+  // followed by the negotiated threshold
+  static final String COMPRESSION_ACCEPTED = "Compression:";
+
   /**
    * The action to be performed after reading a message.
    */
@@ -3,6 +3,9 @@ package games.strategy.net.nio;
 import java.io.Serializable;
 import java.net.InetSocketAddress;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -109,11 +112,27 @@ public class ServerQuarantineConversation extends QuarantineConversation {
           if (logger.isLoggable(Level.FINER)) {
             logger.log(Level.FINER, "Sending name:" + remoteName);
           }
-          // send the node its name and our name
-          send(new String[] {remoteName, serverMessenger.getLocalNode().getName()});
+          // send the node its name and our name, followed by the features we will both use
+          final List<String> names =
+              new ArrayList<>(Arrays.asList(remoteName, serverMessenger.getLocalNode().getName()));
+          final boolean compactCodec = response != null && Boolean.parseBoolean(response.get(COMPACT_CODEC_PROPERTY));
+          if (compactCodec) {
+            names.add(COMPACT_CODEC_ACCEPTED);
+          }
+          final int compressionThreshold = getCompressionThreshold(response);
+          if (compressionThreshold > 0) {
+            names.add(COMPRESSION_ACCEPTED + compressionThreshold);
+          }
+          send(names.toArray(new String[names.size()]));
           // send the node its and our address as we see it
           send(new InetSocketAddress[] {(InetSocketAddress) channel.socket().getRemoteSocketAddress(),
               serverMessenger.getLocalNode().getSocketAddress()});
+          if (compactCodec) {
+            socket.enableCompactCodec(channel);
+          }
+          if (compressionThreshold > 0) {
+            socket.enableCompression(channel, compressionThreshold);
+          }
           // Login succeeded, so notify the ServerMessenger about the login with the name, mac, etc.
           serverMessenger.notifyPlayerLogin(remoteName, channel.socket().getInetAddress().getHostAddress(),
               remoteMac);
@@ -130,6 +149,22 @@ public class ServerQuarantineConversation extends QuarantineConversation {
     }
   }
 
+  /**
+   * @return The larger of the compression thresholds proposed by the client and by us, or 0 if the client does not
+   *         accept compressed packets.
+   */
+  private static int getCompressionThreshold(final Map<String, String> response) {
+    if (response == null || response.get(COMPRESSION_THRESHOLD_PROPERTY) == null) {
+      return 0;
+    }
+    try {
+      final int threshold = Integer.parseInt(response.get(COMPRESSION_THRESHOLD_PROPERTY));
+      return (threshold > 0) ? Math.max(threshold, FrameCompression.DEFAULT_THRESHOLD) : 0;
+    } catch (final NumberFormatException e) {
+      return 0;
+    }
+  }
+
   private void send(final Serializable object) {
     // this messenger is quarantined, so to and from dont matter
     final MessageHeader header = new MessageHeader(Node.NULL_NODE, Node.NULL_NODE, object);
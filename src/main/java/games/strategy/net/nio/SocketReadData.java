@@ -23,12 +23,16 @@ class SocketReadData {
   // that the upper bits of the packet
   // size we send is 0x9b
   public static final int MAGIC = 0x9b000000;
+  // marks packets whose content is compressed, see FrameCompression
+  public static final int COMPRESSED_MAGIC = 0x9c000000;
   private int targetSize = -1;
-  // we read into here the first four
-  // bytes to find out size
-  private ByteBuffer sizeBuffer;
-  // we read into here after knowing out size
-  private ByteBuffer contentBuffer;
+  private boolean compressed;
+  // the first four bytes of the packet hold its size
+  private int sizeHeader;
+  private int sizeBytesRead;
+  // we read into here after knowing our size
+  private byte[] content;
+  private int contentBytesRead;
   private final SocketChannel channel;
   private final int number = counter.incrementAndGet();
   private int readCalls;
@@ -38,56 +42,48 @@ class SocketReadData {
   }
 
   /**
-   * Read data from the channel, returning true if this packet is done.
+   * Reads data for this packet from the specified buffer, returning true if this packet is done.
    *
    * <p>
-   * If we detect the socket is closed, we will throw an IOExcpetion
+   * The buffer holds whatever was last read from the channel, which may include the end of this packet followed by
+   * the start of the next. Any bytes after the end of this packet are left in the buffer.
+   * </p>
+   *
+   * <p>
+   * If the data is not a valid packet, we will throw an IOException
    * </p>
    */
-  public boolean read(final SocketChannel channel) throws IOException {
+  public boolean read(final ByteBuffer buffer) throws IOException {
     readCalls++;
     // we dont know our size, read it
     if (targetSize < 0) {
-      // our first read
-      // find out how big this packet is
-      if (sizeBuffer == null) {
-        sizeBuffer = ByteBuffer.allocate(4);
+      while (sizeBytesRead < 4 && buffer.hasRemaining()) {
+        sizeHeader = (sizeHeader << 8) | (buffer.get() & 0xFF);
+        sizeBytesRead++;
       }
-      final int size = channel.read(sizeBuffer);
-      if (logger.isLoggable(Level.FINEST)) {
-        logger.finest("read size_buffer bytes:" + size);
-      }
-      if (size == -1) {
-        throw new IOException("Socket closed");
-      }
-      // we have read all four bytes of our size
-      if (!sizeBuffer.hasRemaining()) {
-        sizeBuffer.flip();
-        targetSize = sizeBuffer.getInt();
-        if ((targetSize & 0xFF000000) != MAGIC) {
-          throw new IOException("Did not write magic!");
-        }
-        targetSize = targetSize & 0x00ffffff;
-        // limit messages to 10MB
-        if (targetSize <= 0 || targetSize > MAX_MESSAGE_SIZE) {
-          throw new IOException("Invalid triplea packet size:" + targetSize);
-        }
-        contentBuffer = ByteBuffer.allocate(targetSize);
-        sizeBuffer = null;
-      } else {
+      if (sizeBytesRead < 4) {
         // we ddnt read all 4 bytes, return
         return false;
       }
+      final int magic = sizeHeader & 0xFF000000;
+      if (magic != MAGIC && magic != COMPRESSED_MAGIC) {
+        throw new IOException("Did not write magic!");
+      }
+      compressed = magic == COMPRESSED_MAGIC;
+      targetSize = sizeHeader & 0x00ffffff;
+      // limit messages to 10MB
+      if (targetSize <= 0 || targetSize > MAX_MESSAGE_SIZE) {
+        throw new IOException("Invalid triplea packet size:" + targetSize);
+      }
+      content = new byte[targetSize];
     }
-    // http://javaalmanac.com/egs/java.nio/DetectClosed.html
-    final int size = channel.read(contentBuffer);
+    final int count = Math.min(buffer.remaining(), targetSize - contentBytesRead);
+    buffer.get(content, contentBytesRead, count);
+    contentBytesRead += count;
     if (logger.isLoggable(Level.FINEST)) {
-      logger.finest("read content bytes:" + size);
-    }
-    if (size == -1) {
-      throw new IOException("Socket closed");
+      logger.finest("read content bytes:" + count);
     }
-    return !contentBuffer.hasRemaining();
+    return contentBytesRead == targetSize;
   }
 
   public SocketChannel getChannel() {
@@ -99,13 +95,18 @@ class SocketReadData {
    * This method can only be called once.
    */
   public byte[] getData() {
-    final byte[] data = new byte[contentBuffer.capacity()];
-    contentBuffer.flip();
-    contentBuffer.get(data);
-    contentBuffer = null;
+    final byte[] data = content;
+    content = null;
     return data;
   }
 
+  /**
+   * @return true if the data is compressed, and must be decompressed with {@link FrameCompression#decompress(byte[])}.
+   */
+  public boolean isCompressed() {
+    return compressed;
+  }
+
   public int size() {
     // add 4 to count the bytes used to send our size
     return targetSize + 4;
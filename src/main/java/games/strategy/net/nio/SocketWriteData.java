@@ -17,31 +17,54 @@ import java.util.logging.Logger;
  * <p>
  * The packet is written over the network as 32 bits indicating the size in bytes, then the data itself.
  * </p>
+ *
+ * <p>
+ * Packets may share their content with other packets, for instance when the same broadcast is written to many
+ * channels. Each packet keeps its own position within the shared content, which is never modified.
+ * </p>
  */
 class SocketWriteData {
   private static final Logger logger = Logger.getLogger(SocketWriteData.class.getName());
   private static final AtomicInteger counter = new AtomicInteger();
   private final ByteBuffer size;
   private final ByteBuffer content;
+  private final int contentSize;
+  private final ByteBuffer[] buffers;
   private final int number = counter.incrementAndGet();
+  private final boolean droppable;
   // how many times we called write before we finished writing ourselves
   private int writeCalls = 0;
 
-  SocketWriteData(final byte[] data, int count) {
-    content = ByteBuffer.allocate(count);
-    content.put(data, 0, count);
-    size = ByteBuffer.allocate(4);
-    if (count < 0 || count > SocketReadData.MAX_MESSAGE_SIZE) {
-      throw new IllegalStateException("Invalid message size:" + count);
+  SocketWriteData(final ByteBuffer sharedContent) {
+    this(sharedContent, false, false);
+  }
+
+  /**
+   * @param sharedContent The remaining bytes of this buffer are the data to write. The buffer itself is not modified,
+   *        so it may be shared by any number of packets.
+   * @param compressed true if the data was compressed with {@link FrameCompression#compress(ByteBuffer)}.
+   * @param droppable true if the packet may be dropped rather than written when the channel falls behind, see
+   *        {@link WriteQueuePolicy#DROP_CHAT}.
+   */
+  SocketWriteData(final ByteBuffer sharedContent, final boolean compressed, final boolean droppable) {
+    this.droppable = droppable;
+    content = sharedContent.duplicate();
+    contentSize = content.remaining();
+    if (contentSize > SocketReadData.MAX_MESSAGE_SIZE) {
+      throw new IllegalStateException("Invalid message size:" + contentSize);
     }
-    count = count ^ SocketReadData.MAGIC;
-    size.putInt(count);
+    size = ByteBuffer.allocate(4);
+    size.putInt(contentSize ^ (compressed ? SocketReadData.COMPRESSED_MAGIC : SocketReadData.MAGIC));
     size.flip();
-    content.flip();
+    buffers = new ByteBuffer[] {size, content};
   }
 
   int size() {
-    return size.capacity() + content.capacity();
+    return size.capacity() + contentSize;
+  }
+
+  boolean isDroppable() {
+    return droppable;
   }
 
   int getWriteCalls() {
@@ -53,31 +76,26 @@ class SocketWriteData {
    */
   boolean write(final SocketChannel channel) throws IOException {
     writeCalls++;
-    if (size.hasRemaining()) {
-      final int count = channel.write(size);
-      if (count == -1) {
-        throw new IOException("triplea: end of stream detected");
-      }
-      if (logger.isLoggable(Level.FINEST)) {
-        logger.finest("wrote size_buffer bytes:" + count);
-      }
-      // we could not write everything
-      if (size.hasRemaining()) {
-        return false;
-      }
-    }
-    final int count = channel.write(content);
+    // write the size and content with a single gathering write
+    final long count = channel.write(buffers);
     if (count == -1) {
       throw new IOException("triplea: end of stream detected");
     }
     if (logger.isLoggable(Level.FINEST)) {
-      logger.finest("wrote content bytes:" + count);
+      logger.finest("wrote bytes:" + count);
     }
     return !content.hasRemaining();
   }
 
+  /**
+   * @return The number of bytes of this packet that have not been written yet.
+   */
+  int remaining() {
+    return size.remaining() + content.remaining();
+  }
+
   @Override
   public String toString() {
-    return "<id:" + number + " size:" + content.capacity() + ">";
+    return "<id:" + number + " size:" + contentSize + ">";
   }
 }
@@ -0,0 +1,31 @@
+package games.strategy.net.nio;
+
+/**
+ * What happens to a message written to a socket when the data already queued to be written to that socket is over its
+ * limit, usually because the remote end is reading slower than we are writing.
+ *
+ * <p>
+ * A message is always queued if nothing else is queued for the socket, however large it is.
+ * </p>
+ */
+public enum WriteQueuePolicy {
+  /**
+   * Messages the messenger marked as droppable, such as chat messages, are dropped. Other messages are still queued,
+   * until the queue grows to {@link #DROP_CHAT_DISCONNECT_FACTOR} times the limit, at which point the socket is
+   * closed.
+   */
+  DROP_CHAT,
+
+  /**
+   * The socket is closed.
+   */
+  DISCONNECT,
+
+  /**
+   * The thread writing the message waits for the queue to drain below the limit. The socket is closed if it does not
+   * drain in time. Since this also holds up writing to other sockets, it suits sockets that must not miss anything.
+   */
+  BACKPRESSURE;
+
+  static final int DROP_CHAT_DISCONNECT_FACTOR = 4;
+}
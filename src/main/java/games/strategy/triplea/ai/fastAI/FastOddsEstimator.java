@@ -109,6 +109,11 @@ public class FastOddsEstimator implements IOddsCalculator {
 
   }
 
+  @Override
+  public void setTargetWinPercentError(final double targetWinPercentError) {
+
+  }
+
   @Override
   public void cancel() {
 
@@ -0,0 +1,146 @@
+package games.strategy.triplea.ai.proAI.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.TerritoryEffect;
+import games.strategy.engine.data.Unit;
+import games.strategy.triplea.TripleAUnit;
+import games.strategy.triplea.ai.proAI.data.ProBattleResult;
+import games.strategy.triplea.ai.proAI.logging.ProLogger;
+
+/**
+ * Bounded, least recently used cache of battle calculator results.
+ *
+ * <p>
+ * Results are keyed by a canonical signature of the battle: the territory and its territory effects plus the type,
+ * owner and damage state of every attacking, defending and bombarding unit, regardless of unit identity or order. So
+ * two calls simulating the same unit mix in the same territory share one result. The remaining units of a cached
+ * result are translated into the equivalent units passed by the caller on every hit.
+ * </p>
+ *
+ * <p>
+ * Anything else that affects a battle (game properties, techs, relationships) is assumed not to change while the
+ * cache is in use, so the cache must be cleared whenever the battle calculator is given new game data.
+ * </p>
+ */
+class ProBattleResultCache {
+  private static final int MAX_SIZE = 1000;
+
+  private final Map<String, CachedResult> cache = new LinkedHashMap<String, CachedResult>(16, 0.75f, true) {
+    private static final long serialVersionUID = -3146342738447431263L;
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<String, CachedResult> eldest) {
+      return size() > MAX_SIZE;
+    }
+  };
+  private int hits = 0;
+  private int misses = 0;
+
+  static String newKey(final Territory t, final Collection<TerritoryEffect> territoryEffects,
+      final List<Unit> attackingUnits, final List<Unit> defendingUnits, final Collection<Unit> bombardingUnits,
+      final boolean retreatWhenOnlyAirLeft) {
+    return t.getName()
+        + territoryEffects.stream().map(TerritoryEffect::getName).sorted().collect(Collectors.joining(",", "[", "]"))
+        + toSortedSignatures(attackingUnits) + toSortedSignatures(defendingUnits)
+        + toSortedSignatures(bombardingUnits) + retreatWhenOnlyAirLeft;
+  }
+
+  private static String toSortedSignatures(final Collection<Unit> units) {
+    return units.stream().map(ProBattleResultCache::toSignature).sorted().collect(Collectors.joining(",", "[", "]"));
+  }
+
+  private static String toSignature(final Unit unit) {
+    final TripleAUnit taUnit = (TripleAUnit) unit;
+    return unit.getType().getName() + ':' + unit.getOwner().getName() + ':' + unit.getHits() + ':'
+        + taUnit.getUnitDamage() + ':' + (taUnit.getTransportedBy() != null) + ':' + taUnit.getSubmerged();
+  }
+
+  /**
+   * Returns the cached result for the specified key, with its remaining units translated into the specified attacking
+   * and defending units, or {@code null} if there is no cached result.
+   */
+  ProBattleResult get(final String key, final List<Unit> attackingUnits, final List<Unit> defendingUnits) {
+    final CachedResult cached = cache.get(key);
+    if (cached == null) {
+      misses++;
+      return null;
+    }
+    hits++;
+    final ProBattleResult result = cached.result;
+    return new ProBattleResult(result.getWinPercentage(), result.getTuvSwing(), result.isHasLandUnitRemaining(),
+        translate(cached.attackerSignatures, attackingUnits), translate(cached.defenderSignatures, defendingUnits),
+        result.getBattleRounds());
+  }
+
+  /**
+   * Caches the specified result, which must have been calculated for the specified attacking and defending units.
+   */
+  void put(final String key, final ProBattleResult result, final List<Unit> attackingUnits,
+      final List<Unit> defendingUnits) {
+    cache.put(key, new CachedResult(result, attackingUnits, defendingUnits));
+  }
+
+  /**
+   * Clears the cache, logging its hit rate since it was last cleared.
+   */
+  void clear() {
+    if (hits + misses > 0) {
+      ProLogger.debug("Battle result cache: hits=" + hits + ", misses=" + misses + ", hitRate="
+          + (100 * hits / (hits + misses)) + "%, size=" + cache.size());
+    }
+    cache.clear();
+    hits = 0;
+    misses = 0;
+  }
+
+  private static List<Unit> translate(final List<String> signatures, final List<Unit> units) {
+    final Map<String, Deque<Unit>> unitsBySignature = new HashMap<>();
+    for (final Unit unit : units) {
+      unitsBySignature.computeIfAbsent(toSignature(unit), k -> new ArrayDeque<>()).add(unit);
+    }
+    final List<Unit> translated = new ArrayList<>(signatures.size());
+    for (final String signature : signatures) {
+      final Deque<Unit> matching = unitsBySignature.get(signature);
+      if (matching != null && !matching.isEmpty()) {
+        translated.add(matching.poll());
+      }
+    }
+    return translated;
+  }
+
+  private static final class CachedResult {
+    private final ProBattleResult result;
+    private final List<String> attackerSignatures;
+    private final List<String> defenderSignatures;
+
+    CachedResult(final ProBattleResult result, final List<Unit> attackingUnits, final List<Unit> defendingUnits) {
+      this.result = result;
+      attackerSignatures = toSignatures(result.getAverageAttackersRemaining(), attackingUnits);
+      defenderSignatures = toSignatures(result.getAverageDefendersRemaining(), defendingUnits);
+    }
+
+    /**
+     * Remaining units come from the battle calculator's copy of the game data and carry their state after the battle,
+     * so each is signed using the state of the same unit (by id) before the battle.
+     */
+    private static List<String> toSignatures(final List<Unit> remainingUnits, final List<Unit> units) {
+      final Map<Unit, Unit> unitsBeforeBattle = new HashMap<>();
+      for (final Unit unit : units) {
+        unitsBeforeBattle.put(unit, unit);
+      }
+      return remainingUnits.stream()
+          .map(unit -> toSignature(unitsBeforeBattle.getOrDefault(unit, unit)))
+          .collect(Collectors.toList());
+    }
+  }
+}
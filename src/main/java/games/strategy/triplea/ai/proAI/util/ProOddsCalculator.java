@@ -23,14 +23,20 @@ import games.strategy.util.CollectionUtils;
  */
 public class ProOddsCalculator {
 
+  // stop simulating once the win percentage is known to +/-5%, which lopsided battles reach after a few dozen runs
+  private static final double TARGET_WIN_PERCENT_ERROR = 0.05;
+
   private final IOddsCalculator calc;
+  private final ProBattleResultCache cache = new ProBattleResultCache();
   private boolean isCanceled = false;
 
   public ProOddsCalculator(final IOddsCalculator calc) {
     this.calc = calc;
+    calc.setTargetWinPercentError(TARGET_WIN_PERCENT_ERROR);
   }
 
   public void setData(final GameData data) {
+    cache.clear();
     calc.setGameData(data);
   }
 
@@ -113,11 +119,26 @@ public class ProOddsCalculator {
 
   public ProBattleResult callBattleCalculator(final Territory t, final List<Unit> attackingUnits,
       final List<Unit> defendingUnits, final Set<Unit> bombardingUnits, final boolean retreatWhenOnlyAirLeft) {
-    final GameData data = ProData.getData();
-
     if (isCanceled || attackingUnits.isEmpty() || defendingUnits.isEmpty()) {
       return new ProBattleResult();
     }
+    final String key = ProBattleResultCache.newKey(t, TerritoryEffectHelper.getEffects(t), attackingUnits,
+        defendingUnits, bombardingUnits, retreatWhenOnlyAirLeft);
+    final ProBattleResult cachedResult = cache.get(key, attackingUnits, defendingUnits);
+    if (cachedResult != null) {
+      return cachedResult;
+    }
+    final ProBattleResult result =
+        calculateBattleResult(t, attackingUnits, defendingUnits, bombardingUnits, retreatWhenOnlyAirLeft);
+    if (!isCanceled) {
+      cache.put(key, result, attackingUnits, defendingUnits);
+    }
+    return result;
+  }
+
+  private ProBattleResult calculateBattleResult(final Territory t, final List<Unit> attackingUnits,
+      final List<Unit> defendingUnits, final Set<Unit> bombardingUnits, final boolean retreatWhenOnlyAirLeft) {
+    final GameData data = ProData.getData();
 
     final int minArmySize = Math.min(attackingUnits.size(), defendingUnits.size());
     final int runCount = Math.max(16, 100 - minArmySize);
@@ -2349,8 +2349,10 @@ public class MustFightBattle extends DependentBattle implements BattleStepString
     killed.addAll(dependent);
     final Change killedChange = ChangeFactory.removeUnits(battleSite, killed);
     m_killed.addAll(killed);
-    final String transcriptText = MyFormatter.unitsToText(killed) + " lost in " + battleSite.getName();
-    bridge.getHistoryWriter().addChildToEvent(transcriptText, new ArrayList<>(killed));
+    if (!m_headless) {
+      final String transcriptText = MyFormatter.unitsToText(killed) + " lost in " + battleSite.getName();
+      bridge.getHistoryWriter().addChildToEvent(transcriptText, new ArrayList<>(killed));
+    }
     bridge.addChange(killedChange);
     final Collection<IBattle> dependentBattles = m_battleTracker.getBlocked(this);
     // If there are NO dependent battles, check for unloads in allied territories
@@ -2582,7 +2584,8 @@ public class MustFightBattle extends DependentBattle implements BattleStepString
   }
 
   private void showCasualties(final IDelegateBridge bridge) {
-    if (m_killed.isEmpty()) {
+    // the summary only feeds history and battle records, neither of which is kept in headless mode
+    if (m_headless || m_killed.isEmpty()) {
       return;
     }
     // a handy summary of all the units killed
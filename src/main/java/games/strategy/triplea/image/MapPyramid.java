@@ -0,0 +1,267 @@
+package games.strategy.triplea.image;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Nullable;
+import javax.imageio.ImageIO;
+
+import org.apache.commons.io.FileUtils;
+
+import games.strategy.debug.ClientLogger;
+import games.strategy.engine.ClientFileSystemHelper;
+import games.strategy.triplea.ResourceLoader;
+import games.strategy.triplea.ui.screen.TileManager;
+import games.strategy.triplea.util.Stopwatch;
+
+/**
+ * Downsampled versions of the base and relief tiles of a map, for drawing the map zoomed out without loading and
+ * scaling every full resolution tile in view.
+ *
+ * <p>
+ * Level 1 is the tiles of the map itself. Each tile of level 2, 4 and 8 is the size of a map tile and covers 2x2 tiles
+ * of the level below it, at half their resolution, so a level {@code n} tile covers {@code n x n} map tiles. The
+ * pyramid tiles are made the first time they are needed and saved as PNG files under the user folder, per map, so
+ * they are only made once for each version of a map; the tiles of the other versions of the map are deleted. They are
+ * also kept in the tile image cache.
+ * </p>
+ *
+ * <p>
+ * This class is thread safe, so that the tiles can be made outside the lock of the tile image factory.
+ * </p>
+ */
+final class MapPyramid {
+  static final int MAX_LEVEL = 8;
+  private static final int TILE_SIZE = TileManager.TILE_SIZE;
+  private static final String FOLDER_NAME = "mapPyramids";
+  private static final int LOCK_STRIPES = 64;
+  private static final Logger logger = Logger.getLogger(MapPyramid.class.getName());
+
+  private final ResourceLoader resourceLoader;
+  private final TileImageCache imageCache;
+  // where the pyramid tiles of this map are saved, or null if they cannot be saved
+  private final @Nullable File folder;
+  // one of these is locked while a tile is read or made, so that each tile is only made once; each level has its own
+  // locks and a tile only waits for the tiles of the levels below it, one at a time, so there are no deadlocks
+  private final Object[][] tileLocks = new Object[Integer.numberOfTrailingZeros(MAX_LEVEL)][LOCK_STRIPES];
+
+  MapPyramid(final ResourceLoader resourceLoader, final TileImageCache imageCache) {
+    this.resourceLoader = resourceLoader;
+    this.imageCache = imageCache;
+    for (final Object[] levelLocks : tileLocks) {
+      for (int i = 0; i < levelLocks.length; i++) {
+        levelLocks[i] = new Object();
+      }
+    }
+    folder = getFolder(resourceLoader);
+    if (folder != null) {
+      new Thread(() -> deleteOtherVersions(folder), "Deleting old map pyramid tiles").start();
+    }
+  }
+
+  /**
+   * @return The folder for the pyramid tiles of the map the base tiles are loaded from. Its name includes the name and
+   *         the modification time of the map, see {@link #getLastModified(File)}, so a new version of a map gets a new
+   *         pyramid.
+   */
+  private static @Nullable File getFolder(final ResourceLoader resourceLoader) {
+    final URL url = resourceLoader.getResource("baseTiles/0_0.png");
+    if (url == null) {
+      return null;
+    }
+    try {
+      final File map;
+      if ("jar".equals(url.getProtocol())) {
+        map = new File(((JarURLConnection) url.openConnection()).getJarFileURL().toURI());
+      } else if ("file".equals(url.getProtocol())) {
+        // the map folder is the parent of the baseTiles folder
+        map = new File(url.toURI()).getParentFile().getParentFile();
+      } else {
+        return null;
+      }
+      final String name = getMapPrefix(map) + Long.toHexString(getLastModified(map));
+      return new File(new File(ClientFileSystemHelper.getUserRootFolder(), FOLDER_NAME), name);
+    } catch (final IOException | URISyntaxException | ClassCastException e) {
+      ClientLogger.logQuietly("Not saving map pyramid tiles for " + url, e);
+      return null;
+    }
+  }
+
+  /**
+   * @return The modification time of a zipped map, or the newest modification time of the tiles of a map folder, since
+   *         editing a tile in place does not change the modification time of the map folder itself.
+   */
+  static long getLastModified(final File map) {
+    long lastModified = map.lastModified();
+    if (!map.isDirectory()) {
+      return lastModified;
+    }
+    for (final String tileFolder : new String[] {"baseTiles", "reliefTiles"}) {
+      final File folder = new File(map, tileFolder);
+      // the folder changes when a tile is added, removed or renamed
+      lastModified = Math.max(lastModified, folder.lastModified());
+      final File[] tiles = folder.listFiles();
+      if (tiles == null) {
+        continue;
+      }
+      for (final File tile : tiles) {
+        lastModified = Math.max(lastModified, tile.lastModified());
+      }
+    }
+    return lastModified;
+  }
+
+  private static String getMapPrefix(final File map) {
+    return map.getName().replaceAll("[^A-Za-z0-9_.-]", "_") + "-"
+        + Integer.toHexString(map.getAbsolutePath().hashCode()) + "-";
+  }
+
+  /**
+   * Deletes the pyramid tiles of the other versions of the map, which are never used again.
+   */
+  static void deleteOtherVersions(final File folder) {
+    final String name = folder.getName();
+    final String prefix = name.substring(0, name.lastIndexOf('-') + 1);
+    final File[] versions = folder.getParentFile().listFiles(
+        file -> file.isDirectory() && file.getName().startsWith(prefix) && !file.getName().equals(name)
+            && file.getName().indexOf('-', prefix.length()) < 0);
+    if (versions == null) {
+      return;
+    }
+    for (final File version : versions) {
+      if (!FileUtils.deleteQuietly(version)) {
+        logger.fine("Failed to delete old map pyramid tiles " + version);
+      }
+    }
+  }
+
+  /**
+   * @return The deepest level to draw the map from at the specified scale: the level whose resolution is the lowest
+   *         one that is still at least the resolution drawn at, or 1 if the map tiles themselves should be used.
+   */
+  static int getLevel(final double scale) {
+    int level = 1;
+    while (level < MAX_LEVEL && scale * level * 2 <= 1) {
+      level *= 2;
+    }
+    return level;
+  }
+
+  /**
+   * @param tileFolder The folder of the map tiles, baseTiles or reliefTiles.
+   * @param level 2, 4 or 8.
+   * @param x The column of the pyramid tile, which covers map tile columns {@code x * level} to
+   *        {@code x * level + level - 1}.
+   * @param y The row of the pyramid tile.
+   * @return The pyramid tile, or null if there are no map tiles where it is.
+   */
+  @Nullable
+  BufferedImage getTile(final String tileFolder, final int level, final int x, final int y,
+      final boolean transparent) {
+    final String name = tileFolder + "/" + level + "/" + x + "_" + y + ".png";
+    final String cacheKey = FOLDER_NAME + "/" + name;
+    final Object[] levelLocks = tileLocks[Integer.numberOfTrailingZeros(level) - 1];
+    synchronized (levelLocks[Math.floorMod(cacheKey.hashCode(), LOCK_STRIPES)]) {
+      final BufferedImage tile = (BufferedImage) imageCache.get(cacheKey);
+      return (tile != null) ? tile : loadTile(tileFolder, level, x, y, transparent, name, cacheKey);
+    }
+  }
+
+  private @Nullable BufferedImage loadTile(final String tileFolder, final int level, final int x, final int y,
+      final boolean transparent, final String name, final String cacheKey) {
+    BufferedImage tile = null;
+    final File file = (folder == null) ? null : new File(folder, name);
+    if (file != null && file.isFile()) {
+      try {
+        tile = ImageIO.read(file);
+      } catch (final IOException e) {
+        ClientLogger.logQuietly("Failed to read map pyramid tile " + file, e);
+      }
+    }
+    if (tile == null) {
+      tile = makeTile(tileFolder, level, x, y, transparent);
+      if (tile == null) {
+        return null;
+      }
+      if (file != null) {
+        save(tile, file);
+      }
+    }
+    imageCache.put(cacheKey, tile);
+    return tile;
+  }
+
+  /**
+   * Makes a pyramid tile from the 2x2 tiles of the level below it, or returns null if none of those exist.
+   */
+  private @Nullable BufferedImage makeTile(final String tileFolder, final int level, final int x, final int y,
+      final boolean transparent) {
+    final Stopwatch stopWatch =
+        new Stopwatch(logger, Level.FINE, "Making map pyramid tile " + tileFolder + " " + level + " " + x + "_" + y);
+    BufferedImage tile = null;
+    Graphics2D g = null;
+    for (int i = 0; i < 2; i++) {
+      for (int j = 0; j < 2; j++) {
+        final BufferedImage part = getTileBelow(tileFolder, level / 2, x * 2 + i, y * 2 + j, transparent);
+        if (part == null) {
+          continue;
+        }
+        if (tile == null) {
+          tile = new BufferedImage(TILE_SIZE, TILE_SIZE,
+              transparent ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+          g = tile.createGraphics();
+          g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+          g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        }
+        g.drawImage(part, i * TILE_SIZE / 2, j * TILE_SIZE / 2, part.getWidth() / 2, part.getHeight() / 2, null);
+      }
+    }
+    if (g != null) {
+      g.dispose();
+    }
+    stopWatch.done();
+    return tile;
+  }
+
+  private @Nullable BufferedImage getTileBelow(final String tileFolder, final int level, final int x, final int y,
+      final boolean transparent) {
+    if (level > 1) {
+      return getTile(tileFolder, level, x, y, transparent);
+    }
+    final URL url = resourceLoader.getResource(tileFolder + "/" + x + "_" + y + ".png");
+    if (url == null) {
+      return null;
+    }
+    try {
+      return ImageIO.read(url);
+    } catch (final IOException e) {
+      ClientLogger.logQuietly("Failed to read map tile " + url, e);
+      return null;
+    }
+  }
+
+  private static void save(final BufferedImage tile, final File file) {
+    // write to a temporary file first, so that a tile is never read half written
+    final File temp = new File(file.getPath() + ".tmp");
+    try {
+      if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) {
+        throw new IOException("Could not create " + file.getParentFile());
+      }
+      ImageIO.write(tile, "png", temp);
+      if (!temp.renameTo(file)) {
+        throw new IOException("Could not rename " + temp + " to " + file);
+      }
+    } catch (final IOException e) {
+      ClientLogger.logQuietly("Failed to save map pyramid tile " + file, e);
+      temp.delete();
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package games.strategy.triplea.image;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the map tile images, the ones loaded from the map as well as the ones drawn from them, within a fixed memory
+ * budget, evicting the least recently used images when it is exceeded.
+ *
+ * <p>
+ * Unlike soft references, which the garbage collector tends to clear in large batches under memory pressure, this
+ * evicts images one at a time as new ones come in, so the tiles in view stay cached as long as they fit in the
+ * budget. An image larger than the whole budget is not cached at all.
+ * </p>
+ *
+ * <p>
+ * Pinned images, such as the tiles on the screen, are never evicted, even when they exceed the budget on their own, so
+ * that drawing one tile in view never evicts another one.
+ * </p>
+ *
+ * <p>
+ * Keys are compared with {@code equals}, and should identify the tile, the scale and the layer the image is for.
+ * </p>
+ */
+public final class TileImageCache {
+  // the images are held strongly, so they must leave room in the heap for everything else
+  private static final int MAX_HEAP_FRACTION = 4;
+  private static final Logger logger = Logger.getLogger(TileImageCache.class.getName());
+
+  private final long maxBytes;
+  private final Map<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Set<Object> pinnedKeys = new HashSet<>();
+  private long bytes;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  public TileImageCache(final long maxBytes) {
+    checkArgument(maxBytes > 0, "maxBytes must be positive");
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * @return The image cached for the key, or null if it is not cached. Counts as a use of the image.
+   */
+  public synchronized Image get(final Object key) {
+    final Entry entry = entries.get(key);
+    if (entry == null) {
+      misses++;
+      return null;
+    }
+    hits++;
+    return entry.image;
+  }
+
+  /**
+   * Marks the image cached for the key, if any, as recently used, so that it is evicted last. Does not count as a
+   * lookup.
+   */
+  public synchronized void touch(final Object key) {
+    entries.get(key);
+  }
+
+  /**
+   * Keeps the image cached for the key, now or later, from being evicted until it is unpinned. It can still be
+   * replaced or removed.
+   */
+  public synchronized void pin(final Object key) {
+    pinnedKeys.add(checkNotNull(key));
+  }
+
+  public synchronized void unpin(final Object key) {
+    pinnedKeys.remove(key);
+  }
+
+  /**
+   * @return Whether an image is cached for the key. Does not count as a use of the image.
+   */
+  public synchronized boolean contains(final Object key) {
+    return entries.containsKey(key);
+  }
+
+  /**
+   * Caches the image for the key, replacing any image already cached for it, then evicts the least recently used
+   * images until the cache is within its budget again.
+   */
+  public synchronized void put(final Object key, final Image image) {
+    checkNotNull(key);
+    checkNotNull(image);
+    remove(key);
+    final long size = getSize(image);
+    if (size > maxBytes) {
+      return;
+    }
+    entries.put(key, new Entry(image, size));
+    bytes += size;
+    final Iterator<Map.Entry<Object, Entry>> leastRecentlyUsed = entries.entrySet().iterator();
+    while (bytes > maxBytes && leastRecentlyUsed.hasNext()) {
+      final Map.Entry<Object, Entry> eldest = leastRecentlyUsed.next();
+      if (!pinnedKeys.contains(eldest.getKey())) {
+        bytes -= eldest.getValue().size;
+        leastRecentlyUsed.remove();
+        evictions++;
+      }
+    }
+  }
+
+  public synchronized void remove(final Object key) {
+    final Entry entry = entries.remove(key);
+    if (entry != null) {
+      bytes -= entry.size;
+    }
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+    bytes = 0;
+  }
+
+  public synchronized long getBytes() {
+    return bytes;
+  }
+
+  /**
+   * @return The share of lookups that found their image, between 0 and 1, or 0 if there were no lookups yet.
+   */
+  public synchronized double getHitRate() {
+    final long lookups = hits + misses;
+    return (lookups == 0) ? 0 : (double) hits / lookups;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("%d images, %d of %d MB, hit rate %.1f%% (%d hits, %d misses), %d evictions",
+        entries.size(), bytes >> 20, maxBytes >> 20, getHitRate() * 100, hits, misses, evictions);
+  }
+
+  /**
+   * @return The requested budget, or a quarter of the maximum heap size if that is smaller.
+   */
+  static long getBudget(final long requestedBytes, final long maxMemory) {
+    return Math.max(1, Math.min(requestedBytes, maxMemory / MAX_HEAP_FRACTION));
+  }
+
+  /**
+   * @return A cache with the requested budget, limited to a share of the maximum heap size of this virtual machine.
+   */
+  public static TileImageCache newBoundedByHeap(final long requestedBytes) {
+    final long maxBytes = getBudget(requestedBytes, Runtime.getRuntime().maxMemory());
+    logger.info("Tile image cache budget: " + (maxBytes >> 20) + " MB (requested " + (requestedBytes >> 20)
+        + " MB, max heap " + (Runtime.getRuntime().maxMemory() >> 20) + " MB)");
+    return new TileImageCache(maxBytes);
+  }
+
+  static long getSize(final Image image) {
+    if (image instanceof BufferedImage) {
+      final DataBuffer buffer = ((BufferedImage) image).getRaster().getDataBuffer();
+      return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+    // assume 4 bytes per pixel
+    return 4L * Math.max(image.getWidth(null), 0) * Math.max(image.getHeight(null), 0);
+  }
+
+  private static final class Entry {
+    private final Image image;
+    private final long size;
+
+    Entry(final Image image, final long size) {
+      this.image = image;
+      this.size = size;
+    }
+  }
+}
@@ -2,19 +2,18 @@ package games.strategy.triplea.image;
 
 import java.awt.AlphaComposite;
 import java.awt.Composite;
+import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
 import java.awt.GraphicsEnvironment;
 import java.awt.Image;
+import java.awt.RenderingHints;
 import java.awt.Transparency;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.net.URL;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.prefs.BackingStoreException;
@@ -25,6 +24,8 @@ import javax.imageio.ImageIO;
 import games.strategy.debug.ClientLogger;
 import games.strategy.triplea.ResourceLoader;
 import games.strategy.triplea.image.BlendComposite.BlendingMode;
+import games.strategy.triplea.settings.ClientSetting;
+import games.strategy.triplea.ui.screen.TileManager;
 import games.strategy.triplea.util.Stopwatch;
 import games.strategy.ui.Util;
 
@@ -44,9 +45,14 @@ public final class TileImageFactory {
       GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
   private static final Logger logger = Logger.getLogger(TileImageFactory.class.getName());
   private double scale = 1.0;
-  // maps image name to ImageRef
-  private final Map<String, ImageRef> imageCache = new HashMap<>();
+  // shared by the tiles loaded here and the tiles drawn from them
+  private final TileImageCache imageCache =
+      TileImageCache.newBoundedByHeap(ClientSetting.TILE_IMAGE_CACHE_MEGABYTES.intValue() * 1024L * 1024L);
   private ResourceLoader resourceLoader;
+  // the downsampled tiles to draw from when zoomed out
+  private MapPyramid mapPyramid;
+  // the size of the map, which the tiles at its right and bottom edges are cut to
+  private Dimension mapDimensions;
 
   static {
     final Preferences prefs = Preferences.userNodeForPackage(TileImageFactory.class);
@@ -77,8 +83,8 @@ public final class TileImageFactory {
       throw new IllegalArgumentException("Wrong scale");
     }
     synchronized (mutex) {
+      // the cached images are keyed by scale, so the ones at the old scale are only evicted if the new ones need room
       scale = newScale;
-      imageCache.clear();
     }
   }
 
@@ -126,25 +132,29 @@ public final class TileImageFactory {
     }
   }
 
-  public void setMapDir(final ResourceLoader loader) {
+  public void setMapDir(final ResourceLoader loader, final Dimension mapDimensions) {
     resourceLoader = loader;
     synchronized (mutex) {
-      // we manually want to clear each ref to allow the soft reference to
-      // be removed
-      final Iterator<ImageRef> values = imageCache.values().iterator();
-      while (values.hasNext()) {
-        final ImageRef imageRef = values.next();
-        imageRef.clear();
-      }
       imageCache.clear();
+      mapPyramid = new MapPyramid(loader, imageCache);
+      this.mapDimensions = mapDimensions;
     }
   }
 
-  private Image isImageLoaded(final String fileName) {
-    if (imageCache.get(fileName) == null) {
-      return null;
-    }
-    return imageCache.get(fileName).getImage();
+  /**
+   * @return The cache of the tile images, which the tiles drawn from them are cached in too, so that all tile images
+   *         share one memory budget.
+   */
+  public TileImageCache getImageCache() {
+    return imageCache;
+  }
+
+  private String getCacheKey(final String fileName) {
+    return getCacheKey(fileName, scale);
+  }
+
+  private static String getCacheKey(final String fileName, final double scale) {
+    return fileName + "@" + scale;
   }
 
   public Image getBaseTile(final int x, final int y) {
@@ -152,7 +162,7 @@ public final class TileImageFactory {
     if (resourceLoader.getResource(fileName) == null) {
       return null;
     }
-    return getImage(fileName, false);
+    return getImage(fileName, "baseTiles", x, y, false);
   }
 
   public Image getUnscaledUncachedBaseTile(final int x, final int y) {
@@ -170,26 +180,76 @@ public final class TileImageFactory {
     return fileName;
   }
 
-  private Image getImage(final String fileName, final boolean transparent) {
+  private Image getImage(final String fileName, final String tileFolder, final int x, final int y,
+      final boolean transparent) {
+    final double imageScale;
+    final MapPyramid pyramid;
+    final Dimension dimensions;
+    final URL url;
     synchronized (mutex) {
-      final Image image = isImageLoaded(fileName);
+      final Image image = imageCache.get(getCacheKey(fileName));
       if (image != null) {
         return image;
       }
       // This is null if there is no image
-      final URL url = resourceLoader.getResource(fileName);
+      url = resourceLoader.getResource(fileName);
 
       if ((!showMapBlends || !showReliefImages || !transparent) && url == null) {
         return null;
       }
-      loadImage(url, fileName, transparent, true, true);
+      // blended tiles are made from both the base and the relief tile, so they are not in the pyramid
+      if (url == null || (showMapBlends && showReliefImages && transparent) || MapPyramid.getLevel(scale) == 1) {
+        return loadImage(url, fileName, transparent, true, true);
+      }
+      imageScale = scale;
+      pyramid = mapPyramid;
+      dimensions = mapDimensions;
+    }
+    // the pyramid tiles may take a while to make, so the other tiles are not kept waiting for them
+    final Image pyramidImage = loadPyramidImage(pyramid, dimensions, imageScale, fileName, tileFolder, x, y,
+        transparent);
+    if (pyramidImage != null) {
+      return pyramidImage;
     }
-    return getImage(fileName, transparent);
+    synchronized (mutex) {
+      return loadImage(url, fileName, transparent, true, true);
+    }
+  }
+
+  /**
+   * Draws the tile from its part of the map pyramid tile covering it, which has fewer pixels to scale than the tile
+   * itself and is shared with the tiles around it.
+   */
+  private Image loadPyramidImage(final MapPyramid pyramid, final Dimension dimensions, final double imageScale,
+      final String fileName, final String tileFolder, final int x, final int y, final boolean transparent) {
+    final int level = MapPyramid.getLevel(imageScale);
+    final BufferedImage pyramidTile = pyramid.getTile(tileFolder, level, x / level, y / level, transparent);
+    if (pyramidTile == null) {
+      return null;
+    }
+    // tiles at the right and bottom edges of the map are cut to the size of the map
+    final int tileWidth = Math.min(TileManager.TILE_SIZE, dimensions.width - x * TileManager.TILE_SIZE);
+    final int tileHeight = Math.min(TileManager.TILE_SIZE, dimensions.height - y * TileManager.TILE_SIZE);
+    if (tileWidth <= 0 || tileHeight <= 0) {
+      return null;
+    }
+    final int partSize = TileManager.TILE_SIZE / level;
+    final BufferedImage part = pyramidTile.getSubimage(x % level * partSize, y % level * partSize,
+        Math.max(1, tileWidth / level), Math.max(1, tileHeight / level));
+    final int width = (int) Math.ceil(tileWidth * imageScale);
+    final int height = (int) Math.ceil(tileHeight * imageScale);
+    final Image image = Util.createImage(width, height, transparent);
+    final Graphics2D g = (Graphics2D) image.getGraphics();
+    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+    g.drawImage(part, 0, 0, width, height, null);
+    g.dispose();
+    imageCache.put(getCacheKey(fileName, imageScale), image);
+    return image;
   }
 
   public Image getReliefTile(final int a, final int b) {
     final String fileName = getReliefTileImageName(a, b);
-    return getImage(fileName, true);
+    return getImage(fileName, "reliefTiles", a, b, true);
   }
 
   public Image getUnscaledUncachedReliefTile(final int x, final int y) {
@@ -285,15 +345,13 @@ public final class TileImageFactory {
       final BlendComposite blendComposite = BlendComposite.getInstance(blendMode).derive(alpha);
       g2.setComposite(blendComposite);
       g2.drawImage(baseFile, 0, 0, null);
-      final ImageRef ref = new ImageRef(blendedImage);
       if (cache) {
-        imageCache.put(fileName, ref);
+        imageCache.put(getCacheKey(fileName), blendedImage);
       }
       return blendedImage;
     } else {
-      final ImageRef ref = new ImageRef(baseFile);
       if (cache) {
-        imageCache.put(fileName, ref);
+        imageCache.put(getCacheKey(fileName), baseFile);
       }
       return baseFile;
     }
@@ -328,9 +386,8 @@ public final class TileImageFactory {
       ClientLogger.logError("Could not load image, url: " + imageLocation.toString(), e);
       image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
     }
-    final ImageRef ref = new ImageRef(image);
     if (cache) {
-      imageCache.put(fileName, ref);
+      imageCache.put(getCacheKey(fileName), image);
     }
     return image;
   }
@@ -98,8 +98,9 @@ public class UnitImageFactory {
     return (int) (m_scaleFactor * unitCounterOffsetHeight);
   }
 
-  // Clear the image and icon cache
-  private void clearImageCache() {
+  // Clear the image and icon cache. The caches are guarded by this factory, since the map tiles are drawn by several
+  // threads at once.
+  private synchronized void clearImageCache() {
     m_images.clear();
     m_icons.clear();
   }
@@ -107,7 +108,7 @@ public class UnitImageFactory {
   /**
    * Return the appropriate unit image.
    */
-  public Optional<Image> getImage(final UnitType type, final PlayerID player, final boolean damaged,
+  public synchronized Optional<Image> getImage(final UnitType type, final PlayerID player, final boolean damaged,
       final boolean disabled) {
     final String baseName = getBaseImageName(type, player, damaged, disabled);
     final String fullName = baseName + player.getName();
@@ -181,7 +182,7 @@ public class UnitImageFactory {
   /**
    * Return a icon image for a unit.
    */
-  public Optional<ImageIcon> getIcon(final UnitType type, final PlayerID player, final boolean damaged,
+  public synchronized Optional<ImageIcon> getIcon(final UnitType type, final PlayerID player, final boolean damaged,
       final boolean disabled) {
     final String baseName = getBaseImageName(type, player, damaged, disabled);
     final String fullName = baseName + player.getName();
@@ -15,6 +15,8 @@ import games.strategy.util.Tuple;
 
 public class AggregateResults implements Serializable {
   private static final long serialVersionUID = -556699626060414738L;
+  // z-score of a two-sided 95% confidence interval
+  private static final double CONFIDENCE_Z = 1.96;
   // can be empty!
   private final List<BattleResults> m_results;
   private long m_time;
@@ -169,6 +171,35 @@ public class AggregateResults implements Serializable {
     return count / m_results.size();
   }
 
+  /**
+   * Returns the half-width of the 95% confidence interval of {@link #getAttackerWinPercent()}, e.g. 0.01 means the
+   * true attacker win percent is within +/-1% of the reported one.
+   */
+  public double getAttackerWinPercentError() {
+    int wins = 0;
+    for (final BattleResults result : m_results) {
+      if (result.attackerWon()) {
+        wins++;
+      }
+    }
+    return getWinPercentError(wins, m_results.size());
+  }
+
+  /**
+   * Returns the half-width of the 95% Wilson score interval for the specified number of wins out of the specified
+   * number of battles. Unlike the normal approximation, this does not collapse to zero for battles that are always (or
+   * never) won, so a lopsided battle still needs a few dozen runs to reach a small error.
+   */
+  static double getWinPercentError(final int wins, final int count) {
+    if (count <= 0) {
+      return 1.0;
+    }
+    final double winPercent = (double) wins / count;
+    final double z2 = CONFIDENCE_Z * CONFIDENCE_Z;
+    return CONFIDENCE_Z / (1 + z2 / count)
+        * Math.sqrt(winPercent * (1 - winPercent) / count + z2 / (4.0 * count * count));
+  }
+
   double getDefenderWinPercent() {
     if (m_results.isEmpty()) { // can be empty!
       return 0.0;
@@ -1,5 +1,6 @@
 package games.strategy.triplea.oddsCalculator.ta;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -12,7 +13,10 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -21,19 +25,36 @@ import games.strategy.engine.data.PlayerID;
 import games.strategy.engine.data.Territory;
 import games.strategy.engine.data.TerritoryEffect;
 import games.strategy.engine.data.Unit;
-import games.strategy.engine.framework.GameDataUtils;
+import games.strategy.engine.framework.GameDataSnapshot;
 import games.strategy.util.CountUpAndDownLatch;
 
 /**
- * Concurrent wrapper class for the OddsCalculator. It spawns multiple worker threads and splits up the run count
- * across these workers. This is mainly to be used by AIs since they call the OddsCalculator a lot.
+ * Concurrent wrapper class for the OddsCalculator. It keeps one game data copy per worker and has the workers pull
+ * small batches of the run count from a shared counter, so that faster workers pick up the runs of slower ones. This
+ * is mainly to be used by AIs since they call the OddsCalculator a lot.
+ *
+ * <p>
+ * Battles are run on a single work-stealing pool shared by every calculator in the JVM, so running several AIs (or an
+ * AI and the battle calculator panel) at once does not oversubscribe the available cores.
+ * </p>
  */
 public class ConcurrentOddsCalculator implements IOddsCalculator {
   private static final Logger logger = Logger.getLogger(ConcurrentOddsCalculator.class.getName());
   private static final int MAX_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+  // how many batches each worker's share of the run count is split into
+  private static final int BATCHES_PER_WORKER = 4;
+  private static final ForkJoinPool workerPool = new ForkJoinPool(MAX_THREADS, pool -> {
+    final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+    thread.setName("ConcurrentOddsCalculator Worker-" + thread.getPoolIndex());
+    return thread;
+  }, null, false);
 
   private int currentThreads = MAX_THREADS;
+  private volatile double targetWinPercentError = 0;
+  // only used to set up workers, all battles are run on the shared worker pool
   private final ExecutorService executor;
+  // the runs not yet taken by any worker for the calculation in progress, if any
+  private volatile AtomicInteger runsLeft = null;
   private final List<OddsCalculator> workers = new CopyOnWriteArrayList<>();
   // do not let calc be set up til data is set
   private volatile boolean isDataSet = false;
@@ -56,9 +77,8 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
   private final List<OddsCalculatorListener> listeners = new ArrayList<>();
 
   public ConcurrentOddsCalculator(final String threadNamePrefix) {
-    executor = Executors.newFixedThreadPool(MAX_THREADS,
-        new DaemonThreadFactory(true, threadNamePrefix + " ConcurrentOddsCalculator Worker"));
-    logger.fine("Initialized executor thread pool with size: " + MAX_THREADS);
+    executor = Executors.newSingleThreadExecutor(
+        new DaemonThreadFactory(true, threadNamePrefix + " ConcurrentOddsCalculator Setup"));
   }
 
   @Override
@@ -131,54 +151,40 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
       // see how long 1 copy takes (some games can get REALLY big)
       final long startTime = System.currentTimeMillis();
       final long startMemory = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-      final GameData newData;
-      try {
-        // make first copy, then release lock on it so game can continue (ie: we don't want to lock on it while we copy
-        // it 16 times, when once is enough) don't let the data change while we make the first copy
-        data.acquireReadLock();
-        newData = GameDataUtils.cloneGameData(data, false);
-      } finally {
-        data.releaseReadLock();
+      // take a single snapshot (which holds the read lock on the game data only while it is being written), then fork
+      // every worker's copy from it (ie: we don't want to lock on or re-serialize the game data for each worker)
+      final GameDataSnapshot snapshot = takeSnapshot(data);
+      if (snapshot != null) {
+        addWorkerFromSnapshot(snapshot);
       }
       currentThreads = getThreadsToUse((System.currentTimeMillis() - startTime), startMemory);
-      try {
-        // make sure all workers are using the same data
-        newData.acquireReadLock();
-        int i = 0;
-        // we are already in 1 executor thread, so we have MAX_THREADS-1 threads left to use
-        if (currentThreads <= 2 || MAX_THREADS <= 2) {
-          // if 2 or fewer threads, do not multi-thread the copying (we have already copied it once above, so at most
-          // only 1 more copy to
-          // make)
-          while (cancelCurrentOperation >= 0 && i < currentThreads) {
-            // the last one will use our already copied data from above, without copying it again
-            workers.add(new OddsCalculator(newData, (currentThreads == ++i)));
-          }
-        } else { // multi-thread our copying, cus why the heck not (it increases the speed of copying by about double)
-          final CountDownLatch workerLatch = new CountDownLatch(currentThreads - 1);
-          while (i < (currentThreads - 1)) {
-            ++i;
-            executor.submit(() -> {
-              if (cancelCurrentOperation >= 0) {
-                workers.add(new OddsCalculator(newData, false));
-              }
-              workerLatch.countDown();
-            });
-          }
-          // the last one will use our already copied data from above, without copying it again
-          workers.add(new OddsCalculator(newData, true));
-          try {
-            workerLatch.await();
-          } catch (final InterruptedException e) {
-            Thread.currentThread().interrupt();
-          }
+      if (workers.isEmpty()) {
+        logger.fine("No game data to fork workers from");
+      } else if (currentThreads <= 2 || MAX_THREADS <= 2) {
+        // if 2 or fewer threads, do not multi-thread the forking (we have already forked once above, so at most
+        // only 1 more copy to make)
+        for (int i = 1; cancelCurrentOperation >= 0 && i < currentThreads; i++) {
+          addWorkerFromSnapshot(snapshot);
+        }
+      } else { // multi-thread our forking, since reading a snapshot does not touch the source game data
+        final CountDownLatch workerLatch = new CountDownLatch(currentThreads - 1);
+        for (int i = 1; i < currentThreads; i++) {
+          workerPool.execute(() -> {
+            if (cancelCurrentOperation >= 0) {
+              addWorkerFromSnapshot(snapshot);
+            }
+            workerLatch.countDown();
+          });
+        }
+        try {
+          workerLatch.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
         }
-      } finally {
-        newData.releaseReadLock();
       }
     }
-    if (cancelCurrentOperation < 0 || data == null) {
-      // we could have cancelled while setting data, so clear the workers again if so
+    if (cancelCurrentOperation < 0 || data == null || workers.isEmpty()) {
+      // we could have cancelled (or failed to fork any copies) while setting data, so clear the workers again if so
       workers.clear();
       isDataSet = false;
     } else {
@@ -193,6 +199,23 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
     logger.fine("Initialized worker thread pool with size: " + workers.size());
   }
 
+  private static GameDataSnapshot takeSnapshot(final GameData data) {
+    try {
+      return GameDataSnapshot.of(data, false);
+    } catch (final IOException e) {
+      logger.log(Level.SEVERE, "Failed to snapshot game data", e);
+      return null;
+    }
+  }
+
+  private void addWorkerFromSnapshot(final GameDataSnapshot snapshot) {
+    try {
+      workers.add(new OddsCalculator(snapshot.newGameData(), true));
+    } catch (final IOException e) {
+      logger.log(Level.SEVERE, "Failed to fork game data for worker", e);
+    }
+  }
+
   @Override
   public void shutdown() {
     isShutDown = true;
@@ -241,31 +264,34 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
   }
 
   /**
-   * Concurrently calculates odds using the OddsCalculatorWorker. It uses Executor to process the results. Then waits
-   * for all the future
-   * results and combines them together.
+   * Concurrently calculates odds using the OddsCalculatorWorker. Every worker is submitted to the shared worker pool,
+   * where it takes batches of runs until none are left. Then waits for all the future results and combines them
+   * together.
    */
   @Override
   public AggregateResults calculate() throws IllegalStateException {
     synchronized (mutexCalcIsRunning) {
       awaitLatch();
       final long start = System.currentTimeMillis();
-      // Create worker thread pool and start all workers
-      int totalRunCount = 0;
+      final int totalRunCount = getRunCount();
+      final int batchSize = Math.max(1, totalRunCount / Math.max(1, workers.size() * BATCHES_PER_WORKER));
+      final AtomicInteger runsLeft = new AtomicInteger(totalRunCount);
+      this.runsLeft = runsLeft;
+      final Progress progress = new Progress(targetWinPercentError);
       final List<Future<AggregateResults>> list = new ArrayList<>();
       for (final OddsCalculator worker : workers) {
         if (!getIsReady()) {
           // we could have attempted to set a new game data, while the old one was still being set, causing it to abort
           // with null data
+          runsLeft.set(0);
           return new AggregateResults(0);
         }
         if (!worker.getIsReady()) {
+          runsLeft.set(0);
           throw new IllegalStateException("Called calculate before setting calculate data!");
         }
-        if (worker.getRunCount() > 0) {
-          totalRunCount += worker.getRunCount();
-          final Future<AggregateResults> workerResult = executor.submit(worker);
-          list.add(workerResult);
+        if (totalRunCount > 0) {
+          list.add(workerPool.submit(() -> runBatches(worker, runsLeft, batchSize, progress)));
         }
       }
       // Wait for all worker futures to complete and combine results
@@ -306,10 +332,67 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
         }
       }
       results.setTime(System.currentTimeMillis() - start);
+      this.runsLeft = null;
       return results;
     }
   }
 
+  private static AggregateResults runBatches(final OddsCalculator worker, final AtomicInteger runsLeft,
+      final int batchSize, final Progress progress) {
+    final AggregateResults results = new AggregateResults(batchSize);
+    for (int batch = takeBatch(runsLeft, batchSize); batch > 0; batch = takeBatch(runsLeft, batchSize)) {
+      final AggregateResults batchResults = worker.calculate(batch);
+      results.addResults(batchResults.getResults());
+      if (progress.add(batchResults)) {
+        // the other workers finish their current batch, then find nothing left to take
+        runsLeft.set(0);
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Tracks the results of all batches of one calculation, to tell when the target win percent error is reached.
+   */
+  private static final class Progress {
+    private final double targetWinPercentError;
+    private int runs = 0;
+    private int attackerWins = 0;
+
+    Progress(final double targetWinPercentError) {
+      this.targetWinPercentError = targetWinPercentError;
+    }
+
+    /**
+     * @return whether the target win percent error has been reached, including the specified batch results.
+     */
+    synchronized boolean add(final AggregateResults batchResults) {
+      if (targetWinPercentError <= 0) {
+        return false;
+      }
+      for (final BattleResults result : batchResults.getResults()) {
+        runs++;
+        if (result.attackerWon()) {
+          attackerWins++;
+        }
+      }
+      return OddsCalculator.isTargetWinPercentErrorReached(targetWinPercentError, attackerWins, runs);
+    }
+  }
+
+  private static int takeBatch(final AtomicInteger runsLeft, final int batchSize) {
+    while (true) {
+      final int left = runsLeft.get();
+      if (left <= 0) {
+        return 0;
+      }
+      final int batch = Math.min(left, batchSize);
+      if (runsLeft.compareAndSet(left, left - batch)) {
+        return batch;
+      }
+    }
+  }
+
   @Override
   public AggregateResults setCalculateDataAndCalculate(final PlayerID attacker, final PlayerID defender,
       final Territory location, final Collection<Unit> attacking, final Collection<Unit> defending,
@@ -405,9 +488,19 @@ public class ConcurrentOddsCalculator implements IOddsCalculator {
     }
   }
 
+  @Override
+  public void setTargetWinPercentError(final double targetWinPercentError) {
+    this.targetWinPercentError = targetWinPercentError;
+  }
+
   // not on purpose, we need to be able to cancel at any time
   @Override
   public void cancel() {
+    // stop workers from taking any more batches
+    final AtomicInteger runsLeft = this.runsLeft;
+    if (runsLeft != null) {
+      runsLeft.set(0);
+    }
     for (final OddsCalculator worker : workers) {
       worker.cancel();
     }
@@ -42,6 +42,13 @@ public interface IOddsCalculator {
 
   void setDefenderOrderOfLosses(final String defenderOrderOfLosses);
 
+  /**
+   * Sets the attacker win percent error (see {@link AggregateResults#getAttackerWinPercentError()}) at which a
+   * calculation may stop before reaching its run count, e.g. 0.01 to stop once the win percent is known to +/-1%.
+   * Zero or less always runs the full run count.
+   */
+  void setTargetWinPercentError(final double targetWinPercentError);
+
   void cancel();
 
   void shutdown();
@@ -25,9 +25,7 @@ import games.strategy.engine.data.changefactory.ChangeFactory;
 import games.strategy.engine.delegate.IDelegateBridge;
 import games.strategy.engine.display.IDisplay;
 import games.strategy.engine.framework.GameDataUtils;
-import games.strategy.engine.framework.IGameModifiedChannel;
 import games.strategy.engine.gamePlayer.IRemotePlayer;
-import games.strategy.engine.history.DelegateHistoryWriter;
 import games.strategy.engine.history.IDelegateHistoryWriter;
 import games.strategy.engine.random.IRandomStats.DiceType;
 import games.strategy.engine.random.PlainRandomSource;
@@ -59,6 +57,8 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
   public static final String OOL_SEPARATOR_REGEX = ";";
   public static final String OOL_AMOUNT_DESCRIPTOR = "^";
   public static final String OOL_AMOUNT_DESCRIPTOR_REGEX = "\\^";
+  // never stop a calculation early based on fewer runs than this, no matter how lopsided the battle looks
+  static final int MIN_RUNS_FOR_TARGET_ERROR = 16;
 
   private GameData gameData = null;
   private PlayerID attacker = null;
@@ -75,6 +75,7 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
   private boolean retreatWhenOnlyAirLeft = false;
   private String attackerOrderOfLosses = null;
   private String defenderOrderOfLosses = null;
+  private double targetWinPercentError = 0;
   private int runCount = 0;
   private volatile boolean cancelled = false;
   private volatile boolean isDataSet = false;
@@ -160,10 +161,17 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
     if (!getIsReady()) {
       throw new IllegalStateException("Called calculate before setting calculate data!");
     }
-    return calculate(runCount);
+    return calculate(runCount, targetWinPercentError);
   }
 
-  private AggregateResults calculate(final int count) {
+  /**
+   * Runs the specified number of battles, regardless of the run count given when setting the calculate data.
+   */
+  AggregateResults calculate(final int count) {
+    return calculate(count, 0);
+  }
+
+  private AggregateResults calculate(final int count, final double targetWinPercentError) {
     isRunning = true;
     final long start = System.currentTimeMillis();
     final AggregateResults aggregateResults = new AggregateResults(count);
@@ -178,6 +186,7 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
         OddsCalculator.getUnitListByOrderOfLoss(this.attackerOrderOfLosses, attackingUnits, gameData);
     final List<Unit> defenderOrderOfLosses =
         OddsCalculator.getUnitListByOrderOfLoss(this.defenderOrderOfLosses, defendingUnits, gameData);
+    int attackerWins = 0;
     for (int i = 0; i < count && !cancelled; i++) {
       final CompositeChange allChanges = new CompositeChange();
       final DummyDelegateBridge bridge1 =
@@ -191,11 +200,18 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
           (amphibious ? attackingUnits : new ArrayList<>()), defender, territoryEffects);
       bridge1.setBattle(battle);
       battle.fight(bridge);
-      aggregateResults.addResult(new BattleResults(battle, gameData));
+      final BattleResults results = new BattleResults(battle, gameData);
+      aggregateResults.addResult(results);
       // restore the game to its original state
       gameData.performChange(allChanges.invert());
       battleTracker.clear();
       battleTracker.clearBattleRecords();
+      if (results.attackerWon()) {
+        attackerWins++;
+      }
+      if (isTargetWinPercentErrorReached(targetWinPercentError, attackerWins, i + 1)) {
+        break;
+      }
     }
     aggregateResults.setTime(System.currentTimeMillis() - start);
     isRunning = false;
@@ -253,6 +269,17 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
     this.defenderOrderOfLosses = defenderOrderOfLosses;
   }
 
+  @Override
+  public void setTargetWinPercentError(final double targetWinPercentError) {
+    this.targetWinPercentError = targetWinPercentError;
+  }
+
+  static boolean isTargetWinPercentErrorReached(final double targetWinPercentError, final int attackerWins,
+      final int runs) {
+    return targetWinPercentError > 0 && runs >= MIN_RUNS_FOR_TARGET_ERROR
+        && AggregateResults.getWinPercentError(attackerWins, runs) <= targetWinPercentError;
+  }
+
   @Override
   public void cancel() {
     cancelled = true;
@@ -379,7 +406,6 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
     private final DummyPlayer attackingPlayer;
     private final DummyPlayer defendingPlayer;
     private final PlayerID attacker;
-    private final DelegateHistoryWriter writer = new DelegateHistoryWriter(new DummyGameModifiedChannel());
     private final CompositeChange allChanges;
     private final GameData gameData;
     private MustFightBattle battle = null;
@@ -448,7 +474,7 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
 
     @Override
     public IDelegateHistoryWriter getHistoryWriter() {
-      return writer;
+      return DummyHistoryWriter.INSTANCE;
     }
 
     @Override
@@ -485,26 +511,24 @@ class OddsCalculator implements IOddsCalculator, Callable<AggregateResults> {
     }
   }
 
-  private static class DummyGameModifiedChannel implements IGameModifiedChannel {
-    @Override
-    public void addChildToEvent(final String text, final Object renderingData) {}
-
-    @Override
-    public void gameDataChanged(final Change change) {}
+  /**
+   * A history writer that discards everything written to it. Simulated battles never keep history, so there is no
+   * reason to route their history events through a game modified channel.
+   */
+  private static final class DummyHistoryWriter implements IDelegateHistoryWriter {
+    static final IDelegateHistoryWriter INSTANCE = new DummyHistoryWriter();
 
     @Override
-    public void shutDown() {}
+    public void startEvent(final String eventName) {}
 
     @Override
-    public void startHistoryEvent(final String event) {}
-
+    public void startEvent(final String eventName, final Object renderingData) {}
 
     @Override
-    public void startHistoryEvent(final String event, final Object renderingData) {}
+    public void addChildToEvent(final String child) {}
 
     @Override
-    public void stepChanged(final String stepName, final String delegateName, final PlayerID player, final int round,
-        final String displayName, final boolean loadedFromSavedGame) {}
+    public void addChildToEvent(final String child, final Object renderingData) {}
   }
 
   private static class DummyPlayer extends AbstractAI {
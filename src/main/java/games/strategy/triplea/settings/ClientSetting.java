@@ -96,6 +96,8 @@ public enum ClientSetting implements GameSetting {
 
   TEST_LOBBY_PORT,
 
+  TILE_IMAGE_CACHE_MEGABYTES(256),
+
   TRIPLEA_FIRST_TIME_THIS_VERSION_PROPERTY(true),
 
   TRIPLEA_LAST_CHECK_FOR_ENGINE_UPDATE,
@@ -134,6 +134,14 @@ enum ClientSettingUiBinding implements GameSettingUiBinding {
       SelectionComponentFactory.intValueRange(ClientSetting.TEST_LOBBY_PORT, 1, 99999),
       "Specifies the port for connecting to a test lobby."),
 
+  TILE_IMAGE_CACHE_MEGABYTES_BINDING(
+      "Map Tile Cache Size",
+      SettingType.GAME,
+      SelectionComponentFactory.intValueRange(ClientSetting.TILE_IMAGE_CACHE_MEGABYTES, 32, 4096),
+      "How much memory (in megabytes) the map tile images may use. A larger cache redraws less of the map when\n"
+          + "scrolling back to where it has been. It is limited to a quarter of the maximum memory of TripleA.\n"
+          + "Takes effect the next time a game is started."),
+
   TRIPLEA_FIRST_TIME_THIS_VERSION_PROPERTY_BINDING(
       "Show First Time Prompts",
       SettingType.GAME,
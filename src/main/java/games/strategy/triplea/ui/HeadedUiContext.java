@@ -87,7 +87,7 @@ public class HeadedUiContext extends AbstractUiContext {
     resourceImageFactory.setResourceLoader(resourceLoader, 1);
     flagIconImageFactory.setResourceLoader(resourceLoader);
     puImageFactory.setResourceLoader(resourceLoader);
-    tileImageFactory.setMapDir(resourceLoader);
+    tileImageFactory.setMapDir(resourceLoader, mapData.getMapDimensions());
     tileImageFactory.setScale(scale);
     // load map data
     mapImage.loadMaps(resourceLoader);
@@ -21,20 +21,22 @@ import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 
 import games.strategy.engine.data.Change;
 import games.strategy.engine.data.ChangeAttachmentChange;
@@ -70,6 +72,8 @@ import games.strategy.util.Tuple;
 public class MapPanel extends ImageScrollerLargeView {
   private static final long serialVersionUID = -3571551538356292556L;
   private static final Logger logger = Logger.getLogger(MapPanel.class.getName());
+  // tiles rendered in the background within one frame are shown by a single repaint
+  private static final int FRAME_MILLIS = 16;
   private final List<MapSelectionListener> mapSelectionListeners = new ArrayList<>();
   private final List<UnitSelectionListener> unitSelectionListeners = new ArrayList<>();
   private final List<MouseOverUnitListener> mouseOverUnitsListeners = new ArrayList<>();
@@ -82,9 +86,9 @@ public class MapPanel extends ImageScrollerLargeView {
   // units the mouse is currently over
   private Tuple<Territory, List<Unit>> currentUnits;
   private final SmallMapImageManager smallMapImageManager;
-  // keep a reference to the images from the last paint to
-  // prevent them from being gcd
-  private final List<Tile> images = new ArrayList<>();
+  // the tiles on the screen in the last paint, whose images are pinned in the tile image cache so that drawing one
+  // of them never evicts another
+  private final Set<Tile> images = new HashSet<>();
   private RouteDescription routeDescription;
   private final TileManager tileManager;
   private final BackgroundDrawer backgroundDrawer;
@@ -92,6 +96,8 @@ public class MapPanel extends ImageScrollerLargeView {
   private String movementLeftForCurrentUnits = "";
   private final UiContext uiContext;
   private final LinkedBlockingQueue<Tile> undrawnTiles = new LinkedBlockingQueue<>();
+  private final AtomicBoolean repaintScheduled = new AtomicBoolean();
+  private final Timer repaintTimer;
   private Map<Territory, List<Unit>> highlightedUnits;
   private Cursor hiddenCursor = null;
   private final MapRouteDrawer routeDrawer;
@@ -105,11 +111,20 @@ public class MapPanel extends ImageScrollerLargeView {
     routeDrawer = new MapRouteDrawer(this, uiContext.getMapData());
     setCursor(this.uiContext.getCursor());
     this.scale = this.uiContext.getScale();
+    this.repaintTimer = new Timer(FRAME_MILLIS, e -> {
+      repaintScheduled.set(false);
+      repaint();
+    });
+    this.repaintTimer.setRepeats(false);
     this.backgroundDrawer = new BackgroundDrawer(this);
     this.tileManager = new TileManager(this.uiContext);
-    final Thread t = new Thread(this.backgroundDrawer, "Map panel background drawer");
-    t.setDaemon(true);
-    t.start();
+    // one drawer per core, all taking tiles from the same queue
+    final int drawerCount = Runtime.getRuntime().availableProcessors();
+    for (int i = 0; i < drawerCount; i++) {
+      final Thread t = new Thread(this.backgroundDrawer, "Map panel background drawer " + i);
+      t.setDaemon(true);
+      t.start();
+    }
     setDoubleBuffered(false);
     this.smallView = smallView;
     this.smallMapImageManager =
@@ -227,6 +242,16 @@ public class MapPanel extends ImageScrollerLargeView {
     return undrawnTiles;
   }
 
+  /**
+   * Schedules a repaint for the end of the current frame, unless one is already scheduled, so that the tiles drawn in
+   * the background in the meantime are shown together. Can be called from any thread.
+   */
+  void repaintWithinFrame() {
+    if (repaintScheduled.compareAndSet(false, true)) {
+      repaintTimer.start();
+    }
+  }
+
   private void recreateTiles(final GameData data, final UiContext uiContext) {
     this.tileManager.createTiles(new Rectangle(this.uiContext.getMapData().getMapDimensions()));
     this.tileManager.resetTiles(data, uiContext.getMapData());
@@ -428,10 +453,12 @@ public class MapPanel extends ImageScrollerLargeView {
     if (gameData != null) {
       gameData.removeTerritoryListener(territoryListener);
       gameData.removeDataChangeListener(techUpdateListener);
+      gameData.removeDataChangeListener(renderCountLogger);
     }
     gameData = data;
     gameData.addTerritoryListener(territoryListener);
     gameData.addDataChangeListener(techUpdateListener);
+    gameData.addDataChangeListener(renderCountLogger);
     clearUndrawn();
     tileManager.resetTiles(gameData, uiContext.getMapData());
   }
@@ -439,8 +466,12 @@ public class MapPanel extends ImageScrollerLargeView {
   private final TerritoryListener territoryListener = new TerritoryListener() {
     @Override
     public void unitsChanged(final Territory territory) {
-      updateCountries(Collections.singleton(territory));
-      SwingUtilities.invokeLater(() -> repaint());
+      tileManager.updateTerritoryUnits(territory, gameData, uiContext.getMapData());
+      smallMapImageManager.update(uiContext.getMapData());
+      SwingUtilities.invokeLater(() -> {
+        smallView.repaint();
+        repaint();
+      });
     }
 
     @Override
@@ -456,6 +487,16 @@ public class MapPanel extends ImageScrollerLargeView {
       SwingUtilities.invokeLater(() -> repaint());
     }
   };
+  // the territory listeners invalidate tiles while a change is performed, and change listeners are told afterwards
+  private final GameDataChangeListener renderCountLogger = new GameDataChangeListener() {
+    @Override
+    public void gameDataChanged(final Change change) {
+      if (logger.isLoggable(Level.FINE)) {
+        logger.fine("After " + change + ": " + tileManager.getRenderCounts().takeSummary() + "; tile image cache: "
+            + uiContext.getTileImageFactory().getImageCache());
+      }
+    }
+  };
   private final GameDataChangeListener techUpdateListener = new GameDataChangeListener() {
     @Override
     public void gameDataChanged(final Change change) {
@@ -533,7 +574,7 @@ public class MapPanel extends ImageScrollerLargeView {
     g2d.clip(new Rectangle2D.Double(0, 0, (getImageWidth() * scale), (getImageHeight() * scale)));
     int x = model.getX();
     int y = model.getY();
-    final List<Tile> images = new ArrayList<>();
+    final Set<Tile> images = new HashSet<>();
     final List<Tile> undrawnTiles = new ArrayList<>();
     final Stopwatch stopWatch = new Stopwatch(logger, Level.FINER, "Paint");
     // make sure we use the same data for the entire paint
@@ -579,10 +620,7 @@ public class MapPanel extends ImageScrollerLargeView {
     if (routeDescription != null) {
       routeDrawer.drawRoute(g2d, routeDescription, movementLeftForCurrentUnits);
     }
-    // used to keep strong references to what is on the screen so it wont be garbage collected
-    // other references to the images are weak references
-    this.images.clear();
-    this.images.addAll(images);
+    pinTiles(images);
     if (highlightedUnits != null) {
       for (final Entry<Territory, List<Unit>> entry : highlightedUnits.entrySet()) {
         final Set<UnitCategory> categories = UnitSeperator.categorize(entry.getValue());
@@ -615,6 +653,7 @@ public class MapPanel extends ImageScrollerLargeView {
     updateUndrawnTiles(undrawnTiles, 513, false);
     updateUndrawnTiles(undrawnTiles, 767, false);
     clearUndrawn();
+    sortNearestFirst(undrawnTiles);
     this.undrawnTiles.addAll(undrawnTiles);
     stopWatch.done();
   }
@@ -634,6 +673,29 @@ public class MapPanel extends ImageScrollerLargeView {
     }
   }
 
+  /**
+   * Sorts the tiles by the distance of their centre from the centre of the visible area, so that the background
+   * drawers draw the tiles the user is looking at first.
+   */
+  private void sortNearestFirst(final List<Tile> tiles) {
+    final double centerX = model.getX() + getScaledWidth() / 2;
+    final double centerY = model.getY() + getScaledHeight() / 2;
+    final boolean wrapX = uiContext.getMapData().scrollWrapX();
+    final boolean wrapY = uiContext.getMapData().scrollWrapY();
+    final Comparator<Tile> byDistance = Comparator.comparingDouble(tile -> {
+      double dx = Math.abs(tile.getBounds().getCenterX() - centerX);
+      double dy = Math.abs(tile.getBounds().getCenterY() - centerY);
+      if (wrapX) {
+        dx = Math.min(dx, Math.abs(model.getMaxWidth() - dx));
+      }
+      if (wrapY) {
+        dy = Math.min(dy, Math.abs(model.getMaxHeight() - dy));
+      }
+      return dx * dx + dy * dy;
+    });
+    tiles.sort(byDistance);
+  }
+
   private boolean mapWidthFitsOnScreen() {
     return model.getMaxWidth() < getScaledWidth();
   }
@@ -644,7 +706,7 @@ public class MapPanel extends ImageScrollerLargeView {
 
   /**
    * If we have nothing left undrawn, draw the tiles within preDrawMargin of us, optionally
-   * forcing the tiles to remain in memory.
+   * marking the tiles already drawn as recently used, so that the tile image cache evicts them last.
    */
   private void updateUndrawnTiles(final List<Tile> undrawnTiles, final int preDrawMargin, final boolean forceInMemory) {
     // draw tiles near us if we have nothing left to draw
@@ -658,17 +720,34 @@ public class MapPanel extends ImageScrollerLargeView {
         if (tile.isDirty()) {
           undrawnTiles.add(tile);
         } else if (forceInMemory) {
-          images.add(tile);
+          tile.touch();
         }
       }
     }
   }
 
-  private void drawTiles(final Graphics2D g, final List<Tile> images, final GameData data, Rectangle2D.Double bounds,
+  /**
+   * Pins the images of the specified tiles in the tile image cache, and unpins those of the tiles pinned before.
+   */
+  private void pinTiles(final Set<Tile> tiles) {
+    for (final Tile tile : tiles) {
+      tile.pin();
+    }
+    for (final Tile tile : this.images) {
+      if (!tiles.contains(tile)) {
+        tile.unpin();
+      }
+    }
+    this.images.clear();
+    this.images.addAll(tiles);
+  }
+
+  private void drawTiles(final Graphics2D g, final Set<Tile> images, final GameData data, Rectangle2D.Double bounds,
       final List<Tile> undrawn) {
     final List<Tile> tileList = tileManager.getTiles(bounds);
     bounds = new Rectangle2D.Double(bounds.getX(), bounds.getY(), bounds.getHeight(), bounds.getWidth());
     for (final Tile tile : tileList) {
+      images.add(tile);
       final Image img;
       tile.acquireLock();
       try {
@@ -678,7 +757,6 @@ public class MapPanel extends ImageScrollerLargeView {
           img = tile.getRawImage();
         } else {
           img = tile.getImage(data, uiContext.getMapData());
-          images.add(tile);
         }
         if (img != null) {
           final AffineTransform t = new AffineTransform();
@@ -823,41 +901,46 @@ public class MapPanel extends ImageScrollerLargeView {
     return uiContext.getMapData().getWarningImage();
   }
 
+  /**
+   * Draws the tiles queued by the last paint, nearest to the visible area first. Several threads run the same drawer
+   * and take tiles from the same queue. Each tile is drawn under the game data read lock, which the drawers share.
+   */
   private static final class BackgroundDrawer implements Runnable {
-    private MapPanel mapPanel;
+    private volatile MapPanel mapPanel;
 
     BackgroundDrawer(final MapPanel panel) {
       mapPanel = panel;
     }
 
     void stop() {
-      // the thread will eventually wake up and notice we are done
+      // the threads will eventually wake up and notice we are done
       mapPanel = null;
     }
 
     @Override
     public void run() {
-      while (mapPanel != null) {
-        final BlockingQueue<Tile> undrawnTiles;
+      while (true) {
         final MapPanel panel = mapPanel;
-        undrawnTiles = panel.getUndrawnTiles();
+        if (panel == null) {
+          return;
+        }
         final Tile tile;
         try {
-          tile = undrawnTiles.poll(2000, TimeUnit.MILLISECONDS);
+          tile = panel.getUndrawnTiles().poll(2000, TimeUnit.MILLISECONDS);
         } catch (final InterruptedException e) {
           continue;
         }
         if (tile == null) {
           continue;
         }
-        final GameData data = mapPanel.getData();
+        final GameData data = panel.getData();
         data.acquireReadLock();
         try {
-          tile.getImage(data, mapPanel.getUiContext().getMapData());
+          tile.getImage(data, panel.getUiContext().getMapData());
         } finally {
           data.releaseReadLock();
         }
-        SwingUtilities.invokeLater(mapPanel::repaint);
+        panel.repaintWithinFrame();
       }
     }
   }
@@ -12,7 +12,6 @@ import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -91,6 +90,7 @@ public class MapData implements Closeable {
   private final Map<String, Color> playerColors = new HashMap<>();
   private Map<String, List<Point>> place;
   private Map<String, List<Polygon>> polys;
+  private TerritoryIndex territoryIndex;
   private Map<String, Point> centers;
   private Map<String, Point> vcPlace;
   private Map<String, Point> blockadePlace;
@@ -146,6 +146,7 @@ public class MapData implements Closeable {
       }
 
       polys = PointFileReaderWriter.readOneToManyPolygons(loader.getResourceAsStream(prefix + POLYGON_FILE));
+      territoryIndex = new TerritoryIndex(polys);
       centers = PointFileReaderWriter.readOneToOneCenters(loader.getResourceAsStream(prefix + CENTERS_FILE));
       vcPlace = PointFileReaderWriter.readOneToOne(loader.getResourceAsStream(prefix + VC_MARKERS));
       convoyPlace = PointFileReaderWriter.readOneToOne(loader.getResourceAsStream(prefix + CONVOY_MARKERS));
@@ -431,7 +432,7 @@ public class MapData implements Closeable {
     return null;
   }
 
-  public Color getPlayerColor(final String playerName) {
+  public synchronized Color getPlayerColor(final String playerName) {
     // already loaded, just return
     if (playerColors.containsKey(playerName)) {
       return playerColors.get(playerName);
@@ -599,26 +600,7 @@ public class MapData implements Closeable {
    * Get the territory at the x,y co-ordinates could be null.
    */
   public String getTerritoryAt(final double x, final double y) {
-    String seaName = null;
-    // try to find a land territory.
-    // sea zones often surround a land territory
-    final Iterator<String> keyIter = polys.keySet().iterator();
-    while (keyIter.hasNext()) {
-      final String name = keyIter.next();
-      final Collection<Polygon> polygons = polys.get(name);
-      final Iterator<Polygon> polyIter = polygons.iterator();
-      while (polyIter.hasNext()) {
-        final Polygon poly = polyIter.next();
-        if (poly.contains(x, y)) {
-          if (Util.isTerritoryNameIndicatingWater(name)) {
-            seaName = name;
-          } else {
-            return name;
-          }
-        }
-      }
-    }
-    return seaName;
+    return territoryIndex.getTerritoryAt(x, y);
   }
 
   public Dimension getMapDimensions() {
@@ -757,7 +739,7 @@ public class MapData implements Closeable {
     return territoryEffects.get(territory.getName());
   }
 
-  public Optional<Image> getTerritoryEffectImage(final String effectName) {
+  public synchronized Optional<Image> getTerritoryEffectImage(final String effectName) {
     // TODO: what does this cache buy us? should we still keep it?
     if (effectImages.get(effectName) != null) {
       return Optional.of(effectImages.get(effectName));
@@ -0,0 +1,103 @@
+package games.strategy.triplea.ui.mapdata;
+
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import games.strategy.ui.Util;
+
+/**
+ * An index of the territory polygons of a map, to find the territory at a point without testing every polygon of the
+ * map.
+ *
+ * <p>
+ * The area covered by the polygons is divided into a grid of square cells, and each polygon is listed in every cell
+ * its bounding box overlaps, so a query only tests the polygons listed in the cell of its point. Polygons are listed in
+ * the order of the territories in the map the index was built from.
+ * </p>
+ */
+final class TerritoryIndex {
+  static final int CELL_SIZE = 128;
+
+  private final int originX;
+  private final int originY;
+  private final int columns;
+  private final int rows;
+  private final List<List<Entry>> cells;
+
+  TerritoryIndex(final Map<String, List<Polygon>> polygons) {
+    Rectangle extent = null;
+    for (final List<Polygon> territoryPolygons : polygons.values()) {
+      for (final Polygon polygon : territoryPolygons) {
+        if (extent == null) {
+          extent = polygon.getBounds();
+        } else {
+          extent.add(polygon.getBounds());
+        }
+      }
+    }
+    if (extent == null) {
+      extent = new Rectangle();
+    }
+    originX = extent.x;
+    originY = extent.y;
+    columns = Math.max(1, (extent.width + CELL_SIZE - 1) / CELL_SIZE);
+    rows = Math.max(1, (extent.height + CELL_SIZE - 1) / CELL_SIZE);
+    cells = new ArrayList<>(columns * rows);
+    for (int i = 0; i < columns * rows; i++) {
+      cells.add(new ArrayList<>());
+    }
+    for (final Map.Entry<String, List<Polygon>> territory : polygons.entrySet()) {
+      for (final Polygon polygon : territory.getValue()) {
+        final Entry entry = new Entry(territory.getKey(), polygon);
+        final Rectangle bounds = polygon.getBounds();
+        for (int column = getColumn(bounds.x); column <= getColumn(bounds.x + bounds.width); column++) {
+          for (int row = getRow(bounds.y); row <= getRow(bounds.y + bounds.height); row++) {
+            cells.get(column * rows + row).add(entry);
+          }
+        }
+      }
+    }
+  }
+
+  private int getColumn(final double x) {
+    return Math.max(0, Math.min(columns - 1, (int) Math.floor((x - originX) / CELL_SIZE)));
+  }
+
+  private int getRow(final double y) {
+    return Math.max(0, Math.min(rows - 1, (int) Math.floor((y - originY) / CELL_SIZE)));
+  }
+
+  /**
+   * @return The land territory at the specified point or, if there is none, the sea zone at the point, or null if
+   *         there is no territory at the point. Sea zones often surround a land territory.
+   */
+  String getTerritoryAt(final double x, final double y) {
+    if (x < originX || y < originY || x >= originX + columns * CELL_SIZE || y >= originY + rows * CELL_SIZE) {
+      return null;
+    }
+    String seaName = null;
+    for (final Entry entry : cells.get(getColumn(x) * rows + getRow(y))) {
+      if (entry.polygon.contains(x, y)) {
+        if (Util.isTerritoryNameIndicatingWater(entry.name)) {
+          seaName = entry.name;
+        } else {
+          return entry.name;
+        }
+      }
+    }
+    return seaName;
+  }
+
+  private static final class Entry {
+    private final String name;
+    private final Polygon polygon;
+
+    Entry(final String name, final Polygon polygon) {
+      this.name = name;
+      this.polygon = polygon;
+    }
+  }
+}
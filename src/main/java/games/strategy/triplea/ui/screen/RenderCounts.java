@@ -0,0 +1,44 @@
+package games.strategy.triplea.ui.screen;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts how much of the map has to be drawn again after changes, to see what a change costs.
+ *
+ * <p>
+ * A tile is invalidated when its drawables change. If any of the changed drawables is below the units, the territory
+ * layer of the tile is invalidated too and has to be drawn again from the base map up; otherwise the tile is only
+ * recomposited from its cached territory layer. Invalidations are counted as they happen, draws when a tile is next
+ * shown.
+ * </p>
+ */
+public final class RenderCounts {
+  private final AtomicLong tilesInvalidated = new AtomicLong();
+  private final AtomicLong layersInvalidated = new AtomicLong();
+  private final AtomicLong tilesDrawn = new AtomicLong();
+  private final AtomicLong layersDrawn = new AtomicLong();
+
+  void tileInvalidated(final boolean layerInvalidated) {
+    tilesInvalidated.incrementAndGet();
+    if (layerInvalidated) {
+      layersInvalidated.incrementAndGet();
+    }
+  }
+
+  void tileDrawn(final boolean layerDrawn) {
+    tilesDrawn.incrementAndGet();
+    if (layerDrawn) {
+      layersDrawn.incrementAndGet();
+    }
+  }
+
+  /**
+   * @return A summary of the counts since the last call, which resets them.
+   */
+  public String takeSummary() {
+    return "tiles invalidated: " + tilesInvalidated.getAndSet(0)
+        + " (territory layers: " + layersInvalidated.getAndSet(0) + ")"
+        + ", tiles drawn: " + tilesDrawn.getAndSet(0)
+        + " (territory layers: " + layersDrawn.getAndSet(0) + ")";
+  }
+}
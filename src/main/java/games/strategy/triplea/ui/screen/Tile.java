@@ -9,12 +9,12 @@ import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
-import java.lang.ref.SoftReference;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
@@ -22,6 +22,7 @@ import java.util.logging.Logger;
 
 import games.strategy.engine.data.GameData;
 import games.strategy.thread.LockUtil;
+import games.strategy.triplea.image.TileImageCache;
 import games.strategy.triplea.ui.mapdata.MapData;
 import games.strategy.triplea.ui.screen.drawable.DrawableComparator;
 import games.strategy.triplea.ui.screen.drawable.IDrawable;
@@ -33,27 +34,38 @@ public class Tile {
   private static final boolean DRAW_DEBUG = false;
   private static final Logger logger = Logger.getLogger(Tile.class.getName());
 
-  // allow the gc to implement memory management
-  private SoftReference<Image> imageRef;
+  // the images are kept in a cache of bounded size, and drawn again when they have been evicted
+  private final TileImageCache imageCache;
+  private final ImageKey imageKey;
   private boolean isDirty = true;
+  // everything below the units, cached only for tiles with something drawn over it, so that those tiles can be
+  // recomposited when only the units change
+  private final ImageKey layerKey;
+  private boolean isLayerDirty = true;
   private final Rectangle bounds;
   private final int x;
   private final int y;
   private final double scale;
   private final Lock lock = new ReentrantLock();
   private final List<IDrawable> contents = new ArrayList<>();
+  private final RenderCounts renderCounts;
 
-  Tile(final Rectangle bounds, final int x, final int y, final double scale) {
+  Tile(final Rectangle bounds, final int x, final int y, final double scale, final TileImageCache imageCache,
+      final RenderCounts renderCounts) {
     this.bounds = bounds;
     this.x = x;
     this.y = y;
     this.scale = scale;
+    this.imageCache = imageCache;
+    this.renderCounts = renderCounts;
+    imageKey = new ImageKey(x, y, scale, "tile");
+    layerKey = new ImageKey(x, y, scale, "territory layer");
   }
 
   public boolean isDirty() {
     acquireLock();
     try {
-      return isDirty || imageRef == null || imageRef.get() == null;
+      return isDirty || !imageCache.contains(imageKey);
     } finally {
       releaseLock();
     }
@@ -70,23 +82,14 @@ public class Tile {
   public Image getImage(final GameData data, final MapData mapData) {
     acquireLock();
     try {
-      if (imageRef == null) {
-        imageRef = new SoftReference<>(createBlankImage());
-        isDirty = true;
-      }
-      Image image = imageRef.get();
+      Image image = imageCache.get(imageKey);
       if (image == null) {
         image = createBlankImage();
-        imageRef = new SoftReference<>(image);
+        imageCache.put(imageKey, image);
         isDirty = true;
       }
       if (isDirty) {
-        final Graphics2D g = (Graphics2D) image.getGraphics();
-        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-        g.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
-        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-        draw(g, data, mapData);
-        g.dispose();
+        draw(image, data, mapData);
       }
       return image;
     } finally {
@@ -105,13 +108,90 @@ public class Tile {
    * @return the image we currently have.
    */
   public Image getRawImage() {
-    if (imageRef == null) {
-      return null;
+    return imageCache.get(imageKey);
+  }
+
+  /**
+   * Marks the images of this tile as recently used, so that the image cache evicts them last.
+   */
+  public void touch() {
+    imageCache.touch(imageKey);
+    imageCache.touch(layerKey);
+  }
+
+  /**
+   * Keeps the images of this tile in the image cache until {@link #unpin()} is called, for tiles on the screen.
+   */
+  public void pin() {
+    imageCache.pin(imageKey);
+    imageCache.pin(layerKey);
+  }
+
+  public void unpin() {
+    imageCache.unpin(imageKey);
+    imageCache.unpin(layerKey);
+  }
+
+  private void draw(final Image image, final GameData data, final MapData mapData) {
+    final Stopwatch stopWatch = new Stopwatch(logger, Level.FINEST, "Drawing Tile at" + bounds);
+    Collections.sort(contents, new DrawableComparator());
+    final int firstUnitsLevelIndex = getFirstUnitsLevelIndex();
+    final Graphics2D g = createGraphics(image);
+    boolean layerDrawn = false;
+    if (firstUnitsLevelIndex == contents.size()) {
+      // nothing over the territory layer, so there is no point keeping it apart
+      imageCache.remove(layerKey);
+      isLayerDirty = true;
+      draw(g, contents, data, mapData);
+      layerDrawn = true;
+    } else {
+      Image layer = imageCache.get(layerKey);
+      if (layer == null) {
+        layer = createBlankImage();
+        imageCache.put(layerKey, layer);
+        isLayerDirty = true;
+      }
+      if (isLayerDirty) {
+        final Graphics2D layerGraphics = createGraphics(layer);
+        draw(layerGraphics, contents.subList(0, firstUnitsLevelIndex), data, mapData);
+        layerGraphics.dispose();
+        isLayerDirty = false;
+        layerDrawn = true;
+      }
+      g.drawImage(layer, 0, 0, null);
+      draw(g, contents.subList(firstUnitsLevelIndex, contents.size()), data, mapData);
     }
-    return imageRef.get();
+    g.dispose();
+    isDirty = false;
+    renderCounts.tileDrawn(layerDrawn);
+    stopWatch.done();
+  }
+
+  private int getFirstUnitsLevelIndex() {
+    int index = 0;
+    while (index < contents.size() && !isOverTerritoryLayer(contents.get(index))) {
+      index++;
+    }
+    return index;
+  }
+
+  private static boolean isOverTerritoryLayer(final IDrawable drawable) {
+    return drawable.getLevel() >= IDrawable.UNITS_LEVEL;
   }
 
-  private void draw(final Graphics2D g, final GameData data, final MapData mapData) {
+  private static Graphics2D createGraphics(final Image image) {
+    final Graphics2D g = (Graphics2D) image.getGraphics();
+    g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+    g.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
+    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+    return g;
+  }
+
+  /**
+   * Draws the specified drawables, on a black background unless they are all drawn over the territory layer.
+   */
+  private void draw(final Graphics2D g, final List<IDrawable> drawables, final GameData data,
+      final MapData mapData) {
     final AffineTransform unscaled = g.getTransform();
     final AffineTransform scaled;
     if (scale != 1) {
@@ -121,17 +201,16 @@ public class Tile {
     } else {
       scaled = unscaled;
     }
-    final Stopwatch stopWatch = new Stopwatch(logger, Level.FINEST, "Drawing Tile at" + bounds);
-    // clear
-    g.setColor(Color.BLACK);
-    g.fill(new Rectangle(0, 0, TileManager.TILE_SIZE, TileManager.TILE_SIZE));
-    Collections.sort(contents, new DrawableComparator());
-    final Iterator<IDrawable> iter = contents.iterator();
+    if (drawables.isEmpty() || !isOverTerritoryLayer(drawables.get(0))) {
+      // clear
+      g.setColor(Color.BLACK);
+      g.fill(new Rectangle(0, 0, TileManager.TILE_SIZE, TileManager.TILE_SIZE));
+    }
+    final Iterator<IDrawable> iter = drawables.iterator();
     while (iter.hasNext()) {
       final IDrawable drawable = iter.next();
       drawable.draw(bounds, data, g, mapData, unscaled, scaled);
     }
-    isDirty = false;
     // draw debug graphics
     if (DRAW_DEBUG) {
       g.setColor(Color.PINK);
@@ -141,49 +220,68 @@ public class Tile {
       g.setFont(new Font("Ariel", Font.BOLD, 25));
       g.drawString(x + " " + y, 40, 40);
     }
-    stopWatch.done();
+    g.setTransform(unscaled);
   }
 
   void addDrawables(final Collection<IDrawable> drawables) {
     acquireLock();
     try {
-      contents.addAll(drawables);
-      isDirty = true;
+      if (contents.addAll(drawables)) {
+        invalidate(drawables);
+      }
     } finally {
       releaseLock();
     }
   }
 
   void addDrawable(final IDrawable d) {
-    acquireLock();
-    try {
-      contents.add(d);
-      isDirty = true;
-    } finally {
-      releaseLock();
-    }
+    addDrawables(Collections.singleton(d));
   }
 
   void removeDrawables(final Collection<IDrawable> c) {
     acquireLock();
     try {
-      contents.removeAll(c);
-      isDirty = true;
+      if (contents.removeAll(c)) {
+        invalidate(c);
+      }
     } finally {
       releaseLock();
     }
   }
 
+  void removeDrawable(final IDrawable d) {
+    removeDrawables(Collections.singleton(d));
+  }
+
   void clear() {
     acquireLock();
     try {
       contents.clear();
       isDirty = true;
+      isLayerDirty = true;
+      renderCounts.tileInvalidated(true);
     } finally {
       releaseLock();
     }
   }
 
+  /**
+   * Marks the tile as needing to be drawn again after the specified drawables were added or removed, and its territory
+   * layer too unless they are all drawn over it.
+   */
+  private void invalidate(final Collection<? extends IDrawable> changed) {
+    boolean layerChanged = false;
+    for (final IDrawable drawable : changed) {
+      if (!isOverTerritoryLayer(drawable)) {
+        layerChanged = true;
+        break;
+      }
+    }
+    isDirty = true;
+    isLayerDirty |= layerChanged;
+    renderCounts.tileInvalidated(layerChanged);
+  }
+
   List<IDrawable> getDrawables() {
     acquireLock();
     try {
@@ -204,4 +302,43 @@ public class Tile {
   public int getY() {
     return y;
   }
+
+  /**
+   * Identifies an image of a tile in the image cache by the position of the tile, its scale and the layer.
+   */
+  private static final class ImageKey {
+    private final int x;
+    private final int y;
+    private final double scale;
+    private final String layer;
+
+    ImageKey(final int x, final int y, final double scale, final String layer) {
+      this.x = x;
+      this.y = y;
+      this.scale = scale;
+      this.layer = layer;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (o == this) {
+        return true;
+      }
+      if (!(o instanceof ImageKey)) {
+        return false;
+      }
+      final ImageKey other = (ImageKey) o;
+      return x == other.x && y == other.y && Double.compare(scale, other.scale) == 0 && layer.equals(other.layer);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(x, y, scale, layer);
+    }
+
+    @Override
+    public String toString() {
+      return layer + " " + x + "_" + y + "@" + scale;
+    }
+  }
 }
@@ -18,12 +18,15 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import games.strategy.engine.data.GameData;
 import games.strategy.engine.data.PlayerID;
 import games.strategy.engine.data.Territory;
@@ -31,6 +34,7 @@ import games.strategy.engine.data.TerritoryEffect;
 import games.strategy.engine.data.Unit;
 import games.strategy.triplea.attachments.TerritoryAttachment;
 import games.strategy.triplea.delegate.TerritoryEffectHelper;
+import games.strategy.triplea.image.TileImageCache;
 import games.strategy.triplea.ui.UiContext;
 import games.strategy.triplea.ui.mapdata.MapData;
 import games.strategy.triplea.ui.screen.TerritoryOverLayDrawable.Operation;
@@ -62,15 +66,28 @@ public class TileManager {
   public static final int TILE_SIZE = 256;
 
   private List<Tile> tiles = new ArrayList<>();
+  // tiles holds the tiles column by column, tileRows to a column
+  private int tileColumns;
+  private int tileRows;
   private final Lock lock = new ReentrantLock();
   private final Map<String, IDrawable> territoryOverlays = new HashMap<>();
   private final Map<String, Set<IDrawable>> territoryDrawables = new HashMap<>();
   private final Map<String, Set<Tile>> territoryTiles = new HashMap<>();
   private final Collection<UnitsDrawer> allUnitDrawables = new ArrayList<>();
+  // whether and how each territory was striped for a battle when its drawables were last created
+  private final Map<String, Optional<Color>> territoryBattleStripes = new HashMap<>();
+  private final RenderCounts renderCounts = new RenderCounts();
   private final UiContext uiContext;
+  private final TileImageCache imageCache;
 
   public TileManager(final UiContext uiContext) {
+    this(uiContext, uiContext.getTileImageFactory().getImageCache());
+  }
+
+  @VisibleForTesting
+  TileManager(final UiContext uiContext, final TileImageCache imageCache) {
     this.uiContext = uiContext;
+    this.imageCache = imageCache;
   }
 
   /**
@@ -113,27 +130,12 @@ public class TileManager {
     acquireLock();
     try {
       final List<Tile> tilesInBounds = new ArrayList<>();
-      for (final Tile tile : tiles) {
-        final Rectangle tileBounds = tile.getBounds();
-        if (bounds.contains(tileBounds) || tileBounds.intersects(bounds)) {
-          tilesInBounds.add(tile);
-        }
-      }
+      addTilesIntersecting(bounds, tilesInBounds);
       if (boundsXshift != null) {
-        for (final Tile tile : tiles) {
-          final Rectangle tileBounds = tile.getBounds();
-          if (boundsXshift.contains(tileBounds) || tileBounds.intersects(boundsXshift)) {
-            tilesInBounds.add(tile);
-          }
-        }
+        addTilesIntersecting(boundsXshift, tilesInBounds);
       }
       if (boundsYshift != null) {
-        for (final Tile tile : tiles) {
-          final Rectangle tileBounds = tile.getBounds();
-          if (boundsYshift.contains(tileBounds) || tileBounds.intersects(boundsYshift)) {
-            tilesInBounds.add(tile);
-          }
-        }
+        addTilesIntersecting(boundsYshift, tilesInBounds);
       }
       return tilesInBounds;
     } finally {
@@ -141,6 +143,25 @@ public class TileManager {
     }
   }
 
+  /**
+   * Adds the tiles intersecting the specified bounds, column by column. The tiles are laid out on a regular grid, so
+   * the columns and rows they are in follow from the bounds without testing each tile.
+   */
+  private void addTilesIntersecting(final Rectangle2D bounds, final List<Tile> tilesInBounds) {
+    if (bounds.getWidth() <= 0 || bounds.getHeight() <= 0) {
+      return;
+    }
+    final int firstColumn = Math.max(0, (int) Math.floor(bounds.getMinX() / TILE_SIZE));
+    final int lastColumn = Math.min(tileColumns - 1, (int) Math.ceil(bounds.getMaxX() / TILE_SIZE) - 1);
+    final int firstRow = Math.max(0, (int) Math.floor(bounds.getMinY() / TILE_SIZE));
+    final int lastRow = Math.min(tileRows - 1, (int) Math.ceil(bounds.getMaxY() / TILE_SIZE) - 1);
+    for (int x = firstColumn; x <= lastColumn; x++) {
+      for (int y = firstRow; y <= lastRow; y++) {
+        tilesInBounds.add(tiles.get(x * tileRows + y));
+      }
+    }
+  }
+
   private void acquireLock() {
     Tile.LOCK_UTIL.acquireLock(lock);
   }
@@ -163,10 +184,12 @@ public class TileManager {
     try {
       // create our tiles
       tiles = new ArrayList<>();
-      for (int x = 0; (x) * TILE_SIZE < bounds.width; x++) {
-        for (int y = 0; (y) * TILE_SIZE < bounds.height; y++) {
+      tileColumns = (bounds.width + TILE_SIZE - 1) / TILE_SIZE;
+      tileRows = (bounds.height + TILE_SIZE - 1) / TILE_SIZE;
+      for (int x = 0; x < tileColumns; x++) {
+        for (int y = 0; y < tileRows; y++) {
           tiles.add(new Tile(new Rectangle(x * TILE_SIZE, y * TILE_SIZE, TILE_SIZE, TILE_SIZE), x, y,
-              uiContext.getScale()));
+              uiContext.getScale(), imageCache, renderCounts));
         }
       }
     } finally {
@@ -234,6 +257,52 @@ public class TileManager {
     }
   }
 
+  /**
+   * Updates the drawables of a territory after only its units changed. Unit stacks that look the same as before are
+   * left alone, so only the tiles under the stacks that changed have to be drawn again, and only their units, over the
+   * territory layer they keep. Falls back to updating the whole territory if the change starts or ends a battle there.
+   */
+  public void updateTerritoryUnits(final Territory territory, final GameData data, final MapData mapData) {
+    data.acquireReadLock();
+    try {
+      acquireLock();
+      try {
+        final Set<IDrawable> drawables = territoryDrawables.get(territory.getName());
+        if (drawables == null || !uiContext.getShowUnits() || !BattleDrawable
+            .getStripeColor(territory, data, mapData).equals(territoryBattleStripes.get(territory.getName()))) {
+          updateTerritory(territory, data, mapData);
+          return;
+        }
+        final Set<UnitsDrawer> unitDrawables = new HashSet<>(createUnitDrawables(territory, mapData));
+        final Iterator<IDrawable> oldDrawables = drawables.iterator();
+        while (oldDrawables.hasNext()) {
+          final IDrawable drawable = oldDrawables.next();
+          if (drawable instanceof UnitsDrawer && !unitDrawables.remove(drawable)) {
+            oldDrawables.remove();
+            allUnitDrawables.remove(drawable);
+            for (final Tile tile : getTiles(getUnitBounds((UnitsDrawer) drawable))) {
+              tile.removeDrawable(drawable);
+            }
+          }
+        }
+        // what is left are the stacks that were not drawn before
+        final Set<Tile> drawnOn = territoryTiles.get(territory.getName());
+        for (final UnitsDrawer drawable : unitDrawables) {
+          addUnitDrawable(drawable, drawnOn);
+          drawables.add(drawable);
+        }
+      } finally {
+        releaseLock();
+      }
+    } finally {
+      data.releaseReadLock();
+    }
+  }
+
+  public RenderCounts getRenderCounts() {
+    return renderCounts;
+  }
+
   private void updateTerritory(final Territory territory, final GameData data, final MapData mapData) {
     data.acquireReadLock();
     try {
@@ -276,9 +345,13 @@ public class TileManager {
       drawTerritoryEffects(territory, mapData, drawing);
     }
     if (uiContext.getShowUnits()) {
-      drawUnits(territory, mapData, drawnOn, drawing);
+      for (final UnitsDrawer drawable : createUnitDrawables(territory, mapData)) {
+        addUnitDrawable(drawable, drawnOn);
+        drawing.add(drawable);
+      }
     }
     drawing.add(new BattleDrawable(territory.getName()));
+    territoryBattleStripes.put(territory.getName(), BattleDrawable.getStripeColor(territory, data, mapData));
     final TerritoryAttachment ta = TerritoryAttachment.get(territory);
     if (!territory.isWater()) {
       drawing.add(new LandTerritoryDrawable(territory.getName()));
@@ -336,12 +409,12 @@ public class TileManager {
     }
   }
 
-  private void drawUnits(final Territory territory, final MapData mapData, final Set<Tile> drawnOn,
-      final Set<IDrawable> drawing) {
+  private List<UnitsDrawer> createUnitDrawables(final Territory territory, final MapData mapData) {
     final Iterator<Point> placementPoints = mapData.getPlacementPoints(territory).iterator();
     if (placementPoints == null || !placementPoints.hasNext()) {
       throw new IllegalStateException("No where to place units:" + territory.getName());
     }
+    final List<UnitsDrawer> drawables = new ArrayList<>();
     Point lastPlace = null;
     final Iterator<UnitCategory> unitCategoryIter =
         UnitSeperator.categorize(territory.getUnits().getUnits()).iterator();
@@ -356,20 +429,25 @@ public class TileManager {
         lastPlace.x += uiContext.getUnitImageFactory().getUnitImageWidth();
         overflow = true;
       }
-      final UnitsDrawer drawable = new UnitsDrawer(category.getUnits().size(), category.getType().getName(),
+      drawables.add(new UnitsDrawer(category.getUnits().size(), category.getType().getName(),
           category.getOwner().getName(), lastPlace, category.getDamaged(), category.getBombingDamage(),
-          category.getDisabled(), overflow, territory.getName(), uiContext);
-      drawing.add(drawable);
-      allUnitDrawables.add(drawable);
-      final Iterator<Tile> tiles =
-          getTiles(new Rectangle(lastPlace.x, lastPlace.y, uiContext.getUnitImageFactory().getUnitImageWidth(),
-              uiContext.getUnitImageFactory().getUnitImageHeight())).iterator();
-      while (tiles.hasNext()) {
-        final Tile tile = tiles.next();
-        tile.addDrawable(drawable);
-        drawnOn.add(tile);
-      }
+          category.getDisabled(), overflow, territory.getName(), uiContext));
     }
+    return drawables;
+  }
+
+  private void addUnitDrawable(final UnitsDrawer drawable, final Set<Tile> drawnOn) {
+    allUnitDrawables.add(drawable);
+    for (final Tile tile : getTiles(getUnitBounds(drawable))) {
+      tile.addDrawable(drawable);
+      drawnOn.add(tile);
+    }
+  }
+
+  private Rectangle getUnitBounds(final UnitsDrawer drawable) {
+    final Point place = drawable.getPlacementPoint();
+    return new Rectangle(place.x, place.y, uiContext.getUnitImageFactory().getUnitImageWidth(),
+        uiContext.getUnitImageFactory().getUnitImageHeight());
   }
 
   public Image createTerritoryImage(final Territory t, final GameData data, final MapData mapData) {
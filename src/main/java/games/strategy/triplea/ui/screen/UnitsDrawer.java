@@ -8,6 +8,7 @@ import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.geom.AffineTransform;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.prefs.Preferences;
@@ -229,6 +230,35 @@ public class UnitsDrawer implements IDrawable {
     return UNITS_LEVEL;
   }
 
+  /**
+   * Two drawers are equal if they draw the same stack in the same place, so that a territory whose units changed only
+   * needs its changed stacks drawn again.
+   */
+  @Override
+  public boolean equals(final Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof UnitsDrawer)) {
+      return false;
+    }
+    final UnitsDrawer other = (UnitsDrawer) o;
+    return count == other.count
+        && unitType.equals(other.unitType)
+        && playerName.equals(other.playerName)
+        && placementPoint.equals(other.placementPoint)
+        && damaged == other.damaged
+        && bombingUnitDamage == other.bombingUnitDamage
+        && disabled == other.disabled
+        && overflow == other.overflow
+        && territoryName.equals(other.territoryName);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(count, unitType, playerName, placementPoint, territoryName);
+  }
+
   @Override
   public String toString() {
     return "UnitsDrawer for " + count + " " + MyFormatter.pluralize(unitType) + " in  " + territoryName;
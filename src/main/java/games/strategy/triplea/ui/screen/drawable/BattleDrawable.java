@@ -7,6 +7,7 @@ import java.awt.Paint;
 import java.awt.Rectangle;
 import java.awt.geom.AffineTransform;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 
 import games.strategy.engine.data.GameData;
@@ -26,13 +27,28 @@ public class BattleDrawable extends TerritoryDrawable implements IDrawable {
   @Override
   public void draw(final Rectangle bounds, final GameData data, final Graphics2D graphics, final MapData mapData,
       final AffineTransform unscaled, final AffineTransform scaled) {
+    final Territory territory = data.getMap().getTerritory(territoryName);
+    final Optional<Color> stripeColor = getStripeColor(territory, data, mapData);
+    if (stripeColor.isPresent()) {
+      final Color color = stripeColor.get();
+      final Paint paint = new GradientPaint(0 - (float) bounds.getX(), 0 - (float) bounds.getY(),
+          new Color(color.getRed(), color.getGreen(), color.getBlue(), 120),
+          30 - (float) bounds.getX(), 50 - (float) bounds.getY(), new Color(0, 0, 0, 0), true);
+      draw(bounds, graphics, mapData, territory, paint);
+    }
+  }
+
+  /**
+   * @return The colour the territory is striped with to show a battle there, or empty if there is no battle.
+   */
+  public static Optional<Color> getStripeColor(final Territory territory, final GameData data,
+      final MapData mapData) {
     final Set<PlayerID> players = new HashSet<>();
-    for (final Unit u : data.getMap().getTerritory(territoryName).getUnits()) {
+    for (final Unit u : territory.getUnits()) {
       if (!TripleAUnit.get(u).getSubmerged()) {
         players.add(u.getOwner());
       }
     }
-    final Territory territory = data.getMap().getTerritory(territoryName);
     PlayerID attacker = null;
     boolean draw = false;
     for (final PlayerID p : players) {
@@ -60,18 +76,13 @@ public class BattleDrawable extends TerritoryDrawable implements IDrawable {
         }
       }
     }
-    if (draw) {
-      final Color stripeColor;
-      if (attacker == null || territory.isWater()) {
-        stripeColor = Color.RED.brighter();
-      } else {
-        stripeColor = mapData.getPlayerColor(attacker.getName());
-      }
-      final Paint paint = new GradientPaint(0 - (float) bounds.getX(), 0 - (float) bounds.getY(),
-          new Color(stripeColor.getRed(), stripeColor.getGreen(), stripeColor.getBlue(), 120),
-          30 - (float) bounds.getX(), 50 - (float) bounds.getY(), new Color(0, 0, 0, 0), true);
-      draw(bounds, graphics, mapData, territory, paint);
+    if (!draw) {
+      return Optional.empty();
+    }
+    if (attacker == null || territory.isWater()) {
+      return Optional.of(Color.RED.brighter());
     }
+    return Optional.of(mapData.getPlayerColor(attacker.getName()));
   }
 
   @Override
@@ -1,34 +1,49 @@
 package games.strategy.util;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 
 /**
  * A utility class for mapping Objects to ints. <br>
  * Supports adding and comparing of maps.
  *
+ * <p>
+ * Values are stored as primitive ints in an open addressing hash table, so reading and updating a value does not box
+ * it. The serialized form is unchanged from when the map was backed by a {@code HashMap<T, Integer>}, so maps in
+ * existing save games still load, and older versions can still read maps written by this one.
+ * </p>
+ *
  * @param <T> The type of the map key.
  */
 public final class IntegerMap<T> implements Cloneable, Serializable {
   private static final long serialVersionUID = 6856531659284300930L;
-  private final HashMap<T, Integer> mapValues;
+  private static final String SERIALIZED_VALUES_FIELD = "mapValues";
+  private static final ObjectStreamField[] serialPersistentFields = {
+      new ObjectStreamField(SERIALIZED_VALUES_FIELD, HashMap.class)
+  };
+  private final ObjectIntHashTable<T> values;
+  // only set between readObject() and readResolve()
+  private transient Map<T, Integer> deserializedValues;
 
   /** Creates new IntegerMap. */
   public IntegerMap() {
-    mapValues = new HashMap<>();
+    values = new ObjectIntHashTable<>();
   }
 
   public IntegerMap(final int size) {
-    mapValues = new HashMap<>(size);
+    values = new ObjectIntHashTable<>(size);
   }
 
   public IntegerMap(final int size, final float loadFactor) {
-    mapValues = new HashMap<>(size, loadFactor);
+    values = new ObjectIntHashTable<>(size, loadFactor);
   }
 
   public IntegerMap(final T object, final int value) {
@@ -46,26 +61,32 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * The Objects will be linked, but the integers mapped to them will not be linked.
    */
   public IntegerMap(final IntegerMap<T> integerMap) {
-    mapValues = new HashMap<>(integerMap.size());
-    for (final T t : integerMap.keySet()) {
-      mapValues.put(t, integerMap.getInt(t));
-    }
+    values = new ObjectIntHashTable<>(integerMap.values);
   }
 
   public IntegerMap(final Map<T, Integer> map) {
-    mapValues = new HashMap<>(map);
+    values = new ObjectIntHashTable<>(map.size());
+    for (final Map.Entry<T, Integer> entry : map.entrySet()) {
+      values.put(entry.getKey(), entry.getValue());
+    }
   }
 
   public Map<T, Integer> toMap() {
-    return new HashMap<>(mapValues);
+    final Map<T, Integer> map = new HashMap<>();
+    for (int i = 0; i < values.capacity(); i++) {
+      if (values.isUsed(i)) {
+        map.put(values.keyAt(i), values.valueAt(i));
+      }
+    }
+    return map;
   }
 
   public int size() {
-    return mapValues.size();
+    return values.size();
   }
 
   public void put(final T key, final int value) {
-    mapValues.put(key, value);
+    values.put(key, value);
   }
 
   private void addAll(final Collection<T> keys, final int value) {
@@ -79,26 +100,15 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * returns 0 if no key found.
    */
   public int getInt(final T key) {
-    if (!mapValues.containsKey(key)) {
-      return 0;
-    }
-    return mapValues.get(key);
+    return values.get(key);
   }
 
   public void add(final T key, final int value) {
-    if (mapValues.get(key) == null) {
-      put(key, value);
-    } else {
-      final int oldVal = mapValues.get(key);
-      final int newVal = oldVal + value;
-      put(key, newVal);
-    }
+    values.add(key, value);
   }
 
   public void add(final IntegerMap<T> map) {
-    for (final T key : map.keySet()) {
-      add(key, map.getInt(key));
-    }
+    addMultiple(map, 1);
   }
 
   /**
@@ -110,8 +120,11 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    *        (1 = floor, 2 = round, 3 = ceil)
    */
   public void multiplyAllValuesBy(final double multiplyBy, final int roundType) {
-    for (final T t : keySet()) {
-      double val = mapValues.get(t);
+    for (int i = 0; i < values.capacity(); i++) {
+      if (!values.isUsed(i)) {
+        continue;
+      }
+      double val = values.valueAt(i);
       switch (roundType) {
         case 1:
           val = Math.floor(val * multiplyBy);
@@ -126,16 +139,16 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
           val = val * multiplyBy;
           break;
       }
-      put(t, (int) val);
+      values.setValueAt(i, (int) val);
     }
   }
 
   public void clear() {
-    mapValues.clear();
+    values.clear();
   }
 
   public Set<T> keySet() {
-    return mapValues.keySet();
+    return values.keySet();
   }
 
   /**
@@ -144,11 +157,11 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * @return true if all values are equal to the given integer.
    */
   public boolean allValuesEqual(final int integer) {
-    if (mapValues.isEmpty()) {
+    if (values.size() == 0) {
       return false;
     }
-    for (final int value : mapValues.values()) {
-      if (integer != value) {
+    for (int i = 0; i < values.capacity(); i++) {
+      if (values.isUsed(i) && integer != values.valueAt(i)) {
         return false;
       }
     }
@@ -159,15 +172,12 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * Will return null if empty.
    */
   public T lowestKey() {
-    if (mapValues.isEmpty()) {
-      return null;
-    }
     int minValue = Integer.MAX_VALUE;
     T minKey = null;
-    for (final Map.Entry<T, Integer> entry : mapValues.entrySet()) {
-      if (entry.getValue() < minValue) {
-        minValue = entry.getValue();
-        minKey = entry.getKey();
+    for (int i = 0; i < values.capacity(); i++) {
+      if (values.isUsed(i) && values.valueAt(i) < minValue) {
+        minValue = values.valueAt(i);
+        minKey = values.keyAt(i);
       }
     }
     return minKey;
@@ -178,16 +188,16 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    */
   public int totalValues() {
     int sum = 0;
-    for (final int value : mapValues.values()) {
-      sum += value;
+    for (int i = 0; i < values.capacity(); i++) {
+      if (values.isUsed(i)) {
+        sum += values.valueAt(i);
+      }
     }
     return sum;
   }
 
   public void subtract(final IntegerMap<T> map) {
-    for (final T key : map.keySet()) {
-      add(key, -map.getInt(key));
-    }
+    addMultiple(map, -1);
   }
 
   /**
@@ -199,8 +209,9 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * that a and b are not equal.
    */
   public boolean greaterThanOrEqualTo(final IntegerMap<T> map) {
-    for (final T key : map.keySet()) {
-      if (!(this.getInt(key) >= map.getInt(key))) {
+    final ObjectIntHashTable<T> other = map.values;
+    for (int i = 0; i < other.capacity(); i++) {
+      if (other.isUsed(i) && !(values.get(other.keyAt(i)) >= other.valueAt(i))) {
         return false;
       }
     }
@@ -211,8 +222,8 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * True if all values are >= 0.
    */
   public boolean isPositive() {
-    for (final T key : mapValues.keySet()) {
-      if (getInt(key) < 0) {
+    for (int i = 0; i < values.capacity(); i++) {
+      if (values.isUsed(i) && values.valueAt(i) < 0) {
         return false;
       }
     }
@@ -220,9 +231,7 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
   }
 
   public IntegerMap<T> copy() {
-    final IntegerMap<T> copy = new IntegerMap<>();
-    copy.add(this);
-    return copy;
+    return new IntegerMap<>(this);
   }
 
   @Override
@@ -234,32 +243,51 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
    * Add map * multiple.
    */
   public void addMultiple(final IntegerMap<T> map, final int multiple) {
-    for (final T key : map.keySet()) {
-      add(key, map.getInt(key) * multiple);
+    final ObjectIntHashTable<T> other = map.values;
+    for (int i = 0; i < other.capacity(); i++) {
+      if (other.isUsed(i)) {
+        values.add(other.keyAt(i), other.valueAt(i) * multiple);
+      }
     }
   }
 
   public void removeKey(final T key) {
-    mapValues.remove(key);
+    values.remove(key);
   }
 
   public boolean containsKey(final T key) {
-    return mapValues.containsKey(key);
+    return values.indexOf(key) >= 0;
   }
 
   public boolean isEmpty() {
-    return mapValues.isEmpty();
+    return values.size() == 0;
   }
 
   public Set<Map.Entry<T, Integer>> entrySet() {
-    return mapValues.entrySet();
+    return values.entrySet();
+  }
+
+  private void writeObject(final ObjectOutputStream out) throws IOException {
+    final ObjectOutputStream.PutField fields = out.putFields();
+    fields.put(SERIALIZED_VALUES_FIELD, toMap());
+    out.writeFields();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    final ObjectInputStream.GetField fields = in.readFields();
+    deserializedValues = (Map<T, Integer>) fields.get(SERIALIZED_VALUES_FIELD, null);
+  }
+
+  private Object readResolve() {
+    return (deserializedValues == null) ? new IntegerMap<>() : new IntegerMap<>(deserializedValues);
   }
 
   @Override
   public String toString() {
     final StringBuilder buf = new StringBuilder();
     buf.append("IntegerMap:\n");
-    final Iterator<T> iter = mapValues.keySet().iterator();
+    final Iterator<T> iter = values.keySet().iterator();
     if (!iter.hasNext()) {
       buf.append("empty\n");
     }
@@ -272,7 +300,7 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(mapValues);
+    return values.hashCode();
   }
 
   /**
@@ -289,6 +317,6 @@ public final class IntegerMap<T> implements Cloneable, Serializable {
     }
 
     final IntegerMap<?> other = (IntegerMap<?>) o;
-    return mapValues.equals(other.mapValues);
+    return values.equals(other.values);
   }
 }
@@ -0,0 +1,418 @@
+package games.strategy.util;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An open addressing hash table mapping objects to primitive ints, used to back {@link IntegerMap} without boxing.
+ *
+ * <p>
+ * Keys and values are kept in parallel arrays whose length is a power of two, and collisions are resolved by linear
+ * probing. Removed keys leave a tombstone behind, so slots never move while the table is being iterated, and the
+ * tombstones are dropped the next time the table is rehashed. Slots may be walked directly with {@link #capacity()},
+ * {@link #isUsed(int)}, {@link #keyAt(int)} and {@link #valueAt(int)}, which allocates nothing.
+ * </p>
+ *
+ * <p>
+ * Instances are not thread safe.
+ * </p>
+ *
+ * @param <T> The type of the table key.
+ */
+final class ObjectIntHashTable<T> {
+  private static final int DEFAULT_EXPECTED_SIZE = 8;
+  private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+  // linear probing degrades quickly as the table fills up
+  private static final float MAX_LOAD_FACTOR = 0.75f;
+  private static final int MAX_CAPACITY = 1 << 30;
+  // stands in for a null key, since null marks an empty slot
+  private static final Object NULL_KEY = new Object();
+  private static final Object REMOVED = new Object();
+
+  private Object[] keys;
+  private int[] values;
+  private int size;
+  // number of slots holding either a key or a tombstone
+  private int usedSlots;
+  private final float loadFactor;
+  private int modCount;
+
+  ObjectIntHashTable() {
+    this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR);
+  }
+
+  ObjectIntHashTable(final int expectedSize) {
+    this(expectedSize, DEFAULT_LOAD_FACTOR);
+  }
+
+  ObjectIntHashTable(final int expectedSize, final float loadFactor) {
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("Illegal size: " + expectedSize);
+    }
+    if (!(loadFactor > 0)) {
+      throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+    }
+    this.loadFactor = Math.min(loadFactor, MAX_LOAD_FACTOR);
+    final int capacity = capacityFor(expectedSize, this.loadFactor);
+    keys = new Object[capacity];
+    values = new int[capacity];
+  }
+
+  ObjectIntHashTable(final ObjectIntHashTable<T> other) {
+    loadFactor = other.loadFactor;
+    keys = other.keys.clone();
+    values = other.values.clone();
+    size = other.size;
+    usedSlots = other.usedSlots;
+  }
+
+  private static int capacityFor(final int expectedSize, final float loadFactor) {
+    final long minCapacity = (long) Math.ceil(expectedSize / (double) loadFactor);
+    if (minCapacity >= MAX_CAPACITY) {
+      return MAX_CAPACITY;
+    }
+    return Integer.highestOneBit(Math.max(1, (int) minCapacity - 1)) << 1;
+  }
+
+  private static int hash(final Object maskedKey) {
+    final int h = maskedKey.hashCode() * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private static Object mask(final Object key) {
+    return (key == null) ? NULL_KEY : key;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T unmask(final Object maskedKey) {
+    return (maskedKey == NULL_KEY) ? null : (T) maskedKey;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * @return The index of the slot holding the specified key, or -1 if the key is not in the table.
+   */
+  int indexOf(final Object key) {
+    final Object maskedKey = mask(key);
+    final int mask = keys.length - 1;
+    int index = hash(maskedKey) & mask;
+    for (int probes = 0; probes < keys.length; probes++) {
+      final Object current = keys[index];
+      if (current == null) {
+        return -1;
+      } else if (current == maskedKey || (current != REMOVED && current.equals(maskedKey))) {
+        return index;
+      }
+      index = (index + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * @return The value of the specified key, or 0 if the key is not in the table.
+   */
+  int get(final Object key) {
+    final int index = indexOf(key);
+    return (index < 0) ? 0 : values[index];
+  }
+
+  void put(final T key, final int value) {
+    final int index = indexOf(key);
+    if (index >= 0) {
+      values[index] = value;
+    } else {
+      insert(key, value);
+    }
+  }
+
+  void add(final T key, final int value) {
+    final int index = indexOf(key);
+    if (index >= 0) {
+      values[index] += value;
+    } else {
+      insert(key, value);
+    }
+  }
+
+  private void insert(final T key, final int value) {
+    if (usedSlots + 1 > keys.length * loadFactor) {
+      // grow only if the live keys need it; otherwise rehashing at the same size just clears out tombstones
+      rehash((size + 1 > keys.length * loadFactor) ? Math.min(keys.length * 2, MAX_CAPACITY) : keys.length);
+    }
+    final Object maskedKey = mask(key);
+    final int mask = keys.length - 1;
+    int index = hash(maskedKey) & mask;
+    while (keys[index] != null && keys[index] != REMOVED) {
+      index = (index + 1) & mask;
+    }
+    if (keys[index] == null) {
+      usedSlots++;
+    }
+    keys[index] = maskedKey;
+    values[index] = value;
+    size++;
+    modCount++;
+  }
+
+  private void rehash(final int capacity) {
+    final Object[] oldKeys = keys;
+    final int[] oldValues = values;
+    keys = new Object[capacity];
+    values = new int[capacity];
+    final int mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      final Object maskedKey = oldKeys[i];
+      if (maskedKey != null && maskedKey != REMOVED) {
+        int index = hash(maskedKey) & mask;
+        while (keys[index] != null) {
+          index = (index + 1) & mask;
+        }
+        keys[index] = maskedKey;
+        values[index] = oldValues[i];
+      }
+    }
+    usedSlots = size;
+    modCount++;
+  }
+
+  void remove(final Object key) {
+    final int index = indexOf(key);
+    if (index >= 0) {
+      removeAt(index);
+    }
+  }
+
+  private void removeAt(final int index) {
+    keys[index] = REMOVED;
+    values[index] = 0;
+    size--;
+    modCount++;
+  }
+
+  void clear() {
+    Arrays.fill(keys, null);
+    Arrays.fill(values, 0);
+    size = 0;
+    usedSlots = 0;
+    modCount++;
+  }
+
+  /**
+   * @return The number of slots in the table, some of which may be empty.
+   */
+  int capacity() {
+    return keys.length;
+  }
+
+  boolean isUsed(final int index) {
+    return keys[index] != null && keys[index] != REMOVED;
+  }
+
+  T keyAt(final int index) {
+    return unmask(keys[index]);
+  }
+
+  int valueAt(final int index) {
+    return values[index];
+  }
+
+  void setValueAt(final int index, final int value) {
+    values[index] = value;
+  }
+
+  /**
+   * @return A view of the keys in the table that supports removal.
+   */
+  Set<T> keySet() {
+    return new AbstractSet<T>() {
+      @Override
+      public Iterator<T> iterator() {
+        return new SlotIterator<T>() {
+          @Override
+          T next(final int index) {
+            return keyAt(index);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public boolean contains(final Object o) {
+        return indexOf(o) >= 0;
+      }
+
+      @Override
+      public boolean remove(final Object o) {
+        final int index = indexOf(o);
+        if (index < 0) {
+          return false;
+        }
+        removeAt(index);
+        return true;
+      }
+    };
+  }
+
+  /**
+   * @return A view of the entries in the table that supports removal and writes through {@link Map.Entry#setValue}.
+   */
+  Set<Map.Entry<T, Integer>> entrySet() {
+    return new AbstractSet<Map.Entry<T, Integer>>() {
+      @Override
+      public Iterator<Map.Entry<T, Integer>> iterator() {
+        return new SlotIterator<Map.Entry<T, Integer>>() {
+          @Override
+          Map.Entry<T, Integer> next(final int index) {
+            return new Entry(index);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private abstract class SlotIterator<E> implements Iterator<E> {
+    private int nextIndex = findUsed(0);
+    private int lastIndex = -1;
+    private int expectedModCount = modCount;
+
+    private int findUsed(final int start) {
+      for (int i = start; i < keys.length; i++) {
+        if (isUsed(i)) {
+          return i;
+        }
+      }
+      return keys.length;
+    }
+
+    abstract E next(int index);
+
+    @Override
+    public boolean hasNext() {
+      return nextIndex < keys.length;
+    }
+
+    @Override
+    public E next() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      lastIndex = nextIndex;
+      nextIndex = findUsed(nextIndex + 1);
+      return next(lastIndex);
+    }
+
+    @Override
+    public void remove() {
+      if (lastIndex < 0 || !isUsed(lastIndex)) {
+        throw new IllegalStateException();
+      }
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      removeAt(lastIndex);
+      expectedModCount = modCount;
+    }
+  }
+
+  private final class Entry implements Map.Entry<T, Integer> {
+    private final int index;
+
+    Entry(final int index) {
+      this.index = index;
+    }
+
+    @Override
+    public T getKey() {
+      return keyAt(index);
+    }
+
+    @Override
+    public Integer getValue() {
+      return values[index];
+    }
+
+    @Override
+    public Integer setValue(final Integer value) {
+      final int oldValue = values[index];
+      values[index] = value;
+      return oldValue;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      final Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+      return Objects.equals(getKey(), other.getKey()) && getValue().equals(other.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(getKey()) ^ values[index];
+    }
+
+    @Override
+    public String toString() {
+      return getKey() + "=" + values[index];
+    }
+  }
+
+  /**
+   * Uses the same formula as {@link java.util.HashMap#hashCode()} for an equivalent map.
+   */
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (isUsed(i)) {
+        hashCode += Objects.hashCode(keyAt(i)) ^ values[i];
+      }
+    }
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    } else if (!(o instanceof ObjectIntHashTable)) {
+      return false;
+    }
+
+    final ObjectIntHashTable<?> other = (ObjectIntHashTable<?>) o;
+    if (size != other.size) {
+      return false;
+    }
+    for (int i = 0; i < keys.length; i++) {
+      if (isUsed(i)) {
+        final int otherIndex = other.indexOf(keyAt(i));
+        if (otherIndex < 0 || other.values[otherIndex] != values[i]) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,51 @@
+package games.strategy.engine.chat;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.message.RemoteMethodCall;
+import games.strategy.net.INode;
+
+public final class ChatControllerTest {
+  private static RemoteMethodCall newChatChannelCall(final String methodName, final Object[] args,
+      final Class<?>[] argTypes) {
+    return new RemoteMethodCall(ChatController.getChatChannelName("chat"), methodName, args, argTypes,
+        IChatChannel.class);
+  }
+
+  @Test
+  public void isChatMessageCall_ShouldReturnTrueForChatMessages() {
+    assertThat(ChatController.isChatMessageCall(
+        newChatChannelCall("chatOccured", new Object[] {"hello"}, new Class<?>[] {String.class})), is(true));
+    assertThat(ChatController.isChatMessageCall(newChatChannelCall("ping", null, new Class<?>[0])), is(true));
+  }
+
+  @Test
+  public void isChatMessageCall_ShouldReturnFalseForChangesToTheChatters() {
+    assertThat(ChatController.isChatMessageCall(newChatChannelCall("speakerRemoved", new Object[] {null, 1L},
+        new Class<?>[] {INode.class, long.class})), is(false));
+  }
+
+  @Test
+  public void isChatMessageCall_ShouldNotResolveTheCall() throws Exception {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      newChatChannelCall("chatOccured", new Object[] {"hello"}, new Class<?>[] {String.class}).writeExternal(out);
+    }
+    final RemoteMethodCall call = new RemoteMethodCall();
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      call.readExternal(in);
+    }
+
+    assertThat(ChatController.isChatMessageCall(call), is(true));
+    assertThat(call.getMethodName(), is(nullValue()));
+  }
+}
@@ -40,6 +40,16 @@ public class LobbyPropertyReaderTest {
     assertThat(lobbyPropertyReader.getPostgresPassword(), is(value));
   }
 
+  @Test
+  public void getNioReactorCount() {
+    assertThat(newLobbyPropertyReader(PropertyKeys.NIO_REACTORS, "4").getNioReactorCount(), is(4));
+  }
+
+  @Test
+  public void getNioReactorCount_ShouldReturnOneWhenNotSet() {
+    assertThat(newLobbyPropertyReader(PropertyKeys.NIO_REACTORS, "").getNioReactorCount(), is(1));
+  }
+
   @Test
   public void isMaintenanceMode_ShouldReturnTrueWhenMaintenanceModeEnabled() {
     Arrays.asList("true", "TRUE")
@@ -238,4 +238,20 @@ public class MapTest {
     assertTrue(neighbors.contains(bb));
     assertTrue(neighbors.contains(ca));
   }
+
+  @Test
+  public void testDistanceIsUpdatedWhenConnectionIsAdded() {
+    assertEquals(-1, map.getLandDistance(ad, cd));
+    map.addConnection(ad, cd);
+    assertEquals(1, map.getLandDistance(ad, cd));
+    assertEquals(2, map.getDistance(ac, cd));
+  }
+
+  @Test
+  public void testTerritoryIndex() {
+    assertEquals(0, map.getTerritoryIndex(aa));
+    assertEquals(15, map.getTerritoryIndex(dd));
+    assertEquals(map.getTerritoryIndex(cd), map.getTerritoryIndex(new Territory("cd", false, null)));
+    assertEquals(-1, map.getTerritoryIndex(new Territory("nowhere", false, null)));
+  }
 }
@@ -0,0 +1,46 @@
+package games.strategy.engine.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.triplea.settings.AbstractClientSettingTestCase;
+
+public class AutoSaveWriterTest extends AbstractClientSettingTestCase {
+  @Test
+  public void autoSaveShouldWriteLoadableSaveGame() throws IOException {
+    final File file = File.createTempFile("autoSaveWriterTest", ".tsvg");
+    try {
+      final GameData data = new GameData();
+      final AutoSaveWriter autoSaveWriter = new AutoSaveWriter();
+
+      autoSaveWriter.autoSave(data, file);
+      autoSaveWriter.shutdown(10, TimeUnit.SECONDS);
+
+      final GameData loaded = GameDataManager.loadGame(file);
+      assertEquals(data.getProperties().get(GameData.GAME_UUID), loaded.getProperties().get(GameData.GAME_UUID));
+      assertFalse(new File(file.getParentFile(), file.getName() + ".tmp").exists());
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void autoSaveShouldNotThrowAfterShutdown() throws IOException {
+    final File file = File.createTempFile("autoSaveWriterTest", ".tsvg");
+    try {
+      final AutoSaveWriter autoSaveWriter = new AutoSaveWriter();
+      autoSaveWriter.shutdown(10, TimeUnit.SECONDS);
+
+      autoSaveWriter.autoSave(new GameData(), file);
+    } finally {
+      file.delete();
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package games.strategy.engine.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.ClientContext;
+import games.strategy.engine.data.Change;
+import games.strategy.engine.data.CompositeChange;
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.Unit;
+import games.strategy.engine.data.changefactory.ChangeFactory;
+import games.strategy.triplea.TripleAUnit;
+import games.strategy.triplea.delegate.GameDataTestUtil;
+import games.strategy.triplea.xml.TestMapGameData;
+
+public class ChangeBatcherTest {
+  private GameData gameData;
+  private Territory can;
+  private TripleAUnit first;
+  private TripleAUnit second;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    ClientContext.gameEnginePropertyReader();
+    gameData = TestMapGameData.BIG_WORLD_1942.getGameData();
+    can = gameData.getMap().getTerritory("Western Canada");
+    final List<Unit> units = new ArrayList<>(can.getUnits().getUnits());
+    first = TripleAUnit.get(units.get(0));
+    second = TripleAUnit.get(units.get(1));
+  }
+
+  private static List<Change> changesOf(final Change change) {
+    return (change instanceof CompositeChange)
+        ? ((CompositeChange) change).getChanges()
+        : Collections.singletonList(change);
+  }
+
+  @Test
+  public void shouldMergePropertyChangesToTheSamePropertyOfTheSameObject() {
+    final ChangeBatcher batcher = new ChangeBatcher();
+    batcher.add(ChangeFactory.unitPropertyChange(first, 1, TripleAUnit.ALREADY_MOVED));
+    batcher.add(ChangeFactory.unitPropertyChange(second, 1, TripleAUnit.ALREADY_MOVED));
+    batcher.add(ChangeFactory.unitPropertyChange(first, 2, TripleAUnit.ALREADY_MOVED));
+
+    final Change batch = batcher.takeChanges();
+
+    assertEquals(2, changesOf(batch).size());
+    gameData.performChange(batch);
+    assertEquals(2, first.getAlreadyMoved());
+    assertEquals(1, second.getAlreadyMoved());
+    gameData.performChange(batch.invert());
+    assertEquals(0, first.getAlreadyMoved());
+    assertEquals(0, second.getAlreadyMoved());
+    assertTrue(batcher.isEmpty());
+  }
+
+  @Test
+  public void shouldNotMergePropertyChangesAcrossOtherChanges() {
+    final ChangeBatcher batcher = new ChangeBatcher();
+    batcher.add(ChangeFactory.unitPropertyChange(first, 1, TripleAUnit.ALREADY_MOVED));
+    batcher.add(ChangeFactory.addUnits(can, GameDataTestUtil.infantry(gameData).create(1, null)));
+    batcher.add(ChangeFactory.unitPropertyChange(first, 2, TripleAUnit.ALREADY_MOVED));
+
+    assertEquals(3, changesOf(batcher.takeChanges()).size());
+  }
+}
@@ -1,14 +1,21 @@
 package games.strategy.engine.framework;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.jupiter.api.Test;
 
+import com.google.common.io.ByteStreams;
+
 import games.strategy.engine.data.GameData;
 import games.strategy.io.IoUtils;
 import games.strategy.triplea.settings.AbstractClientSettingTestCase;
+import games.strategy.triplea.xml.TestMapGameData;
 
 public class GameDataManagerTest extends AbstractClientSettingTestCase {
   @Test
@@ -18,4 +25,19 @@ public class GameDataManagerTest extends AbstractClientSettingTestCase {
     final GameData loaded = IoUtils.readFromMemory(bytes, GameDataManager::loadGame);
     assertEquals(loaded.getProperties().get(GameData.GAME_UUID), data.getProperties().get(GameData.GAME_UUID));
   }
+
+  @Test
+  public void saveGameShouldWriteAGzipStreamThatLoadGameReadsBack() throws Exception {
+    final GameData data = TestMapGameData.REVISED.getGameData();
+
+    final byte[] bytes = IoUtils.writeToMemory(os -> GameDataManager.saveGame(os, data));
+
+    // a plain GZIP stream of the object stream, so that older engines can still read it
+    final byte[] uncompressed = ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(bytes)));
+    assertThat(uncompressed, is(GameDataManager.writeToMemory(data, true)));
+    final GameData loaded = GameDataManager.loadGame(new ByteArrayInputStream(bytes));
+    assertThat(loaded.getGameName(), is(data.getGameName()));
+    assertThat(loaded.getMap().getTerritories().size(), is(data.getMap().getTerritories().size()));
+    assertThat(loaded.getSequence().getStep().getName(), is(data.getSequence().getStep().getName()));
+  }
 }
@@ -0,0 +1,26 @@
+package games.strategy.engine.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.triplea.settings.AbstractClientSettingTestCase;
+
+public class GameDataSnapshotTest extends AbstractClientSettingTestCase {
+  @Test
+  public void newGameDataShouldReturnIndependentCopiesOfSource() throws IOException {
+    final GameData data = new GameData();
+    final GameDataSnapshot snapshot = GameDataSnapshot.of(data, false);
+
+    final GameData first = snapshot.newGameData();
+    final GameData second = snapshot.newGameData();
+
+    assertNotSame(first, second);
+    assertEquals(data.getProperties().get(GameData.GAME_UUID), first.getProperties().get(GameData.GAME_UUID));
+    assertEquals(data.getProperties().get(GameData.GAME_UUID), second.getProperties().get(GameData.GAME_UUID));
+  }
+}
@@ -0,0 +1,60 @@
+package games.strategy.engine.framework;
+
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.experimental.extensions.MockitoExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+
+import games.strategy.engine.data.Change;
+import games.strategy.engine.data.PlayerID;
+import games.strategy.engine.data.changefactory.ChangeFactory;
+import games.strategy.io.IoUtils;
+
+@ExtendWith(MockitoExtension.class)
+public final class GameModificationTest {
+  @Mock
+  private IGameModifiedChannel channel;
+
+  @Test
+  public void replayShouldMakeTheRecordedCall() {
+    final Change change = ChangeFactory.EMPTY_CHANGE;
+    final PlayerID player = PlayerID.NULL_PLAYERID;
+
+    GameModification.gameDataChanged(change).replay(channel);
+    GameModification.startHistoryEvent("event", "renderingData").replay(channel);
+    GameModification.addChildToEvent("text", null).replay(channel);
+    GameModification.stepChanged("step", "delegate", player, 2, "Step", true).replay(channel);
+
+    verify(channel).gameDataChanged(change);
+    verify(channel).startHistoryEvent("event", "renderingData");
+    verify(channel).addChildToEvent("text", null);
+    verify(channel).stepChanged("step", "delegate", player, 2, "Step", true);
+  }
+
+  @Test
+  public void replayShouldMakeTheRecordedCallAfterSerialization() throws Exception {
+    final GameModification modification = GameModification.startHistoryEvent("event", null);
+
+    final byte[] bytes = IoUtils.writeToMemory(os -> {
+      try (ObjectOutputStream oos = new ObjectOutputStream(os)) {
+        oos.writeObject(modification);
+      }
+    });
+    final GameModification deserialized = IoUtils.readFromMemory(bytes, is -> {
+      try (ObjectInputStream ois = new ObjectInputStream(is)) {
+        return (GameModification) ois.readObject();
+      } catch (final ClassNotFoundException e) {
+        throw new IOException(e);
+      }
+    });
+    deserialized.replay(channel);
+
+    verify(channel).startHistoryEvent("event", null);
+  }
+}
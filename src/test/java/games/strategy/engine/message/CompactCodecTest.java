@@ -0,0 +1,63 @@
+package games.strategy.engine.message;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import games.strategy.io.IoUtils;
+
+public final class CompactCodecTest {
+  private static byte[] writeValue(final Object value) throws IOException {
+    return IoUtils.writeToMemory(os -> {
+      try (ObjectOutputStream oos = new ObjectOutputStream(os)) {
+        CompactCodec.writeValue(oos, value);
+      }
+    });
+  }
+
+  private static Object readValue(final byte[] bytes) throws IOException {
+    return IoUtils.readFromMemory(bytes, is -> {
+      try (ObjectInputStream ois = new ObjectInputStream(is)) {
+        return CompactCodec.readValue(ois);
+      } catch (final ClassNotFoundException e) {
+        throw new IOException(e);
+      }
+    });
+  }
+
+  private static Object roundTrip(final Object value) throws IOException {
+    return readValue(writeValue(value));
+  }
+
+  @Test
+  public void shouldRoundTripValuesOfRegisteredTypes() throws Exception {
+    for (final Object value : Arrays.asList(null, true, false, 0, -1, 300, Integer.MIN_VALUE, Integer.MAX_VALUE,
+        Long.MIN_VALUE, 5L, "", "some chat message")) {
+      assertThat(roundTrip(value), is(value));
+    }
+  }
+
+  @Test
+  public void shouldRoundTripValuesOfOtherTypes() throws Exception {
+    assertThat(roundTrip(Arrays.asList("a", 1)), is(Arrays.asList("a", 1)));
+    assertThat(roundTrip(2.5), is(2.5));
+  }
+
+  @Test
+  public void shouldWriteSmallIntegersInFewerBytesThanJavaSerialization() throws Exception {
+    final byte[] serialized = IoUtils.writeToMemory(os -> {
+      try (ObjectOutputStream oos = new ObjectOutputStream(os)) {
+        oos.writeObject(42);
+      }
+    });
+
+    assertThat(writeValue(42).length, is(lessThan(serialized.length)));
+  }
+}
@@ -5,6 +5,12 @@ import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import org.junit.jupiter.api.Test;
 
 public final class RemoteMethodCallTest {
@@ -59,4 +65,18 @@ public final class RemoteMethodCallTest {
         assertThrows(IllegalStateException.class, () -> RemoteMethodCall.stringToClass("some.unknown.Type", null));
     assertThat(e.getCause(), is(instanceOf(ClassNotFoundException.class)));
   }
+
+  @Test
+  public void readCompact_ShouldThrowExceptionWhenArgumentCountIsTooLarge() throws Exception {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeUTF("remote");
+      CompactCodec.writeVarInt(out, 0);
+      CompactCodec.writeVarInt(out, Integer.MAX_VALUE);
+    }
+
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      assertThrows(IOException.class, () -> new RemoteMethodCall().readCompact(in));
+    }
+  }
 }
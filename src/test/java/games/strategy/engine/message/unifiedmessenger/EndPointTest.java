@@ -1,9 +1,18 @@
 package games.strategy.engine.message.unifiedmessenger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 
@@ -23,4 +32,50 @@ public class EndPointTest {
     assertEquals(results.size(), 1);
     assertEquals(2, (results.iterator().next()).getRVal());
   }
+
+  @Test
+  public void testExecuteRunsTasksOfSingleThreadedEndPointInOrder() throws Exception {
+    final EndPoint endPoint = new EndPoint("", Comparator.class, true);
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final int taskCount = 1000;
+      final List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+      final CountDownLatch done = new CountDownLatch(taskCount);
+      for (int i = 0; i < taskCount; i++) {
+        final int task = i;
+        endPoint.execute(executor, number -> {
+          order.add(task);
+          done.countDown();
+        });
+      }
+      assertTrue(done.await(10, TimeUnit.SECONDS));
+      assertEquals(IntStream.range(0, taskCount).boxed().collect(Collectors.toList()), order);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testExecuteFromSeveralThreadsRunsEveryInvocation() throws Exception {
+    final EndPoint endPoint = new EndPoint("", Comparator.class, true);
+    endPoint.addImplementor((Comparator<Object>) (o1, o2) -> 0);
+    final RemoteMethodCall call = new RemoteMethodCall("", "compare", new Object[] {"", ""},
+        TestUtil.getClassArrayFrom(Object.class, Object.class), Comparator.class);
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    final ExecutorService callers = Executors.newFixedThreadPool(4);
+    try {
+      final int taskCount = 1000;
+      final CountDownLatch done = new CountDownLatch(taskCount);
+      for (int i = 0; i < taskCount; i++) {
+        callers.execute(() -> endPoint.execute(executor, number -> {
+          endPoint.invokeLocal(call, number, null);
+          done.countDown();
+        }));
+      }
+      assertTrue(done.await(10, TimeUnit.SECONDS));
+    } finally {
+      callers.shutdown();
+      executor.shutdown();
+    }
+  }
 }
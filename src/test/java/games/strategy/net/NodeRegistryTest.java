@@ -0,0 +1,81 @@
+package games.strategy.net;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+
+import java.net.InetAddress;
+import java.nio.channels.SocketChannel;
+import java.util.Collection;
+
+import org.junit.jupiter.api.Test;
+
+public final class NodeRegistryTest {
+  private final NodeRegistry registry = new NodeRegistry();
+  private final INode node1 = newNode("node1", 3300);
+  private final INode node2 = newNode("node2", 3301);
+  private final SocketChannel channel1 = mock(SocketChannel.class);
+  private final SocketChannel channel2 = mock(SocketChannel.class);
+
+  private static INode newNode(final String name, final int port) {
+    return new Node(name, InetAddress.getLoopbackAddress(), port);
+  }
+
+  @Test
+  public void shouldLookUpNodesAndChannels() {
+    registry.add(node1, channel1);
+    registry.add(node2, channel2);
+
+    assertThat(registry.getChannel(node1), is(channel1));
+    assertThat(registry.getNode(channel2), is(node2));
+    assertThat(registry.getNodes(), containsInAnyOrder(node1, node2));
+  }
+
+  @Test
+  public void shouldForgetRemovedNodes() {
+    registry.add(node1, channel1);
+
+    assertThat(registry.remove(node1), is(channel1));
+    assertThat(registry.getChannel(node1), is(nullValue()));
+    assertThat(registry.getNode(channel1), is(nullValue()));
+    assertThat(registry.getChannelsExcept(null), is(empty()));
+    assertThat(registry.remove(node1), is(nullValue()));
+  }
+
+  @Test
+  public void shouldReplaceTheChannelOfANodeAddedAgain() {
+    registry.add(node1, channel1);
+    registry.add(node1, channel2);
+
+    assertThat(registry.getChannel(node1), is(channel2));
+    assertThat(registry.getNode(channel1), is(nullValue()));
+    assertThat(registry.getChannelsExcept(null), contains(channel2));
+  }
+
+  @Test
+  public void getChannelsExceptShouldSkipTheExcludedChannel() {
+    registry.add(node1, channel1);
+    registry.add(node2, channel2);
+
+    final Collection<SocketChannel> channels = registry.getChannelsExcept(channel1);
+
+    assertThat(channels, contains(channel2));
+    assertThat(channels.size(), is(1));
+    assertThat(registry.getChannelsExcept(null), containsInAnyOrder(channel1, channel2));
+  }
+
+  @Test
+  public void getChannelsExceptShouldNotSeeLaterChanges() {
+    registry.add(node1, channel1);
+    final Collection<SocketChannel> channels = registry.getChannelsExcept(null);
+
+    registry.add(node2, channel2);
+    registry.remove(node1);
+
+    assertThat(channels, contains(channel1));
+  }
+}
@@ -0,0 +1,87 @@
+package games.strategy.net;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import games.strategy.debug.ClientLogger;
+import games.strategy.test.TestUtil;
+
+public final class ServerMessengerTest {
+  private static final int REACTOR_COUNT = 4;
+  private static final int CLIENT_COUNT = 2 * REACTOR_COUNT;
+  // well over the number of packets of a socket decoded at once, so each client is decoded in several turns
+  private static final int MESSAGES_PER_CLIENT = 500;
+
+  private final Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+  private final CountDownLatch allReceived = new CountDownLatch(CLIENT_COUNT * MESSAGES_PER_CLIENT);
+  private final List<IMessenger> clientMessengers = new ArrayList<>();
+  private IServerMessenger serverMessenger;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    final int serverPort = TestUtil.getUniquePort();
+    serverMessenger = new ServerMessenger("Server", serverPort, new DefaultObjectStreamFactory(), REACTOR_COUNT);
+    serverMessenger.setAcceptNewConnections(true);
+    serverMessenger.addMessageListener((msg, from) -> {
+      received.computeIfAbsent(from.getName(), name -> Collections.synchronizedList(new ArrayList<>()))
+          .add((Integer) msg);
+      allReceived.countDown();
+    });
+    final String mac = MacFinder.getHashedMacAddress();
+    for (int i = 0; i < CLIENT_COUNT; i++) {
+      clientMessengers.add(new ClientMessenger("localhost", serverPort, "client" + i, mac));
+    }
+  }
+
+  @AfterEach
+  public void tearDown() {
+    for (final IMessenger clientMessenger : clientMessengers) {
+      try {
+        clientMessenger.shutDown();
+      } catch (final Exception e) {
+        ClientLogger.logQuietly(e);
+      }
+    }
+    try {
+      serverMessenger.shutDown();
+    } catch (final Exception e) {
+      ClientLogger.logQuietly(e);
+    }
+  }
+
+  @Test
+  public void messagesOfEachClientShouldBeReceivedInOrderWithSeveralReactors() throws Exception {
+    final List<Thread> senders = new ArrayList<>();
+    for (final IMessenger clientMessenger : clientMessengers) {
+      senders.add(new Thread(() -> {
+        for (int i = 0; i < MESSAGES_PER_CLIENT; i++) {
+          clientMessenger.send(i, clientMessenger.getServerNode());
+        }
+      }));
+    }
+    senders.forEach(Thread::start);
+
+    assertTrue(allReceived.await(30, TimeUnit.SECONDS));
+    final List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < MESSAGES_PER_CLIENT; i++) {
+      expected.add(i);
+    }
+    assertThat(received.size(), is(CLIENT_COUNT));
+    for (final List<Integer> messages : received.values()) {
+      assertThat(messages, is(expected));
+    }
+  }
+}
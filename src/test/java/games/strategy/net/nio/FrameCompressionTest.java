@@ -0,0 +1,49 @@
+package games.strategy.net.nio;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public final class FrameCompressionTest {
+  private static byte[] toArray(final ByteBuffer buffer) {
+    final byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  @Test
+  public void shouldRoundTripCompressibleContent() throws Exception {
+    final byte[] content = new byte[FrameCompression.DEFAULT_THRESHOLD * 4];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) (i % 7);
+    }
+
+    final byte[] compressed = toArray(FrameCompression.compress(ByteBuffer.wrap(content)));
+
+    assertThat(compressed.length, is(lessThan(content.length)));
+    assertThat(FrameCompression.decompress(compressed), is(content));
+  }
+
+  @Test
+  public void shouldNotCompressIncompressibleContent() {
+    final byte[] content = new byte[FrameCompression.DEFAULT_THRESHOLD];
+    new Random(42).nextBytes(content);
+
+    assertThat(FrameCompression.compress(ByteBuffer.wrap(content)), is(nullValue()));
+  }
+
+  @Test
+  public void shouldRejectCorruptContent() {
+    final byte[] corrupt = ByteBuffer.allocate(8).putInt(100).putInt(-1).array();
+
+    assertThrows(IOException.class, () -> FrameCompression.decompress(corrupt));
+  }
+}
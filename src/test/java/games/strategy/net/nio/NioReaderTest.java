@@ -0,0 +1,115 @@
+package games.strategy.net.nio;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Reads loopback sockets with several reactors, recording which reactor thread read each packet.
+ */
+public final class NioReaderTest {
+  private static final int REACTOR_COUNT = 4;
+  private static final int CHANNEL_COUNT = 2 * REACTOR_COUNT;
+  private static final int PACKETS_PER_CHANNEL = 1000;
+
+  private final ErrorReporter errorReporter = mock(ErrorReporter.class);
+  private final Decoder decoder = mock(Decoder.class);
+  private final Map<SocketChannel, List<Integer>> packets = new ConcurrentHashMap<>();
+  private final Map<SocketChannel, Set<String>> threads = new ConcurrentHashMap<>();
+  private final CountDownLatch allRead = new CountDownLatch(CHANNEL_COUNT * PACKETS_PER_CHANNEL);
+  private final List<SocketChannel> clients = new ArrayList<>();
+  private final List<SocketChannel> channels = new ArrayList<>();
+  private ServerSocketChannel server;
+  private NioReader reader;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    doAnswer(invocation -> {
+      final SocketReadData data = invocation.getArgument(0);
+      packets.computeIfAbsent(data.getChannel(), c -> Collections.synchronizedList(new ArrayList<>()))
+          .add(ByteBuffer.wrap(data.getData()).getInt());
+      threads.computeIfAbsent(data.getChannel(), c -> ConcurrentHashMap.newKeySet())
+          .add(Thread.currentThread().getName());
+      allRead.countDown();
+      return null;
+    }).when(decoder).packetRead(any());
+    server = ServerSocketChannel.open();
+    server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    reader = new NioReader(errorReporter, decoder, "Test", REACTOR_COUNT);
+    for (int i = 0; i < CHANNEL_COUNT; i++) {
+      clients.add(SocketChannel.open(server.getLocalAddress()));
+      final SocketChannel channel = server.accept();
+      channel.configureBlocking(false);
+      channels.add(channel);
+      reader.add(channel);
+    }
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    reader.shutDown();
+    for (final SocketChannel channel : clients) {
+      channel.close();
+    }
+    for (final SocketChannel channel : channels) {
+      channel.close();
+    }
+    server.close();
+  }
+
+  private static ByteBuffer frames(final int count) {
+    final ByteBuffer buffer = ByteBuffer.allocate(count * 8);
+    for (int i = 0; i < count; i++) {
+      buffer.putInt(4 ^ SocketReadData.MAGIC);
+      buffer.putInt(i);
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  @Test
+  public void readShouldSpreadTheChannelsOverTheReactorsAndKeepThePacketsOfEachChannelInOrder() throws Exception {
+    for (final SocketChannel client : clients) {
+      final ByteBuffer buffer = frames(PACKETS_PER_CHANNEL);
+      while (buffer.hasRemaining()) {
+        client.write(buffer);
+      }
+    }
+
+    assertTrue(allRead.await(10, TimeUnit.SECONDS));
+    final List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < PACKETS_PER_CHANNEL; i++) {
+      expected.add(i);
+    }
+    final Set<String> allThreads = new HashSet<>();
+    for (final SocketChannel channel : channels) {
+      assertThat(packets.get(channel), is(expected));
+      assertThat(threads.get(channel), hasSize(1));
+      allThreads.addAll(threads.get(channel));
+    }
+    assertThat(allThreads, hasSize(REACTOR_COUNT));
+  }
+}
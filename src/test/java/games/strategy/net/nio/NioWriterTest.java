@@ -0,0 +1,181 @@
+package games.strategy.net.nio;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Writes to a loopback socket whose remote end does not read until told to, with socket buffers much smaller than the
+ * large packets written, so a large packet stays queued until the remote end reads it.
+ */
+public final class NioWriterTest {
+  private static final int SOCKET_BUFFER_SIZE = 64 * 1024;
+  private static final int LIMIT = 1024 * 1024;
+  private static final int LARGE_PACKET_SIZE = 2 * LIMIT;
+  private static final long WAIT_MILLIS = 10 * 1000;
+
+  private final ErrorReporter errorReporter = mock(ErrorReporter.class);
+  private ServerSocketChannel server;
+  private SocketChannel channel;
+  private SocketChannel remote;
+  private NioWriter writer;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    server = ServerSocketChannel.open();
+    server.socket().setReceiveBufferSize(SOCKET_BUFFER_SIZE);
+    server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    channel = SocketChannel.open();
+    channel.socket().setSendBufferSize(SOCKET_BUFFER_SIZE);
+    channel.connect(server.getLocalAddress());
+    channel.configureBlocking(false);
+    remote = server.accept();
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    if (writer != null) {
+      writer.shutDown();
+    }
+    channel.close();
+    remote.close();
+    server.close();
+  }
+
+  private void givenWriter(final WriteQueuePolicy policy, final long maxBackpressureWaitMillis) {
+    writer = new NioWriter(errorReporter, "test", policy, LIMIT, maxBackpressureWaitMillis);
+  }
+
+  private void givenWriter(final WriteQueuePolicy policy) {
+    givenWriter(policy, WAIT_MILLIS);
+  }
+
+  private static SocketWriteData newPacket(final int contentSize, final boolean droppable) {
+    return new SocketWriteData(ByteBuffer.allocate(contentSize), false, droppable);
+  }
+
+  /**
+   * Queues a packet over the limit, which is queued since nothing else is.
+   */
+  private void givenLargePacketQueued() {
+    writer.enque(newPacket(LARGE_PACKET_SIZE, false), channel);
+    assertThat(writer.getBytesInFlight(channel), is(LARGE_PACKET_SIZE + 4L));
+  }
+
+  private void readFromRemote(final long bytes) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(SOCKET_BUFFER_SIZE);
+    long read = 0;
+    while (read < bytes) {
+      buffer.clear();
+      buffer.limit((int) Math.min(buffer.capacity(), bytes - read));
+      final int count = remote.read(buffer);
+      if (count < 0) {
+        throw new IOException("end of stream");
+      }
+      read += count;
+    }
+  }
+
+  private void awaitBytesInFlight(final long expected) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+    while (writer.getBytesInFlight(channel) != expected && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(writer.getBytesInFlight(channel), is(expected));
+  }
+
+  @Test
+  public void shouldCountQueuedBytesUntilTheyAreWritten() throws Exception {
+    givenWriter(WriteQueuePolicy.DISCONNECT);
+    givenLargePacketQueued();
+
+    readFromRemote(LARGE_PACKET_SIZE / 2);
+    assertThat("a partly written packet is counted in full", writer.getBytesInFlight(channel),
+        is(LARGE_PACKET_SIZE + 4L));
+    readFromRemote(LARGE_PACKET_SIZE / 2 + 4);
+
+    awaitBytesInFlight(0);
+    verify(errorReporter, never()).error(any(), any());
+  }
+
+  @Test
+  public void dropChatShouldDropOnlyDroppablePacketsOverTheLimit() throws Exception {
+    givenWriter(WriteQueuePolicy.DROP_CHAT);
+    givenLargePacketQueued();
+
+    writer.enque(newPacket(100, true), channel);
+    assertThat(writer.getBytesInFlight(channel), is(LARGE_PACKET_SIZE + 4L));
+    writer.enque(newPacket(100, false), channel);
+    assertThat(writer.getBytesInFlight(channel), is(LARGE_PACKET_SIZE + 4L + 104));
+
+    verify(errorReporter, never()).error(any(), any());
+  }
+
+  @Test
+  public void dropChatShouldDisconnectOverTheDisconnectFactorTimesTheLimit() throws Exception {
+    givenWriter(WriteQueuePolicy.DROP_CHAT);
+    givenLargePacketQueued();
+
+    writer.enque(newPacket(WriteQueuePolicy.DROP_CHAT_DISCONNECT_FACTOR * LIMIT - LARGE_PACKET_SIZE, false), channel);
+
+    verify(errorReporter).error(eq(channel), any(IOException.class));
+    assertThat(writer.getBytesInFlight(channel), is(LARGE_PACKET_SIZE + 4L));
+  }
+
+  @Test
+  public void disconnectShouldDisconnectOverTheLimit() throws Exception {
+    givenWriter(WriteQueuePolicy.DISCONNECT);
+    givenLargePacketQueued();
+
+    writer.enque(newPacket(100, false), channel);
+
+    verify(errorReporter).error(eq(channel), any(IOException.class));
+    assertThat(writer.getBytesInFlight(channel), is(LARGE_PACKET_SIZE + 4L));
+  }
+
+  @Test
+  public void backpressureShouldWaitForTheQueueToDrain() throws Exception {
+    givenWriter(WriteQueuePolicy.BACKPRESSURE);
+    givenLargePacketQueued();
+
+    final Thread enqueuing = new Thread(() -> writer.enque(newPacket(100, false), channel));
+    enqueuing.start();
+    enqueuing.join(200);
+    assertTrue(enqueuing.isAlive(), "should wait while the queue is over its limit");
+    readFromRemote(LARGE_PACKET_SIZE + 4);
+    enqueuing.join(WAIT_MILLIS);
+
+    assertThat(enqueuing.isAlive(), is(false));
+    readFromRemote(104);
+    awaitBytesInFlight(0);
+    verify(errorReporter, never()).error(any(), any());
+  }
+
+  @Test
+  public void backpressureShouldDisconnectWhenTheQueueDoesNotDrainInTime() throws Exception {
+    givenWriter(WriteQueuePolicy.BACKPRESSURE, 100);
+    givenLargePacketQueued();
+
+    writer.enque(newPacket(100, false), channel);
+
+    verify(errorReporter, timeout(WAIT_MILLIS)).error(eq(channel), any(IOException.class));
+    assertThat(writer.getBytesInFlight(channel), is(LARGE_PACKET_SIZE + 4L));
+  }
+}
@@ -0,0 +1,113 @@
+package games.strategy.net.nio;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+public final class SocketReadDataTest {
+  private static byte[] frame(final byte[] content) {
+    final ByteBuffer frame = ByteBuffer.allocate(4 + content.length);
+    frame.putInt(content.length ^ SocketReadData.MAGIC);
+    frame.put(content);
+    return frame.array();
+  }
+
+  private static ByteBuffer concat(final byte[]... arrays) {
+    int length = 0;
+    for (final byte[] array : arrays) {
+      length += array.length;
+    }
+    final ByteBuffer buffer = ByteBuffer.allocate(length);
+    for (final byte[] array : arrays) {
+      buffer.put(array);
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  @Test
+  public void readShouldReadAPacketInOneBuffer() throws Exception {
+    final SocketReadData data = new SocketReadData(null);
+
+    assertThat(data.read(ByteBuffer.wrap(frame(new byte[] {1, 2, 3}))), is(true));
+    assertThat(data.getData(), is(new byte[] {1, 2, 3}));
+    assertThat(data.size(), is(7));
+    assertThat(data.isCompressed(), is(false));
+  }
+
+  @Test
+  public void readShouldReadAHeaderSplitAcrossReads() throws Exception {
+    final byte[] frame = frame(new byte[] {1, 2, 3});
+    final SocketReadData data = new SocketReadData(null);
+
+    for (int i = 0; i < 4; i++) {
+      assertThat(data.read(ByteBuffer.wrap(frame, i, 1)), is(false));
+    }
+    assertThat(data.read(ByteBuffer.wrap(frame, 4, 2)), is(false));
+    assertThat(data.read(ByteBuffer.wrap(frame, 6, 1)), is(true));
+    assertThat(data.getData(), is(new byte[] {1, 2, 3}));
+    assertThat(data.getReadCalls(), is(6));
+  }
+
+  @Test
+  public void readShouldLeaveTheBytesOfTheFollowingPacketsInTheBuffer() throws Exception {
+    final ByteBuffer buffer = concat(frame(new byte[] {1}), frame(new byte[] {2, 3}), frame(new byte[] {4, 5, 6}));
+    final SocketReadData first = new SocketReadData(null);
+    final SocketReadData second = new SocketReadData(null);
+    final SocketReadData third = new SocketReadData(null);
+
+    assertThat(first.read(buffer), is(true));
+    assertThat(buffer.remaining(), is(13));
+    assertThat(second.read(buffer), is(true));
+    assertThat(third.read(buffer), is(true));
+    assertThat(buffer.hasRemaining(), is(false));
+    assertThat(first.getData(), is(new byte[] {1}));
+    assertThat(second.getData(), is(new byte[] {2, 3}));
+    assertThat(third.getData(), is(new byte[] {4, 5, 6}));
+  }
+
+  @Test
+  public void readShouldReadTheStartOfTheNextPacketAfterThePacketEnds() throws Exception {
+    final byte[] second = frame(new byte[] {4, 5, 6});
+    final ByteBuffer buffer = concat(frame(new byte[] {1, 2}), second);
+    buffer.limit(buffer.limit() - 5);
+    final SocketReadData first = new SocketReadData(null);
+    final SocketReadData next = new SocketReadData(null);
+
+    assertThat(first.read(buffer), is(true));
+    assertThat(next.read(buffer), is(false));
+    assertThat(next.read(ByteBuffer.wrap(second, second.length - 5, 5)), is(true));
+    assertThat(next.getData(), is(new byte[] {4, 5, 6}));
+  }
+
+  @Test
+  public void readShouldRejectAPacketWithoutContent() {
+    final SocketReadData data = new SocketReadData(null);
+
+    assertThrows(IOException.class, () -> data.read(ByteBuffer.wrap(frame(new byte[0]))));
+  }
+
+  @Test
+  public void readShouldRejectAPacketWithoutMagic() {
+    final SocketReadData data = new SocketReadData(null);
+
+    assertThrows(IOException.class, () -> data.read(ByteBuffer.wrap(new byte[] {0, 0, 0, 1, 1})));
+  }
+
+  @Test
+  public void readShouldReadACompressedPacket() throws Exception {
+    final ByteBuffer frame = ByteBuffer.allocate(5);
+    frame.putInt(1 ^ SocketReadData.COMPRESSED_MAGIC);
+    frame.put((byte) 1);
+    frame.flip();
+    final SocketReadData data = new SocketReadData(null);
+
+    assertThat(data.read(frame), is(true));
+    assertThat(data.isCompressed(), is(true));
+  }
+}
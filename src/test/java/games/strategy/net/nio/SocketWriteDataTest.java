@@ -0,0 +1,86 @@
+package games.strategy.net.nio;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public final class SocketWriteDataTest {
+  private final SocketChannel channel = mock(SocketChannel.class);
+  private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+  // how many bytes the channel accepts per write
+  private int bytesPerWrite = Integer.MAX_VALUE;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    when(channel.write(any(ByteBuffer[].class), anyInt(), anyInt())).thenAnswer(invocation -> {
+      final ByteBuffer[] buffers = invocation.getArgument(0);
+      final int offset = invocation.getArgument(1);
+      final int length = invocation.getArgument(2);
+      long count = 0;
+      for (int i = offset; i < offset + length && count < bytesPerWrite; i++) {
+        while (buffers[i].hasRemaining() && count < bytesPerWrite) {
+          written.write(buffers[i].get());
+          count++;
+        }
+      }
+      return count;
+    });
+  }
+
+  private void readBack(final byte[] content) throws Exception {
+    final SocketReadData data = new SocketReadData(null);
+    assertThat(data.read(ByteBuffer.wrap(written.toByteArray())), is(true));
+    assertThat(data.getData(), is(content));
+  }
+
+  @Test
+  public void writeShouldWriteTheSizeAndTheContent() throws Exception {
+    final byte[] content = {1, 2, 3, 4, 5};
+    final SocketWriteData data = new SocketWriteData(ByteBuffer.wrap(content));
+
+    assertThat(data.write(channel), is(true));
+    assertThat(data.remaining(), is(0));
+    assertThat(data.size(), is(9));
+    readBack(content);
+  }
+
+  @Test
+  public void writeShouldContinueWherePartialWritesStopped() throws Exception {
+    bytesPerWrite = 2;
+    final byte[] content = {1, 2, 3, 4, 5};
+    final SocketWriteData data = new SocketWriteData(ByteBuffer.wrap(content));
+
+    for (int remaining = 7; remaining > 0; remaining -= 2) {
+      assertThat(data.write(channel), is(false));
+      assertThat(data.remaining(), is(remaining));
+    }
+    assertThat(data.write(channel), is(true));
+    assertThat(data.getWriteCalls(), is(5));
+    readBack(content);
+  }
+
+  @Test
+  public void writeShouldNotModifyTheSharedContent() throws Exception {
+    bytesPerWrite = 3;
+    final ByteBuffer content = ByteBuffer.wrap(new byte[] {1, 2, 3});
+    final SocketWriteData first = new SocketWriteData(content);
+    final SocketWriteData second = new SocketWriteData(content);
+
+    while (!first.write(channel)) {
+      // keep writing
+    }
+
+    assertThat(content.remaining(), is(3));
+    assertThat(second.remaining(), is(7));
+  }
+}
@@ -0,0 +1,126 @@
+package games.strategy.triplea.ai.proAI.util;
+
+import static games.strategy.triplea.delegate.GameDataTestUtil.armour;
+import static games.strategy.triplea.delegate.GameDataTestUtil.british;
+import static games.strategy.triplea.delegate.GameDataTestUtil.germans;
+import static games.strategy.triplea.delegate.GameDataTestUtil.infantry;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.TerritoryEffect;
+import games.strategy.engine.data.Unit;
+import games.strategy.triplea.ai.proAI.data.ProBattleResult;
+import games.strategy.triplea.xml.TestMapGameData;
+
+public final class ProBattleResultCacheTest {
+  private GameData gameData;
+  private Territory territory;
+  private Unit infantry;
+  private Unit armour;
+  private Unit defender;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    gameData = TestMapGameData.REVISED.getGameData();
+    territory = gameData.getMap().getTerritory("Germany");
+    infantry = infantry(gameData).create(british(gameData));
+    armour = armour(gameData).create(british(gameData));
+    defender = infantry(gameData).create(germans(gameData));
+  }
+
+  private String newKey(final List<Unit> attackingUnits) {
+    return newKey(Collections.emptyList(), attackingUnits, false);
+  }
+
+  private String newKey(final List<TerritoryEffect> territoryEffects, final List<Unit> attackingUnits,
+      final boolean retreatWhenOnlyAirLeft) {
+    return ProBattleResultCache.newKey(territory, territoryEffects, attackingUnits,
+        Collections.singletonList(defender), Collections.emptyList(), retreatWhenOnlyAirLeft);
+  }
+
+  @Test
+  public void newKeyShouldIgnoreTheOrderOfTheUnits() {
+    assertThat(newKey(Arrays.asList(infantry, armour)), is(newKey(Arrays.asList(armour, infantry))));
+  }
+
+  @Test
+  public void newKeyShouldIgnoreTheIdentityOfTheUnits() {
+    final Unit otherInfantry = infantry(gameData).create(british(gameData));
+
+    assertThat(newKey(Collections.singletonList(infantry)), is(newKey(Collections.singletonList(otherInfantry))));
+  }
+
+  @Test
+  public void newKeyShouldDependOnTheHitsOfTheUnits() {
+    final Unit damagedInfantry = infantry(gameData).create(british(gameData));
+    damagedInfantry.setHits(1);
+
+    assertThat(newKey(Collections.singletonList(infantry)),
+        is(not(newKey(Collections.singletonList(damagedInfantry)))));
+  }
+
+  @Test
+  public void newKeyShouldDependOnTheOwnersOfTheUnits() {
+    final Unit germanInfantry = infantry(gameData).create(germans(gameData));
+
+    assertThat(newKey(Collections.singletonList(infantry)),
+        is(not(newKey(Collections.singletonList(germanInfantry)))));
+  }
+
+  @Test
+  public void newKeyShouldDependOnTheTerritoryEffects() {
+    final List<Unit> attackingUnits = Collections.singletonList(infantry);
+
+    assertThat(newKey(Collections.emptyList(), attackingUnits, false),
+        is(not(newKey(Collections.singletonList(new TerritoryEffect("mountain", gameData)), attackingUnits, false))));
+  }
+
+  @Test
+  public void newKeyShouldDependOnRetreatingWhenOnlyAirIsLeft() {
+    final List<Unit> attackingUnits = Collections.singletonList(infantry);
+
+    assertThat(newKey(Collections.emptyList(), attackingUnits, false),
+        is(not(newKey(Collections.emptyList(), attackingUnits, true))));
+  }
+
+  @Test
+  public void getShouldTranslateTheRemainingUnitsIntoTheSpecifiedUnits() {
+    final ProBattleResultCache cache = new ProBattleResultCache();
+    final List<Unit> attackingUnits = Arrays.asList(infantry, armour);
+    final String key = newKey(attackingUnits);
+    cache.put(key, new ProBattleResult(75, 5, true, Collections.singletonList(armour), new ArrayList<>(), 2),
+        attackingUnits, Collections.singletonList(defender));
+    final Unit otherArmour = armour(gameData).create(british(gameData));
+    final Unit otherInfantry = infantry(gameData).create(british(gameData));
+
+    final ProBattleResult result =
+        cache.get(key, Arrays.asList(otherArmour, otherInfantry), Collections.singletonList(defender));
+
+    assertThat(result.getAverageAttackersRemaining(), contains(otherArmour));
+  }
+
+  @Test
+  public void clearShouldRemoveTheCachedResults() {
+    final ProBattleResultCache cache = new ProBattleResultCache();
+    final List<Unit> attackingUnits = Collections.singletonList(infantry);
+    final String key = newKey(attackingUnits);
+    cache.put(key, new ProBattleResult(), attackingUnits, Collections.singletonList(defender));
+
+    cache.clear();
+
+    assertThat(cache.get(key, attackingUnits, Collections.singletonList(defender)), is(nullValue()));
+  }
+}
@@ -0,0 +1,72 @@
+package games.strategy.triplea.ai.proAI.util;
+
+import static games.strategy.triplea.delegate.GameDataTestUtil.british;
+import static games.strategy.triplea.delegate.GameDataTestUtil.germans;
+import static games.strategy.triplea.delegate.GameDataTestUtil.infantry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.Territory;
+import games.strategy.engine.data.Unit;
+import games.strategy.triplea.oddsCalculator.ta.AggregateResults;
+import games.strategy.triplea.oddsCalculator.ta.IOddsCalculator;
+import games.strategy.triplea.xml.TestMapGameData;
+
+public final class ProOddsCalculatorTest {
+  private final IOddsCalculator calc = mock(IOddsCalculator.class);
+  private GameData gameData;
+  private Territory territory;
+  private List<Unit> attackingUnits;
+  private List<Unit> defendingUnits;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    gameData = TestMapGameData.REVISED.getGameData();
+    territory = gameData.getMap().getTerritory("Germany");
+    attackingUnits = infantry(gameData).create(2, british(gameData));
+    defendingUnits = infantry(gameData).create(1, germans(gameData));
+    when(calc.setCalculateDataAndCalculate(any(), any(), any(), any(), any(), any(), any(), anyInt()))
+        .thenReturn(mock(AggregateResults.class));
+  }
+
+  private void callBattleCalculator(final ProOddsCalculator proOddsCalculator) {
+    proOddsCalculator.callBattleCalculator(territory, attackingUnits, defendingUnits, Collections.emptySet());
+  }
+
+  private void verifyBattlesCalculated(final int times) {
+    verify(calc, times(times)).setCalculateDataAndCalculate(any(), any(), any(), any(), any(), any(), any(),
+        anyInt());
+  }
+
+  @Test
+  public void callBattleCalculatorShouldReuseTheResultOfTheSameBattle() {
+    final ProOddsCalculator proOddsCalculator = new ProOddsCalculator(calc);
+
+    callBattleCalculator(proOddsCalculator);
+    callBattleCalculator(proOddsCalculator);
+
+    verifyBattlesCalculated(1);
+  }
+
+  @Test
+  public void setDataShouldClearTheCachedResults() {
+    final ProOddsCalculator proOddsCalculator = new ProOddsCalculator(calc);
+    callBattleCalculator(proOddsCalculator);
+
+    proOddsCalculator.setData(gameData);
+    callBattleCalculator(proOddsCalculator);
+
+    verifyBattlesCalculated(2);
+  }
+}
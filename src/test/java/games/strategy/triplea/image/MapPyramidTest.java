@@ -0,0 +1,122 @@
+package games.strategy.triplea.image;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+
+import javax.imageio.ImageIO;
+
+import org.junit.experimental.extensions.TemporaryFolder;
+import org.junit.experimental.extensions.TemporaryFolderExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import games.strategy.triplea.ResourceLoader;
+import games.strategy.triplea.ui.screen.TileManager;
+
+@ExtendWith(TemporaryFolderExtension.class)
+public final class MapPyramidTest {
+  private TemporaryFolder temporaryFolder;
+  private final ResourceLoader resourceLoader = mock(ResourceLoader.class);
+
+  private void givenReliefTile(final int x, final int y, final Color color) throws Exception {
+    final BufferedImage image =
+        new BufferedImage(TileManager.TILE_SIZE, TileManager.TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+    final Graphics2D g = image.createGraphics();
+    g.setColor(color);
+    g.fillRect(0, 0, image.getWidth(), image.getHeight());
+    g.dispose();
+    final File file = temporaryFolder.newFile(x + "_" + y + ".png");
+    ImageIO.write(image, "png", file);
+    when(resourceLoader.getResource("reliefTiles/" + x + "_" + y + ".png")).thenReturn(file.toURI().toURL());
+  }
+
+  private File newFolder(final String name) throws Exception {
+    final File folder = temporaryFolder.newFile(name);
+    folder.delete();
+    folder.mkdir();
+    return folder;
+  }
+
+  @Test
+  public void getLevelShouldBeTheDeepestLevelWithAtLeastTheScaledResolution() {
+    assertThat(MapPyramid.getLevel(1), is(1));
+    assertThat(MapPyramid.getLevel(0.75), is(1));
+    assertThat(MapPyramid.getLevel(0.5), is(2));
+    assertThat(MapPyramid.getLevel(0.3), is(2));
+    assertThat(MapPyramid.getLevel(0.25), is(4));
+    assertThat(MapPyramid.getLevel(0.125), is(8));
+    assertThat(MapPyramid.getLevel(0.05), is(8));
+  }
+
+  @Test
+  public void getTileShouldDownsampleTheTilesItCovers() throws Exception {
+    givenReliefTile(0, 0, Color.RED);
+    givenReliefTile(1, 1, Color.BLUE);
+    final MapPyramid mapPyramid = new MapPyramid(resourceLoader, new TileImageCache(16 * 1024 * 1024));
+
+    final BufferedImage tile = mapPyramid.getTile("reliefTiles", 2, 0, 0, true);
+
+    assertThat(tile.getWidth(), is(TileManager.TILE_SIZE));
+    assertThat(tile.getRGB(10, 10), is(Color.RED.getRGB()));
+    assertThat(tile.getRGB(200, 200), is(Color.BLUE.getRGB()));
+    assertThat(tile.getRGB(200, 10) >>> 24, is(0));
+  }
+
+  @Test
+  public void deleteOtherVersionsShouldDeleteTheTilesOfTheOtherVersionsOfTheMapOnly() throws Exception {
+    final File oldVersion = newFolder("map-1a2b-15f");
+    new File(oldVersion, "baseTiles").mkdirs();
+    new File(oldVersion, "baseTiles/0_0.png").createNewFile();
+    final File currentVersion = newFolder("map-1a2b-160");
+    final File otherMap = newFolder("map-3c4d-15f");
+    final File otherMapWithSimilarName = newFolder("map-1a2b-x-15f");
+
+    MapPyramid.deleteOtherVersions(currentVersion);
+
+    assertThat(oldVersion.exists(), is(false));
+    assertThat(currentVersion.exists(), is(true));
+    assertThat(otherMap.exists(), is(true));
+    assertThat(otherMapWithSimilarName.exists(), is(true));
+  }
+
+  @Test
+  public void getLastModifiedShouldBeTheNewestTileOfAMapFolder() throws Exception {
+    final File map = newFolder("map");
+    new File(map, "baseTiles").mkdir();
+    new File(map, "reliefTiles").mkdir();
+    final File baseTile = new File(map, "baseTiles/0_0.png");
+    baseTile.createNewFile();
+    final File reliefTile = new File(map, "reliefTiles/0_0.png");
+    reliefTile.createNewFile();
+    map.setLastModified(1000000);
+    new File(map, "baseTiles").setLastModified(1000000);
+    new File(map, "reliefTiles").setLastModified(1000000);
+    baseTile.setLastModified(2000000);
+    reliefTile.setLastModified(3000000);
+
+    assertThat(MapPyramid.getLastModified(map), is(3000000L));
+  }
+
+  @Test
+  public void getLastModifiedShouldBeTheModificationTimeOfAZippedMap() throws Exception {
+    final File map = temporaryFolder.newFile("map.zip");
+    map.setLastModified(2000000);
+
+    assertThat(MapPyramid.getLastModified(map), is(2000000L));
+  }
+
+  @Test
+  public void getTileShouldBeNullWhereThereAreNoTiles() {
+    final MapPyramid mapPyramid = new MapPyramid(resourceLoader, new TileImageCache(16 * 1024 * 1024));
+
+    assertThat(mapPyramid.getTile("reliefTiles", 4, 3, 3, true), is(nullValue()));
+  }
+}
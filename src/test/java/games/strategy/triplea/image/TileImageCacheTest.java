@@ -0,0 +1,127 @@
+package games.strategy.triplea.image;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Test;
+
+public final class TileImageCacheTest {
+  // 4 bytes per pixel
+  private static final long IMAGE_BYTES = 10 * 10 * 4;
+
+  private static Image newImage() {
+    return new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedImagesWhenOverBudget() {
+    final TileImageCache cache = new TileImageCache(2 * IMAGE_BYTES);
+    final Image first = newImage();
+    cache.put("first", first);
+    cache.put("second", newImage());
+
+    cache.get("first");
+    cache.put("third", newImage());
+
+    assertThat(cache.get("first"), is(sameInstance(first)));
+    assertThat(cache.contains("second"), is(false));
+    assertThat(cache.contains("third"), is(true));
+    assertThat(cache.getBytes(), is(2 * IMAGE_BYTES));
+  }
+
+  @Test
+  public void shouldNotCacheImagesLargerThanTheBudget() {
+    final TileImageCache cache = new TileImageCache(IMAGE_BYTES);
+    cache.put("small", newImage());
+
+    cache.put("large", new BufferedImage(20, 20, BufferedImage.TYPE_INT_ARGB));
+
+    assertThat(cache.get("large"), is(nullValue()));
+    assertThat(cache.contains("small"), is(true));
+  }
+
+  @Test
+  public void replacingAnImageShouldNotCountItTwice() {
+    final TileImageCache cache = new TileImageCache(2 * IMAGE_BYTES);
+
+    cache.put("key", newImage());
+    cache.put("key", newImage());
+
+    assertThat(cache.getBytes(), is(IMAGE_BYTES));
+  }
+
+  @Test
+  public void shouldNotEvictPinnedImages() {
+    final TileImageCache cache = new TileImageCache(2 * IMAGE_BYTES);
+    cache.pin("first");
+    cache.pin("second");
+    cache.put("first", newImage());
+    cache.put("second", newImage());
+
+    cache.put("third", newImage());
+
+    assertThat(cache.contains("first"), is(true));
+    assertThat(cache.contains("second"), is(true));
+    assertThat(cache.contains("third"), is(false));
+  }
+
+  @Test
+  public void shouldEvictImagesOnceTheyAreUnpinned() {
+    final TileImageCache cache = new TileImageCache(2 * IMAGE_BYTES);
+    cache.pin("first");
+    cache.put("first", newImage());
+    cache.put("second", newImage());
+
+    cache.unpin("first");
+    cache.put("third", newImage());
+
+    assertThat(cache.contains("first"), is(false));
+    assertThat(cache.contains("second"), is(true));
+  }
+
+  @Test
+  public void touchShouldMarkTheImageAsRecentlyUsedWithoutCountingALookup() {
+    final TileImageCache cache = new TileImageCache(2 * IMAGE_BYTES);
+    cache.put("first", newImage());
+    cache.put("second", newImage());
+
+    cache.touch("first");
+    cache.put("third", newImage());
+
+    assertThat(cache.contains("first"), is(true));
+    assertThat(cache.contains("second"), is(false));
+    assertThat(cache.getHitRate(), is(0.0));
+  }
+
+  @Test
+  public void getHitRateShouldBeTheShareOfLookupsThatFoundAnImage() {
+    final TileImageCache cache = new TileImageCache(IMAGE_BYTES);
+    cache.put("key", newImage());
+
+    cache.get("key");
+    cache.get("key");
+    cache.get("key");
+    cache.get("other");
+
+    assertThat(cache.getHitRate(), is(closeTo(0.75, 0.001)));
+  }
+
+  @Test
+  public void getBudgetShouldBeAtMostAQuarterOfTheMaxHeap() {
+    assertThat(TileImageCache.getBudget(256L << 20, 2048L << 20), is(256L << 20));
+    assertThat(TileImageCache.getBudget(4096L << 20, 2048L << 20), is(512L << 20));
+    assertThat(TileImageCache.getBudget(256L << 20, Long.MAX_VALUE), is(256L << 20));
+  }
+
+  @Test
+  public void getSizeShouldAccountForThePixelFormat() {
+    assertThat(TileImageCache.getSize(new BufferedImage(10, 10, BufferedImage.TYPE_3BYTE_BGR)), is(300L));
+    assertThat(TileImageCache.getSize(new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB)), is(400L));
+  }
+}
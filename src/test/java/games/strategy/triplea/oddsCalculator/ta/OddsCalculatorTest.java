@@ -49,6 +49,24 @@ public class OddsCalculatorTest {
     assertTrue(results.getDrawPercent() < 0.1);
   }
 
+  @Test
+  public void testUnbalancedFightStopsAtTargetWinPercentError() {
+    final Territory germany = gameData.getMap().getTerritory("Germany");
+    final Collection<Unit> defendingUnits = new ArrayList<>(germany.getUnits().getUnits());
+    final PlayerID russians = GameDataTestUtil.russians(gameData);
+    final PlayerID germans = GameDataTestUtil.germans(gameData);
+    final List<Unit> attackingUnits = GameDataTestUtil.infantry(gameData).create(100, russians);
+    final List<Unit> bombardingUnits = Collections.emptyList();
+    final IOddsCalculator calculator = new OddsCalculator(gameData);
+    calculator.setTargetWinPercentError(0.05);
+    final AggregateResults results = calculator.setCalculateDataAndCalculate(russians, germans, germany, attackingUnits,
+        defendingUnits, bombardingUnits, TerritoryEffectHelper.getEffects(germany), 200);
+    calculator.shutdown();
+    assertTrue(results.getRollCount() < 200);
+    assertTrue(results.getAttackerWinPercentError() <= 0.05);
+    assertTrue(results.getAttackerWinPercent() > 0.9);
+  }
+
   @Test
   public void testKeepOneAttackingLand() {
     // 1 bomber and 1 infantry attacking
@@ -0,0 +1,52 @@
+package games.strategy.triplea.ui.mapdata;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.awt.Polygon;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public final class TerritoryIndexTest {
+  private static Polygon newSquare(final int x, final int y, final int size) {
+    return new Polygon(new int[] {x, x + size, x + size, x}, new int[] {y, y, y + size, y + size}, 4);
+  }
+
+  private static TerritoryIndex newIndex() {
+    final Map<String, List<Polygon>> polygons = new LinkedHashMap<>();
+    polygons.put("Sea Zone 1", Collections.singletonList(newSquare(0, 0, 1000)));
+    polygons.put("Island", Collections.singletonList(newSquare(100, 100, 50)));
+    polygons.put("Archipelago", Arrays.asList(newSquare(300, 300, 20), newSquare(700, 700, 20)));
+    return new TerritoryIndex(polygons);
+  }
+
+  @Test
+  public void getTerritoryAtShouldPreferLandOverSurroundingSea() {
+    final TerritoryIndex index = newIndex();
+
+    assertThat(index.getTerritoryAt(120, 120), is("Island"));
+    assertThat(index.getTerritoryAt(710, 710), is("Archipelago"));
+    assertThat(index.getTerritoryAt(500, 500), is("Sea Zone 1"));
+  }
+
+  @Test
+  public void getTerritoryAtShouldReturnNullOutsideAllTerritories() {
+    final TerritoryIndex index = newIndex();
+
+    assertThat(index.getTerritoryAt(-1, 10), is(nullValue()));
+    assertThat(index.getTerritoryAt(1500, 1500), is(nullValue()));
+  }
+
+  @Test
+  public void shouldHandleMapsWithoutPolygons() {
+    final TerritoryIndex index = new TerritoryIndex(Collections.emptyMap());
+
+    assertThat(index.getTerritoryAt(0, 0), is(nullValue()));
+  }
+}
@@ -0,0 +1,153 @@
+package games.strategy.triplea.ui.screen;
+
+import static games.strategy.triplea.delegate.GameDataTestUtil.armour;
+import static games.strategy.triplea.delegate.GameDataTestUtil.british;
+import static games.strategy.triplea.delegate.GameDataTestUtil.germans;
+import static games.strategy.triplea.delegate.GameDataTestUtil.infantry;
+import static games.strategy.triplea.delegate.GameDataTestUtil.territory;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.engine.data.Territory;
+import games.strategy.triplea.image.TileImageCache;
+import games.strategy.triplea.image.UnitImageFactory;
+import games.strategy.triplea.ui.UiContext;
+import games.strategy.triplea.ui.mapdata.MapData;
+import games.strategy.triplea.ui.screen.drawable.IDrawable.OptionalExtraBorderLevel;
+import games.strategy.triplea.xml.TestMapGameData;
+
+/**
+ * Updates the units of a territory whose bounds are the top left 2x2 tiles of a 4x4 tile map, with each unit stack
+ * placed on a tile of its own.
+ */
+public final class TileManagerTest {
+  private static final int UNIT_SIZE = 48;
+
+  private final UiContext uiContext = mock(UiContext.class);
+  private final MapData mapData = mock(MapData.class);
+  private final TileManager tileManager = new TileManager(uiContext, new TileImageCache(16 * 1024 * 1024));
+  private GameData data;
+  private Territory territory;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    data = TestMapGameData.REVISED.getGameData();
+    territory = territory("Germany", data);
+    territory.getUnits().removeAll(new ArrayList<>(territory.getUnits().getUnits()));
+    final UnitImageFactory unitImageFactory = mock(UnitImageFactory.class);
+    when(unitImageFactory.getUnitImageWidth()).thenReturn(UNIT_SIZE);
+    when(unitImageFactory.getUnitImageHeight()).thenReturn(UNIT_SIZE);
+    when(uiContext.getUnitImageFactory()).thenReturn(unitImageFactory);
+    when(uiContext.getMapData()).thenReturn(mapData);
+    when(uiContext.getScale()).thenReturn(1.0);
+    when(uiContext.getShowUnits()).thenReturn(true);
+    when(uiContext.getDrawTerritoryBordersAgain()).thenReturn(OptionalExtraBorderLevel.LOW);
+    final int mapSize = 4 * TileManager.TILE_SIZE;
+    when(mapData.getMapDimensions()).thenReturn(new Dimension(mapSize, mapSize));
+    when(mapData.getBoundingRect(anyString()))
+        .thenReturn(new Rectangle(0, 0, 2 * TileManager.TILE_SIZE, 2 * TileManager.TILE_SIZE));
+    when(mapData.getPlayerColor(anyString())).thenReturn(Color.RED);
+    givenPlacementPoints(new Point(10, 10), new Point(266, 10), new Point(10, 266));
+    tileManager.createTiles(new Rectangle(0, 0, mapSize, mapSize));
+  }
+
+  private void givenPlacementPoints(final Point... points) {
+    when(mapData.getPlacementPoints(territory)).thenReturn(Arrays.asList(points));
+  }
+
+  private List<UnitsDrawer> givenUnitsDrawn() {
+    territory.getUnits().addAll(infantry(data).create(2, germans(data)));
+    territory.getUnits().addAll(armour(data).create(1, germans(data)));
+    tileManager.updateTerritoryUnits(territory, data, mapData);
+    tileManager.getRenderCounts().takeSummary();
+    return new ArrayList<>(tileManager.getUnitDrawables());
+  }
+
+  private static List<UnitsDrawer> kept(final Collection<UnitsDrawer> before, final Collection<UnitsDrawer> after) {
+    final List<UnitsDrawer> kept = new ArrayList<>();
+    for (final UnitsDrawer drawable : before) {
+      for (final UnitsDrawer other : after) {
+        if (drawable == other) {
+          kept.add(drawable);
+        }
+      }
+    }
+    return kept;
+  }
+
+  @Test
+  public void updateTerritoryUnitsShouldKeepTheStacksThatDidNotChange() {
+    final List<UnitsDrawer> before = givenUnitsDrawn();
+
+    tileManager.updateTerritoryUnits(territory, data, mapData);
+
+    assertThat(before, hasSize(2));
+    assertThat(kept(before, tileManager.getUnitDrawables()), hasSize(2));
+    assertThat(tileManager.getRenderCounts().takeSummary(),
+        is("tiles invalidated: 0 (territory layers: 0), tiles drawn: 0 (territory layers: 0)"));
+  }
+
+  @Test
+  public void updateTerritoryUnitsShouldOnlyReplaceTheStackWhoseCountChanged() {
+    final List<UnitsDrawer> before = givenUnitsDrawn();
+
+    territory.getUnits().addAll(armour(data).create(1, germans(data)));
+    tileManager.updateTerritoryUnits(territory, data, mapData);
+
+    final Collection<UnitsDrawer> after = tileManager.getUnitDrawables();
+    assertThat(after, hasSize(2));
+    assertThat(kept(before, after), hasSize(1));
+    // removed from and added to the tile of the stack
+    assertThat(tileManager.getRenderCounts().takeSummary(),
+        is("tiles invalidated: 2 (territory layers: 0), tiles drawn: 0 (territory layers: 0)"));
+  }
+
+  @Test
+  public void updateTerritoryUnitsShouldOnlyReplaceTheStackWhosePlacementChanged() {
+    final List<UnitsDrawer> before = givenUnitsDrawn();
+
+    givenPlacementPoints(new Point(10, 10), new Point(266, 266), new Point(10, 266));
+    tileManager.updateTerritoryUnits(territory, data, mapData);
+
+    final Collection<UnitsDrawer> after = tileManager.getUnitDrawables();
+    assertThat(after, hasSize(2));
+    final List<UnitsDrawer> kept = kept(before, after);
+    assertThat(kept, hasSize(1));
+    assertThat(kept.get(0).getPlacementPoint(), is(new Point(10, 10)));
+    // removed from the tile it was on and added to the tile it moved to
+    assertThat(tileManager.getRenderCounts().takeSummary(),
+        is("tiles invalidated: 2 (territory layers: 0), tiles drawn: 0 (territory layers: 0)"));
+  }
+
+  @Test
+  public void updateTerritoryUnitsShouldUpdateTheWholeTerritoryWhenABattleStarts() {
+    final List<UnitsDrawer> before = givenUnitsDrawn();
+
+    territory.getUnits().addAll(infantry(data).create(1, british(data)));
+    tileManager.updateTerritoryUnits(territory, data, mapData);
+
+    final Collection<UnitsDrawer> after = tileManager.getUnitDrawables();
+    assertThat(after, hasSize(3));
+    assertThat(kept(before, after), hasSize(0));
+    // the territory is removed from and added to its 4 tiles, whose layers are drawn again, and each stack to its tile
+    assertThat(tileManager.getRenderCounts().takeSummary(),
+        is("tiles invalidated: 11 (territory layers: 8), tiles drawn: 0 (territory layers: 0)"));
+  }
+}
@@ -0,0 +1,88 @@
+package games.strategy.triplea.ui.screen;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.Rectangle;
+
+import org.junit.jupiter.api.Test;
+
+import games.strategy.engine.data.GameData;
+import games.strategy.triplea.image.TileImageCache;
+import games.strategy.triplea.ui.mapdata.MapData;
+import games.strategy.triplea.ui.screen.drawable.IDrawable;
+
+public final class TileTest {
+  private final RenderCounts renderCounts = new RenderCounts();
+  private final TileImageCache imageCache = new TileImageCache(16 * 1024 * 1024);
+  private final Tile tile = new Tile(new Rectangle(0, 0, TileManager.TILE_SIZE, TileManager.TILE_SIZE), 0, 0, 1,
+      imageCache, renderCounts);
+  private final GameData data = mock(GameData.class);
+  private final MapData mapData = mock(MapData.class);
+
+  private static IDrawable newDrawable(final int level) {
+    final IDrawable drawable = mock(IDrawable.class);
+    when(drawable.getLevel()).thenReturn(level);
+    return drawable;
+  }
+
+  private void verifyDrawn(final IDrawable drawable, final int times) {
+    verify(drawable, times(times)).draw(any(), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  public void changingUnitsShouldOnlyRecompositeTheTile() {
+    final IDrawable territory = newDrawable(IDrawable.POLYGONS_LEVEL);
+    final IDrawable units = newDrawable(IDrawable.UNITS_LEVEL);
+    tile.addDrawable(territory);
+    tile.addDrawable(units);
+    tile.getImage(data, mapData);
+    renderCounts.takeSummary();
+
+    tile.removeDrawable(units);
+    tile.addDrawable(newDrawable(IDrawable.UNITS_LEVEL));
+    tile.getImage(data, mapData);
+
+    verifyDrawn(territory, 1);
+    assertThat(renderCounts.takeSummary(),
+        is("tiles invalidated: 2 (territory layers: 0), tiles drawn: 1 (territory layers: 0)"));
+  }
+
+  @Test
+  public void changingTheTerritoryLayerShouldDrawItAgain() {
+    final IDrawable territory = newDrawable(IDrawable.POLYGONS_LEVEL);
+    tile.addDrawable(territory);
+    tile.addDrawable(newDrawable(IDrawable.UNITS_LEVEL));
+    tile.getImage(data, mapData);
+
+    tile.addDrawable(newDrawable(IDrawable.TERRITORY_TEXT_LEVEL));
+    tile.getImage(data, mapData);
+
+    verifyDrawn(territory, 2);
+  }
+
+  @Test
+  public void removingADrawableNotOnTheTileShouldNotInvalidateIt() {
+    tile.addDrawable(newDrawable(IDrawable.POLYGONS_LEVEL));
+    tile.getImage(data, mapData);
+
+    tile.removeDrawable(newDrawable(IDrawable.UNITS_LEVEL));
+
+    assertThat(tile.isDirty(), is(false));
+  }
+
+  @Test
+  public void evictingTheImageShouldMakeTheTileDirty() {
+    tile.addDrawable(newDrawable(IDrawable.POLYGONS_LEVEL));
+    tile.getImage(data, mapData);
+
+    imageCache.clear();
+
+    assertThat(tile.isDirty(), is(true));
+  }
+}
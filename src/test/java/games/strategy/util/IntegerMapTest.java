@@ -4,12 +4,21 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+
 import org.junit.jupiter.api.Test;
 
 import com.google.common.collect.ImmutableMap;
 
+import games.strategy.io.IoUtils;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import nl.jqno.equalsverifier.Warning;
 
@@ -110,4 +119,87 @@ public class IntegerMapTest {
     map1.add(v3, 3);
     assertTrue(map1.greaterThanOrEqualTo(map2));
   }
+
+  @Test
+  public void shouldBeSerializable() throws Exception {
+    final IntegerMap<String> map = new IntegerMap<>();
+    for (int i = 0; i < 100; i++) {
+      map.put("key" + i, i - 50);
+    }
+
+    final byte[] bytes = IoUtils.writeToMemory(os -> {
+      try (ObjectOutputStream oos = new ObjectOutputStream(os)) {
+        oos.writeObject(map);
+      }
+    });
+    final Object actual = IoUtils.readFromMemory(bytes, is -> {
+      try (ObjectInputStream ois = new ObjectInputStream(is)) {
+        return ois.readObject();
+      } catch (final ClassNotFoundException e) {
+        throw new IOException(e);
+      }
+    });
+
+    assertThat(actual, is(map));
+  }
+
+  @Test
+  public void shouldDeserializeMissingValuesAsAnEmptyMap() throws Exception {
+    final byte[] bytes = IoUtils.writeToMemory(os -> {
+      try (ObjectOutputStream oos = new ObjectOutputStream(os) {
+        {
+          enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(final Object obj) {
+          // writes the values of the map as null
+          return (obj instanceof HashMap) ? null : obj;
+        }
+      }) {
+        oos.writeObject(new IntegerMap<>(v1.toString(), 1));
+      }
+    });
+    final Object actual = IoUtils.readFromMemory(bytes, is -> {
+      try (ObjectInputStream ois = new ObjectInputStream(is)) {
+        return ois.readObject();
+      } catch (final ClassNotFoundException e) {
+        throw new IOException(e);
+      }
+    });
+
+    assertThat(actual, is(new IntegerMap<>()));
+  }
+
+  @Test
+  public void keySetIterator_ShouldRemoveKeys() {
+    final IntegerMap<Object> map = new IntegerMap<>();
+    map.put(v1, 1);
+    map.put(v2, 2);
+    map.put(v3, 3);
+
+    final Iterator<Object> iter = map.keySet().iterator();
+    while (iter.hasNext()) {
+      if (iter.next() != v2) {
+        iter.remove();
+      }
+    }
+
+    assertThat(map, is(new IntegerMap<>(v2, 2)));
+    map.add(v1, 4);
+    assertEquals(6, map.totalValues());
+  }
+
+  @Test
+  public void keySetIterator_ShouldFailWhenTheMapIsModifiedOutsideTheIterator() {
+    final IntegerMap<Object> map = new IntegerMap<>();
+    map.put(v1, 1);
+    map.put(v2, 2);
+    map.put(v3, 3);
+
+    final Iterator<Object> iter = map.keySet().iterator();
+    map.removeKey(iter.next());
+
+    assertThrows(ConcurrentModificationException.class, iter::next);
+  }
 }